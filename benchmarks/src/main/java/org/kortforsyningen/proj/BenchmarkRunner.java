@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Runs the benchmarks for an increasing number of threads: 1, 2, 4, 8, 16, 32 and 64.
+ * The JMH {@code -t} option accepts only one value, so this class repeats the run for
+ * each thread count. Other command-line arguments are the JMH arguments. Example:
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar org.kortforsyningen.proj.BenchmarkRunner TransformBenchmark -p numPts=10000
+ * </pre>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+public final class BenchmarkRunner {
+    /**
+     * Largest number of threads to test.
+     */
+    private static final int MAX_THREADS = 64;
+
+    /**
+     * Do not allow instantiation of this class.
+     */
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Runs the benchmarks for each number of threads.
+     *
+     * @param  args  JMH command-line arguments, except {@code -t}.
+     * @throws CommandLineOptionException if an argument is invalid.
+     * @throws RunnerException if a benchmark failed.
+     */
+    public static void main(final String[] args) throws CommandLineOptionException, RunnerException {
+        final CommandLineOptions options = new CommandLineOptions(args);
+        for (int threads = 1; threads <= MAX_THREADS; threads *= 2) {
+            final ChainedOptionsBuilder builder = new OptionsBuilder().parent(options).threads(threads);
+            if (options.getResult().hasValue()) {
+                final String file = options.getResult().get();
+                final int s = file.lastIndexOf('.');
+                builder.result(s > file.lastIndexOf('/')
+                        ? file.substring(0, s) + "-t" + threads + file.substring(s)
+                        : file + "-t" + threads);
+            }
+            new Runner(builder.build()).run();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.opengis.util.FactoryException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Throughput of the disposal of PROJ objects by {@link CleanerThread}.
+ * Each invocation makes a batch of distinct CRS unreachable, requests a garbage collection,
+ * then waits until {@link CleanerThread} has released all of them. The result is the time
+ * per disposed object, which includes the garbage collection. Results are meaningful for
+ * comparisons between versions on the same machine, less as absolute values.
+ *
+ * <p>This benchmark is executed with the cache of parsed texts disabled, so it does not keep
+ * strong references to the CRS, and with soft references cleared at every garbage collection.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(value = 1, jvmArgsAppend = {"-Dorg.kortforsyningen.proj.maxCachedTexts=0", "-XX:SoftRefLRUPolicyMSPerMB=0"})
+@OperationsPerInvocation(CleanerBenchmark.BATCH_SIZE)
+public class CleanerBenchmark {
+    /**
+     * Number of objects disposed in each benchmark invocation.
+     */
+    static final int BATCH_SIZE = 1000;
+
+    /**
+     * Maximal time to wait for the disposal of a batch, in nanoseconds.
+     */
+    private static final long TIMEOUT = 60_000_000_000L;
+
+    /**
+     * Time between two requests for garbage collection while waiting for disposal, in nanoseconds.
+     */
+    private static final long GC_INTERVAL = 100_000_000L;
+
+    /**
+     * The objects to dispose.
+     */
+    private List<Object> objects;
+
+    /**
+     * Number of entries in {@link SharedObjects} before the creation of {@link #objects}.
+     */
+    private int baseline;
+
+    /**
+     * Counter used for giving a different name to each CRS.
+     */
+    private int counter;
+
+    /**
+     * Creates a batch of distinct CRS. Each CRS has a different name,
+     * so PROJ creates a new object for each of them.
+     *
+     * @throws FactoryException if a CRS can not be created.
+     */
+    @Setup(Level.Invocation)
+    public void create() throws FactoryException {
+        baseline = SharedObjects.CACHE.size();
+        objects  = new ArrayList<>(BATCH_SIZE);
+        for (int i=0; i<BATCH_SIZE; i++) {
+            objects.add(Proj.createFromUserInput("GEOGCRS[\"Benchmark #" + (counter++) + "\","
+                    + " DATUM[\"World Geodetic System 1984\", ELLIPSOID[\"WGS 84\", 6378137, 298.257223563]],"
+                    + " CS[ellipsoidal, 2],"
+                    + " AXIS[\"latitude\", north, ORDER[1]],"
+                    + " AXIS[\"longitude\", east, ORDER[2]],"
+                    + " ANGLEUNIT[\"degree\", 0.0174532925199433]]"));
+        }
+    }
+
+    /**
+     * Makes the batch of CRS unreachable and waits for their disposal.
+     *
+     * @return number of entries remaining in {@link SharedObjects}.
+     * @throws IllegalStateException if the objects have not been disposed before the timeout.
+     */
+    @Benchmark
+    public int dispose() {
+        objects = null;
+        final long start = System.nanoTime();
+        long nextGC = start;
+        int size;
+        while ((size = SharedObjects.CACHE.size()) > baseline) {
+            final long time = System.nanoTime();
+            if (time - nextGC >= 0) {
+                if (time - start > TIMEOUT) {
+                    throw new IllegalStateException("Objects not disposed after 60 seconds.");
+                }
+                System.gc();
+                nextGC = time + GC_INTERVAL;
+            }
+            Thread.yield();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import java.util.concurrent.TimeUnit;
+import org.opengis.util.FactoryException;
+import org.opengis.referencing.crs.CRSAuthorityFactory;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.CoordinateOperation;
+import org.opengis.referencing.operation.CoordinateOperationFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Latency of creating CRS from authority codes and of searching coordinate operations,
+ * in a JVM where PROJ is already initialized. For the cost of the first invocation in a
+ * new JVM, see {@link StartupBenchmark}.
+ *
+ * <p>Creating the same CRS many times measures the cost of a lookup in the PROJ database
+ * followed by a lookup in the cache of Java wrappers, since the Java wrapper of a CRS
+ * still in use is reused. Operation search is not cached, so each invocation of
+ * {@link #createOperation()} searches again the PROJ database.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FactoryBenchmark {
+    /**
+     * Source and target EPSG codes separated by {@code '>'}. The pairs are, in order:
+     * WGS 84 to World Mercator (map projection), NAD27 to WGS 84 (datum shift with many
+     * candidate operations), ETRS89 to UTM zone 32N (map projection), WGS 84 to UTM zone 32N
+     * and geographic 3D to geocentric (conversion).
+     */
+    @Param({"4326>3395", "4267>4326", "4258>25832", "4326>32632", "4979>4978"})
+    public String pair;
+
+    /**
+     * The factory for creating CRS from EPSG codes.
+     */
+    private CRSAuthorityFactory crsFactory;
+
+    /**
+     * The factory for searching coordinate operations.
+     */
+    private CoordinateOperationFactory opFactory;
+
+    /**
+     * Source and target EPSG codes.
+     */
+    private String sourceCode, targetCode;
+
+    /**
+     * Source and target CRS, kept for the whole benchmark duration.
+     */
+    private CoordinateReferenceSystem sourceCRS, targetCRS;
+
+    /**
+     * Fetches the factories and creates the CRS.
+     *
+     * @throws FactoryException if a CRS can not be created.
+     */
+    @Setup
+    public void setup() throws FactoryException {
+        final int s = pair.indexOf('>');
+        sourceCode = pair.substring(0, s);
+        targetCode = pair.substring(s+1);
+        crsFactory = Proj.getAuthorityFactory("EPSG");
+        opFactory  = Proj.getOperationFactory(null);
+        sourceCRS  = crsFactory.createCoordinateReferenceSystem(sourceCode);
+        targetCRS  = crsFactory.createCoordinateReferenceSystem(targetCode);
+    }
+
+    /**
+     * Creates the source CRS from its EPSG code.
+     *
+     * @return the CRS.
+     * @throws FactoryException if the CRS can not be created.
+     */
+    @Benchmark
+    public CoordinateReferenceSystem createCRS() throws FactoryException {
+        return crsFactory.createCoordinateReferenceSystem(sourceCode);
+    }
+
+    /**
+     * Searches the coordinate operation between the source and target CRS.
+     *
+     * @return the operation.
+     * @throws FactoryException if no operation can be found.
+     */
+    @Benchmark
+    public CoordinateOperation createOperation() throws FactoryException {
+        return opFactory.createOperation(sourceCRS, targetCRS);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import java.util.Random;
+import org.opengis.util.FactoryException;
+import org.opengis.referencing.crs.CRSAuthorityFactory;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.CoordinateOperation;
+
+
+/**
+ * Operations and coordinates shared by all benchmarks. Two-dimensional benchmarks use a
+ * map projection from "WGS 84" (EPSG:4326) to "WGS 84 / World Mercator" (EPSG:3395).
+ * Three-dimensional benchmarks use a conversion from geographic "WGS 84" (EPSG:4979)
+ * to geocentric "WGS 84" (EPSG:4978). None of those operations is an affine pipeline,
+ * so all of them are delegated to PROJ.
+ *
+ * <p>Benchmarks are in the {@code org.kortforsyningen.proj} package for allowing them
+ * to measure package-private operations such as {@link Context} checkout.
+ * They are not part of the PROJ-JNI library.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+final class Fixtures {
+    /**
+     * Seed of the random number generator, fixed for making benchmarks reproducible.
+     */
+    static final long SEED = 6473251989410L;
+
+    /**
+     * Do not allow instantiation of this class.
+     */
+    private Fixtures() {
+    }
+
+    /**
+     * Returns the EPSG code of the source CRS for the given number of dimensions.
+     *
+     * @param  dimension  number of dimensions, either 2 or 3.
+     * @return EPSG code of the source CRS.
+     */
+    private static String sourceCode(final int dimension) {
+        switch (dimension) {
+            case 2:  return "4326";
+            case 3:  return "4979";
+            default: throw new IllegalArgumentException("Unsupported dimension: " + dimension);
+        }
+    }
+
+    /**
+     * Returns the source CRS for the given number of dimensions.
+     *
+     * @param  dimension  number of dimensions, either 2 or 3.
+     * @return the source CRS, with (<var>latitude</var>, <var>longitude</var>, …) axis order.
+     * @throws FactoryException if the CRS can not be created.
+     */
+    static CoordinateReferenceSystem sourceCRS(final int dimension) throws FactoryException {
+        return Proj.getAuthorityFactory("EPSG").createCoordinateReferenceSystem(sourceCode(dimension));
+    }
+
+    /**
+     * Returns the operation to benchmark for the given number of dimensions.
+     *
+     * @param  dimension  number of dimensions, either 2 or 3.
+     * @return the operation from geographic coordinates to projected or geocentric coordinates.
+     * @throws FactoryException if the operation can not be created.
+     */
+    static CoordinateOperation operation(final int dimension) throws FactoryException {
+        final CRSAuthorityFactory factory = Proj.getAuthorityFactory("EPSG");
+        final CoordinateReferenceSystem source = factory.createCoordinateReferenceSystem(sourceCode(dimension));
+        final CoordinateReferenceSystem target = factory.createCoordinateReferenceSystem(dimension == 3 ? "4978" : "3395");
+        return Proj.getOperationFactory(null).createOperation(source, target);
+    }
+
+    /**
+     * Returns random geographic coordinates as (<var>latitude</var>, <var>longitude</var>, <var>height</var>)
+     * tuples, where the height is present only in the three-dimensional case. Latitudes are kept away from
+     * the poles for avoiding infinite values in the Mercator projection.
+     *
+     * @param  dimension  number of dimensions, either 2 or 3.
+     * @param  numPts     number of points to generate.
+     * @return the coordinates of {@code numPts} points.
+     */
+    static double[] coordinates(final int dimension, final int numPts) {
+        final Random random = new Random(SEED);
+        final double[] coordinates = new double[Math.multiplyExact(numPts, dimension)];
+        for (int i=0; i < coordinates.length; i += dimension) {
+            coordinates[i  ] = random.nextDouble() * 160 -  80;
+            coordinates[i+1] = random.nextDouble() * 360 - 180;
+            if (dimension >= 3) {
+                coordinates[i+2] = random.nextDouble() * 1000;
+            }
+        }
+        return coordinates;
+    }
+
+    /**
+     * Returns a copy of the given coordinates as single-precision values.
+     *
+     * @param  coordinates  the coordinates to copy.
+     * @return the coordinates as {@code float} values.
+     */
+    static float[] toFloat(final double[] coordinates) {
+        final float[] copy = new float[coordinates.length];
+        for (int i=0; i<copy.length; i++) {
+            copy[i] = (float) coordinates[i];
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import java.util.concurrent.TimeUnit;
+import org.opengis.util.FactoryException;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Latency of {@link ReferencingFormat#parse(String)} and {@link ReferencingFormat#format(Object)}
+ * for all Well-Known Text conventions. The text to parse is the formatting of a projected CRS
+ * in the benchmarked convention.
+ *
+ * <p>This benchmark is executed with the cache of parsed texts disabled
+ * ({@code org.kortforsyningen.proj.maxCachedTexts=0}), otherwise parsing
+ * the same text many times would only measure a cache lookup.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.kortforsyningen.proj.maxCachedTexts=0")
+public class FormatBenchmark {
+    /**
+     * Name of the {@link ReferencingFormat.Convention} to benchmark.
+     */
+    @Param({"WKT2_2019", "WKT2_2015", "WKT2_2019_SIMPLIFIED", "WKT2_2015_SIMPLIFIED", "WKT1_GDAL", "WKT1_ESRI"})
+    public String convention;
+
+    /**
+     * The parser and formatter, which is not thread-safe.
+     */
+    private ReferencingFormat format;
+
+    /**
+     * The CRS to format.
+     */
+    private CoordinateReferenceSystem crs;
+
+    /**
+     * The text to parse.
+     */
+    private String text;
+
+    /**
+     * Creates the format, the CRS to format and the text to parse.
+     *
+     * @throws FactoryException if the CRS can not be created.
+     */
+    @Setup
+    public void setup() throws FactoryException {
+        format = new ReferencingFormat();
+        format.setConvention(ReferencingFormat.Convention.valueOf(convention));
+        crs  = Proj.getAuthorityFactory("EPSG").createCoordinateReferenceSystem("3395");
+        text = format.format(crs);
+    }
+
+    /**
+     * Parses the text in the benchmarked convention.
+     *
+     * @return the parsed object.
+     * @throws UnparsableObjectException if the text can not be parsed.
+     */
+    @Benchmark
+    public Object parse() {
+        return format.parse(text);
+    }
+
+    /**
+     * Formats the CRS in the benchmarked convention.
+     *
+     * @return the formatted text.
+     * @throws UnformattableObjectException if the CRS can not be formatted.
+     */
+    @Benchmark
+    public String format() {
+        return format.format(crs);
+    }
+}
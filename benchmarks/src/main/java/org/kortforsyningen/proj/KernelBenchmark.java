@@ -0,0 +1,128 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Throughput of the {@code float} ↔ {@code double} conversions done by {@link ArrayKernels}
+ * before and after the transformation of {@code float[]} arrays. This benchmark compares the
+ * plain loops with the Vector API implementation selected at runtime. It does not need PROJ.
+ *
+ * <p>The Vector API implementation is available only on Java 17 or later, with the
+ * {@code jdk.incubator.vector} module added to the forked JVM. If that implementation
+ * is not available, the {@code "vector"} case fails at setup time instead of silently
+ * measuring the plain loops a second time.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class KernelBenchmark {
+    /**
+     * The implementation to benchmark: {@code "scalar"} for the plain loops,
+     * or {@code "vector"} for the Vector API implementation.
+     */
+    @Param({"scalar", "vector"})
+    public String kernel;
+
+    /**
+     * Number of coordinate values converted in each benchmark invocation.
+     */
+    @Param({"3", "100", "10000", "1000000"})
+    public int length;
+
+    /**
+     * The implementation to benchmark.
+     */
+    private ArrayKernels kernels;
+
+    /**
+     * Source and target arrays.
+     */
+    private double[] doubles;
+    private float[] floats;
+
+    /**
+     * Selects the implementation and creates the arrays.
+     *
+     * @throws IllegalStateException if the Vector API implementation is requested but not available.
+     */
+    @Setup
+    public void setup() {
+        if (kernel.equals("vector")) {
+            kernels = ArrayKernels.INSTANCE;
+            if (!kernels.isVectorized()) {
+                throw new IllegalStateException("Vector API not available. Requires Java 17 or later.");
+            }
+        } else {
+            kernels = new ArrayKernels();
+        }
+        final Random random = new Random(Fixtures.SEED);
+        doubles = new double[length];
+        for (int i=0; i<length; i++) {
+            doubles[i] = random.nextDouble() * 360 - 180;
+        }
+        floats = Fixtures.toFloat(doubles);
+    }
+
+    /**
+     * Converts {@code float} values to {@code double}, as done before a transformation.
+     *
+     * @return the converted values.
+     */
+    @Benchmark
+    public double[] floatsToDoubles() {
+        kernels.floatsToDoubles(floats, 0, doubles, 0, length);
+        return doubles;
+    }
+
+    /**
+     * Converts {@code double} values to {@code float}, as done after a transformation.
+     *
+     * @return the converted values.
+     */
+    @Benchmark
+    public float[] doublesToFloats() {
+        kernels.doublesToFloats(doubles, 0, floats, 0, length);
+        return floats;
+    }
+}
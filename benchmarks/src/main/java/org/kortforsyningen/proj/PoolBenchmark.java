@@ -0,0 +1,122 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import java.util.concurrent.TimeUnit;
+import org.opengis.util.FactoryException;
+import org.opengis.referencing.operation.TransformException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Cost of checking out the native resources needed before any transformation.
+ * Those benchmarks measure the overhead paid by each call to a {@code transform(…)} method
+ * in addition to the work done by PROJ: acquiring a {@link Context} (wrapper for {@code PJ_CONTEXT}),
+ * acquiring a {@link Transform} (wrapper for {@code PJ}) from the pool of an {@link Operation},
+ * and creating a new {@link Transform} when that pool is empty.
+ *
+ * <p>When run with more threads than the pool capacity (given by the
+ * {@code org.kortforsyningen.proj.maxThreadsPerInstance} property), the
+ * {@link #checkoutTransform()} benchmark includes the cost of pool misses.</p>
+ *
+ * <p>Benchmark methods return {@code Object} because the code generated by JMH is in
+ * another package, where the {@link Context} and {@link Transform} classes are not accessible.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PoolBenchmark {
+    /**
+     * The operation owning the pool of {@link Transform} instances.
+     */
+    private Operation operation;
+
+    /**
+     * Creates the operation.
+     *
+     * @throws FactoryException if the operation can not be created.
+     */
+    @Setup
+    public void setup() throws FactoryException {
+        operation = (Operation) Fixtures.operation(2);
+    }
+
+    /**
+     * Acquires and releases a {@code PJ_CONTEXT} wrapper.
+     *
+     * @return the context, for preventing dead code elimination.
+     */
+    @Benchmark
+    public Object checkoutContext() {
+        try (Context c = Context.acquire()) {
+            return c;
+        }
+    }
+
+    /**
+     * Acquires and releases a {@code PJ_CONTEXT} wrapper, then a {@code PJ} wrapper from the pool.
+     * This is the overhead of a {@code transform(…)} call before the coordinates are given to PROJ.
+     *
+     * @return the transform, for preventing dead code elimination.
+     * @throws TransformException if the {@code PJ} object can not be created.
+     */
+    @Benchmark
+    public Object checkoutTransform() throws TransformException {
+        try (Context c = Context.acquire()) {
+            final Transform tr = operation.acquire(c);
+            operation.release(tr);
+            return tr;
+        }
+    }
+
+    /**
+     * Creates and destroys a {@code PJ} wrapper without using the pool.
+     * This is the cost of a pool miss.
+     *
+     * @return the transform, for preventing dead code elimination.
+     * @throws TransformException if the {@code PJ} object can not be created.
+     */
+    @Benchmark
+    public Object createTransform() throws TransformException {
+        try (Context c = Context.acquire()) {
+            final Transform tr = new Transform(operation.impl, c);
+            tr.destroy();
+            return tr;
+        }
+    }
+}
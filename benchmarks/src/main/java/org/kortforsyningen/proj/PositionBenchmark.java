@@ -0,0 +1,165 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import java.util.concurrent.TimeUnit;
+import org.opengis.geometry.DirectPosition;
+import org.opengis.util.FactoryException;
+import org.opengis.referencing.operation.CoordinateOperation;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Latency of transforming a single two-dimensional point at a time.
+ * This benchmark compares {@link MathTransform#transform(DirectPosition, DirectPosition)}
+ * with a new or a reused target position, and {@link PointTransformer}.
+ * Each invocation transforms the next point of a fixed sequence of random points,
+ * so results are not biased by the transformation of a single location.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PositionBenchmark {
+    /**
+     * Number of points in the sequence of points to transform. Shall be a power of 2.
+     */
+    private static final int NUM_POINTS = 1024;
+
+    /**
+     * The transform to benchmark.
+     */
+    private MathTransform transform;
+
+    /**
+     * Source coordinates as (<var>latitude</var>, <var>longitude</var>) tuples.
+     */
+    private double[] coordinates;
+
+    /**
+     * Index of the next point to transform.
+     */
+    private int index;
+
+    /**
+     * Reusable source and target positions.
+     */
+    private DirectPosition source, target;
+
+    /**
+     * Reusable transformer and buffer for {@link #pointTransformer()}.
+     */
+    private PointTransformer transformer;
+    private double[] result;
+
+    /**
+     * Creates the transform, the coordinates to transform and the reusable objects.
+     *
+     * @throws FactoryException if the operation can not be created.
+     * @throws TransformException if the point transformer can not be created.
+     */
+    @Setup
+    public void setup() throws FactoryException, TransformException {
+        final CoordinateOperation operation = Fixtures.operation(2);
+        transform   = operation.getMathTransform();
+        coordinates = Fixtures.coordinates(2, NUM_POINTS);
+        source      = Proj.createPosition(operation.getSourceCRS(), (double[]) null);
+        target      = Proj.createPosition(operation.getTargetCRS(), (double[]) null);
+        transformer = Proj.createPointTransformer(transform);
+        result      = new double[2];
+    }
+
+    /**
+     * Releases the resources held by the point transformer.
+     */
+    @TearDown
+    public void dispose() {
+        transformer.close();
+    }
+
+    /**
+     * Copies the coordinates of the next point in the reusable source position.
+     *
+     * @return the reusable source position.
+     */
+    private DirectPosition nextPosition() {
+        final int i = index;
+        index = (i + 2) & (NUM_POINTS*2 - 1);
+        source.setOrdinate(0, coordinates[i]);
+        source.setOrdinate(1, coordinates[i+1]);
+        return source;
+    }
+
+    /**
+     * Transforms a point with a new target position allocated by the transform.
+     *
+     * @return the transformed position.
+     * @throws TransformException if the point can not be transformed.
+     */
+    @Benchmark
+    public DirectPosition newPosition() throws TransformException {
+        return transform.transform(nextPosition(), null);
+    }
+
+    /**
+     * Transforms a point into a reused target position.
+     *
+     * @return the transformed position.
+     * @throws TransformException if the point can not be transformed.
+     */
+    @Benchmark
+    public DirectPosition reusedPosition() throws TransformException {
+        return transform.transform(nextPosition(), target);
+    }
+
+    /**
+     * Transforms a point with a transformer holding its {@code PJ} object.
+     *
+     * @return the transformed coordinates.
+     * @throws TransformException if the point can not be transformed.
+     */
+    @Benchmark
+    public double[] pointTransformer() throws TransformException {
+        final int i = index;
+        index = (i + 2) & (NUM_POINTS*2 - 1);
+        transformer.transform(coordinates[i], coordinates[i+1], result);
+        return result;
+    }
+}
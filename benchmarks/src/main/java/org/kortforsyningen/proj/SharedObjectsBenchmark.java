@@ -0,0 +1,170 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import java.util.concurrent.TimeUnit;
+import org.opengis.util.FactoryException;
+import org.opengis.referencing.crs.CRSAuthorityFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Throughput of {@link SharedObjects} lookups and insertions under contention.
+ * Keys are the addresses of CRS objects created at setup time and kept reachable
+ * during the whole benchmark, so the benchmark does not alter the map content:
+ * {@link SharedObjects#putIfAbsent(long, IdentifiableObject)} always finds the existing entry,
+ * but still needs the write lock.
+ *
+ * <p>The {@code get} and {@code miss} benchmarks run on 8 threads. The {@code mixed} group runs
+ * 7 reader threads concurrently with 1 writer thread, which is the typical proportion when
+ * many threads create wrappers for objects that already exist.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SharedObjectsBenchmark {
+    /**
+     * EPSG codes of the CRS to put in the map.
+     */
+    private static final String[] CODES = {
+        "4326", "4979", "4978", "4258", "4267", "3395", "3857", "25832", "32631", "32632"
+    };
+
+    /**
+     * The objects in the map, kept reachable for preventing their disposal.
+     */
+    private IdentifiableObject[] objects;
+
+    /**
+     * The keys of {@link #objects}, in the same order.
+     */
+    private long[] keys;
+
+    /**
+     * Creates the CRS and records their keys.
+     *
+     * @throws FactoryException if a CRS can not be created.
+     */
+    @Setup
+    public void setup() throws FactoryException {
+        final CRSAuthorityFactory factory = Proj.getAuthorityFactory("EPSG");
+        objects = new IdentifiableObject[CODES.length];
+        keys    = new long[CODES.length];
+        for (int i=0; i<CODES.length; i++) {
+            objects[i] = (IdentifiableObject) factory.createCoordinateReferenceSystem(CODES[i]);
+            keys[i]    = objects[i].impl.rawPointer();
+        }
+    }
+
+    /**
+     * Index of the next key to use, specific to each thread.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        /**
+         * Index of the next key to use.
+         */
+        private int index;
+
+        /**
+         * Returns the index of the next key, cycling over all keys.
+         *
+         * @return index of the next key.
+         */
+        final int next() {
+            final int i = index;
+            index = (i + 1) % CODES.length;
+            return i;
+        }
+    }
+
+    /**
+     * Looks up an existing object.
+     *
+     * @param  cursor  index of the next key.
+     * @return the object found.
+     */
+    @Benchmark
+    @Threads(8)
+    public Object get(final Cursor cursor) {
+        return SharedObjects.CACHE.get(keys[cursor.next()]);
+    }
+
+    /**
+     * Looks up a key which is not in the map. Odd values are never the address
+     * of a PROJ object, because those objects are aligned in memory.
+     *
+     * @param  cursor  index of the next key.
+     * @return {@code null}.
+     */
+    @Benchmark
+    @Threads(8)
+    public Object miss(final Cursor cursor) {
+        return SharedObjects.CACHE.get(keys[cursor.next()] | 1);
+    }
+
+    /**
+     * Looks up an existing object concurrently with {@link #mixedPut(Cursor)}.
+     *
+     * @param  cursor  index of the next key.
+     * @return the object found.
+     */
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(7)
+    public Object mixedGet(final Cursor cursor) {
+        return SharedObjects.CACHE.get(keys[cursor.next()]);
+    }
+
+    /**
+     * Inserts an object which already exists, concurrently with {@link #mixedGet(Cursor)}.
+     *
+     * @param  cursor  index of the next key.
+     * @return the existing object.
+     */
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public Object mixedPut(final Cursor cursor) {
+        final int i = cursor.next();
+        return SharedObjects.CACHE.putIfAbsent(keys[i], objects[i]);
+    }
+}
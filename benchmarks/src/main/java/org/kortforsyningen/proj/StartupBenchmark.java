@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import java.util.concurrent.TimeUnit;
+import org.opengis.util.FactoryException;
+import org.opengis.referencing.crs.CRSAuthorityFactory;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.CoordinateOperation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Latency of the first PROJ-JNI calls in a new JVM. Each benchmark is executed only once
+ * per JVM fork, so the measurement includes loading the native library, creating the first
+ * {@link Context}, opening the PROJ database and creating the Java wrappers.
+ * This is the latency observed by short-lived processes.
+ *
+ * <p>The benchmark methods shall not be run in the same fork; JMH guarantees that
+ * by forking a new JVM for each benchmark method.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+    /**
+     * Creates a CRS from its EPSG code in a new JVM.
+     *
+     * @return the CRS.
+     * @throws FactoryException if the CRS can not be created.
+     */
+    @Benchmark
+    public CoordinateReferenceSystem createCRS() throws FactoryException {
+        return Proj.getAuthorityFactory("EPSG").createCoordinateReferenceSystem("4326");
+    }
+
+    /**
+     * Creates two CRS from their EPSG codes and searches the operation between them in a new JVM.
+     *
+     * @return the operation.
+     * @throws FactoryException if a CRS or the operation can not be created.
+     */
+    @Benchmark
+    public CoordinateOperation createOperation() throws FactoryException {
+        final CRSAuthorityFactory factory = Proj.getAuthorityFactory("EPSG");
+        return Proj.getOperationFactory(null).createOperation(
+                factory.createCoordinateReferenceSystem("4326"),
+                factory.createCoordinateReferenceSystem("3395"));
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import java.util.concurrent.TimeUnit;
+import org.opengis.util.FactoryException;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Throughput and latency of {@link MathTransform#transform(double[], int, double[], int, int)}
+ * and its {@code float[]} variant, for different numbers of dimensions and batch sizes.
+ * Each benchmark invocation transforms one batch of {@link #numPts} points.
+ *
+ * <p>When {@link #inPlace} is {@code true}, the source coordinates are first copied into the
+ * target array and transformed there. This copy is included in the measurement; it is needed
+ * because transforming the same array twice would give projected coordinates as input.
+ * When {@link #inPlace} is {@code false}, source and target are distinct arrays.</p>
+ *
+ * <p>Each thread has its own target array while the source array is shared.
+ * The number of threads is given by the JMH {@code -t} option or by {@link BenchmarkRunner}.
+ * Large batches with many threads need a large heap.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class TransformBenchmark {
+    /**
+     * Coordinates to transform, shared by all threads.
+     * This is a separated state because JMH creates one {@link TransformBenchmark} per thread.
+     */
+    @State(Scope.Benchmark)
+    public static class Source {
+        /**
+         * Number of dimensions of source and target points.
+         */
+        @Param({"2", "3"})
+        public int dimension;
+
+        /**
+         * Number of points transformed in each benchmark invocation.
+         */
+        @Param({"1", "100", "10000", "1000000", "10000000"})
+        public int numPts;
+
+        /**
+         * The transform to benchmark.
+         */
+        MathTransform transform;
+
+        /**
+         * Source coordinates in double and single precision.
+         */
+        double[] doubles;
+        float[] floats;
+
+        /**
+         * Creates the transform and the coordinates to transform.
+         *
+         * @throws FactoryException if the operation can not be created.
+         */
+        @Setup
+        public void setup() throws FactoryException {
+            transform = Fixtures.operation(dimension).getMathTransform();
+            doubles   = Fixtures.coordinates(dimension, numPts);
+            floats    = Fixtures.toFloat(doubles);
+        }
+    }
+
+    /**
+     * Whether to transform the coordinates in-place.
+     */
+    @Param({"false", "true"})
+    public boolean inPlace;
+
+    /**
+     * Target coordinates in double and single precision, specific to each thread.
+     */
+    private double[] doubles;
+    private float[] floats;
+
+    /**
+     * Allocates the target arrays for the current thread.
+     *
+     * @param  source  the coordinates to transform.
+     */
+    @Setup
+    public void setup(final Source source) {
+        doubles = new double[source.doubles.length];
+        floats  = new float [source.floats .length];
+    }
+
+    /**
+     * Transforms a batch of points given as {@code double} values.
+     *
+     * @param  source  the coordinates to transform.
+     * @return the transformed coordinates.
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Benchmark
+    public double[] transformDoubles(final Source source) throws TransformException {
+        double[] src = source.doubles;
+        if (inPlace) {
+            System.arraycopy(src, 0, doubles, 0, src.length);
+            src = doubles;
+        }
+        source.transform.transform(src, 0, doubles, 0, source.numPts);
+        return doubles;
+    }
+
+    /**
+     * Transforms a batch of points given as {@code float} values.
+     *
+     * @param  source  the coordinates to transform.
+     * @return the transformed coordinates.
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Benchmark
+    public float[] transformFloats(final Source source) throws TransformException {
+        float[] src = source.floats;
+        if (inPlace) {
+            System.arraycopy(src, 0, floats, 0, src.length);
+            src = floats;
+        }
+        source.transform.transform(src, 0, floats, 0, source.numPts);
+        return floats;
+    }
+}
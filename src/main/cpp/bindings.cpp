@@ -26,6 +26,8 @@
 #include <string>
 #include <cmath>
 #include <atomic>
+#include <algorithm>
+#include <limits>
 #include <proj.h>
 #include <proj/crs.hpp>
 #include "org_kortforsyningen_proj_Type.h"
@@ -64,6 +66,7 @@ using osgeo::proj::common::Measure;
 using osgeo::proj::common::ObjectDomainNNPtr;
 using osgeo::proj::common::ObjectUsage;
 using osgeo::proj::common::ObjectUsageNNPtr;
+using osgeo::proj::common::ObjectUsagePtr;
 using osgeo::proj::common::Scale;
 using osgeo::proj::common::UnitOfMeasure;
 using osgeo::proj::crs::BoundCRS;
@@ -142,6 +145,8 @@ using osgeo::proj::metadata::GeographicExtentNNPtr;
 using osgeo::proj::metadata::Identifier;
 using osgeo::proj::metadata::IdentifierNNPtr;
 using osgeo::proj::metadata::PositionalAccuracyNNPtr;
+using osgeo::proj::operation::ConcatenatedOperation;
+using osgeo::proj::operation::ConcatenatedOperationNNPtr;
 using osgeo::proj::operation::Conversion;
 using osgeo::proj::operation::ConversionNNPtr;
 using osgeo::proj::operation::CoordinateOperation;
@@ -565,6 +570,24 @@ void rethrow_as_java_exception(JNIEnv *env, const char *type, const std::excepti
 }
 
 
+/**
+ * Stores a Java object in the given array, then releases the local reference.
+ * Releasing local references avoid exhaustion of the JNI local reference table
+ * when this function is invoked in a loop.
+ *
+ * @param  env    The JNI environment.
+ * @param  array  The Java array where to store the element.
+ * @param  index  Index where to store the element.
+ * @param  value  The element to store, or null.
+ */
+inline void set_and_release(JNIEnv *env, jobjectArray array, jsize index, jobject value) {
+    if (value) {
+        env->SetObjectArrayElement(array, index, value);
+        env->DeleteLocalRef(value);
+    }
+}
+
+
 /**
  * Wraps the given PROJ object into the most specific Java object provided by the PROJ-JNI bindings.
  * This function tries to find a more specialized type for the given object, then calls the Java method
@@ -805,6 +828,59 @@ inline PJ_CONTEXT* get_context(JNIEnv *env, jobject context) {
 }
 
 
+/**
+ * Invokes a static method of the Events class for recording a Java Flight Recorder event.
+ * The method is looked up on each invocation because it is used only for rare events.
+ *
+ * @param  env        The JNI environment.
+ * @param  name       Name of the method to invoke: "beginDatabaseOpening" or "end".
+ * @param  signature  Signature of the method to invoke.
+ * @param  event      The event returned by a "begin…" method, or null when invoking a "begin…" method.
+ * @return The value returned by the method, or null if none.
+ * @throw  std::exception if an error occurred in Java code.
+ */
+jobject record_event(JNIEnv *env, const char *name, const char *signature, jobject event) {
+    jobject result = nullptr;
+    jclass c = env->FindClass("org/kortforsyningen/proj/Events");
+    if (c) {
+        jmethodID method = env->GetStaticMethodID(c, name, signature);
+        if (method) {
+            if (event) {
+                env->CallStaticVoidMethod(c, method, event);
+            } else {
+                result = env->CallStaticObjectMethod(c, method);
+            }
+        }
+    }
+    if (env->ExceptionCheck()) {
+        throw std::exception();                 // Java exception is already pending.
+    }
+    return result;
+}
+
+
+/**
+ * Ends a Java Flight Recorder event when this object goes out of scope, including when a C++ exception
+ * is thrown during the event. Java exceptions thrown while ending the event are left pending, because
+ * a destructor shall not throw.
+ */
+struct EventScope {
+    /** The JNI environment. */
+    JNIEnv *env;
+
+    /** The event returned by a "begin…" method of the Events class, or null if not recorded. */
+    jobject event;
+
+    ~EventScope() {
+        if (event && !env->ExceptionCheck()) try {
+            record_event(env, "end", "(Ljava/lang/Object;)V", event);
+        } catch (const std::exception &) {
+            // Java exception is pending and will be thrown in Java code.
+        }
+    }
+};
+
+
 /**
  * Gets the database context from a given Context. The database is created when first needed
  * and will be released when destroyPJ(…) will be invoked.
@@ -828,7 +904,10 @@ DatabaseContextPtr get_database_context(JNIEnv *env, jobject context) {
         db = unwrap_shared_ptr<DatabaseContext>(dbPtr);
     } else {
         log(env, "Creating PROJ database context.");
-        db = DatabaseContext::create(empty_string, std::vector<std::string>(), get_context(env, context)).as_nullable();
+        {
+            EventScope scope = {env, record_event(env, "beginDatabaseOpening", "()Ljava/lang/Object;", nullptr)};
+            db = DatabaseContext::create(empty_string, std::vector<std::string>(), get_context(env, context)).as_nullable();
+        }
         dbPtr = wrap_shared_ptr<DatabaseContext>(db);
         env->SetLongField(context, fid, dbPtr);
         // dbPtr may be 0 if out of memory, but the only consequence is that DatabaseContext is not cached.
@@ -1407,6 +1486,40 @@ JNIEXPORT jdouble JNICALL Java_org_kortforsyningen_proj_SharedPointer_getNumeric
 }
 
 
+/**
+ * Returns the geographic bounding box of the first domain of validity which contains such box.
+ * The array elements are west, east, south and north bounds, in that order.
+ *
+ * @param  env    The JNI environment.
+ * @param  usage  The PROJ object for which to get the domain of validity.
+ * @return The bounding box, or null if none. If null, a Java exception may be pending.
+ */
+jdoubleArray get_domain_of_validity(JNIEnv *env, const ObjectUsage &usage) {
+    for (const ObjectDomainNNPtr domain : usage.domains()) {
+        ExtentPtr extent = domain->domainOfValidity();
+        if (extent) {
+            for (GeographicExtentNNPtr ge : extent->geographicElements()) {
+                GeographicBoundingBoxPtr bbox = std::dynamic_pointer_cast<GeographicBoundingBox>(ge.as_nullable());
+                if (bbox) {
+                    jdoubleArray array = env->NewDoubleArray(4);
+                    if (array) {                                        // Otherwise OutOfMemoryError will be thrown in Java code.
+                        const jdouble elements[] = {
+                            bbox->westBoundLongitude(),
+                            bbox->eastBoundLongitude(),
+                            bbox->southBoundLatitude(),
+                            bbox->northBoundLatitude()
+                        };
+                        env->SetDoubleArrayRegion(array, 0, 4, elements);
+                    }
+                    return array;
+                }
+            }
+        }
+    }
+    return nullptr;
+}
+
+
 /**
  * Returns a property value as an array of floating-point values.
  *
@@ -1421,31 +1534,7 @@ JNIEXPORT jdoubleArray JNICALL Java_org_kortforsyningen_proj_SharedPointer_getAr
     try {
         switch (property) {
             case org_kortforsyningen_proj_Property_DOMAIN_OF_VALIDITY: {
-                ObjectUsageNNPtr usage = get_shared_object<ObjectUsage>(env, object);
-                for (const ObjectDomainNNPtr domain : usage->domains()) {
-                    ExtentPtr extent = domain->domainOfValidity();
-                    if (extent) {
-                        jdoubleArray array = env->NewDoubleArray(4);
-                        if (!array) break;                              // OutOfMemoryError will be thrown in Java code.
-                        jdouble* elements = env->GetDoubleArrayElements(array, nullptr);
-                        if (!elements) break;                           // OutOfMemoryError will be thrown in Java code.
-                        bool hasBBox = false;
-                        for (GeographicExtentNNPtr ge : extent->geographicElements()) {
-                            GeographicBoundingBoxPtr bbox = std::dynamic_pointer_cast<GeographicBoundingBox>(ge.as_nullable());
-                            if (bbox) {
-                                elements[0] = bbox->westBoundLongitude();
-                                elements[1] = bbox->eastBoundLongitude();
-                                elements[2] = bbox->southBoundLatitude();
-                                elements[3] = bbox->northBoundLatitude();
-                                hasBBox = true;
-                                break;
-                            }
-                        }
-                        env->ReleaseDoubleArrayElements(array, elements, 0);
-                        if (hasBBox) return array;
-                    }
-                }
-                break;
+                return get_domain_of_validity(env, *get_shared_object<ObjectUsage>(env, object));
             }
         }
     } catch (const std::exception &e) {
@@ -1598,15 +1687,16 @@ JNIEXPORT void JNICALL Java_org_kortforsyningen_proj_SharedPointer_release(JNIEn
 
 // </editor-fold>
 // ┌────────────────────────────────────────────────────────────────────────────────────────────┐
-// │                       CLASS ReferencingFormat + SharedPointer.format                       │
+// │                 CLASS ReferencingFormat + SharedPointer.format and formatTo                │
 // └────────────────────────────────────────────────────────────────────────────────────────────┘
 // <editor-fold desc="Parsing and formatting">
 
 
 /**
- * Returns a Well-Known Text (WKT), JSON or PROJ string for this object.
- * This is allowed only if this object implements osgeo::proj::io::IWKTExportable,
+ * Formats the given object as a Well-Known Text (WKT), JSON or PROJ string.
+ * This is allowed only if the object implements osgeo::proj::io::IWKTExportable,
  * osgeo::proj::io::IJSONExportable or osgeo::proj::io::IPROJStringExportable.
+ * This function is shared by the `SharedPointer.format` and `SharedPointer.formatTo` methods.
  *
  * @param  env         The JNI environment.
  * @param  object      The Java object wrapping the PROJ object to format.
@@ -1615,10 +1705,12 @@ JNIEXPORT void JNICALL Java_org_kortforsyningen_proj_SharedPointer_release(JNIEn
  * @param  indentation Number of spaces for each indentation level, or -1 for the default value.
  * @param  multiline   Whether the WKT will use multi-line layout.
  * @param  strict      Whether to enforce strictly standard format.
- * @return The Well-Known Text (WKT) for this object, or null if the object is not IWKTExportable.
+ * @param  text        Where to store the formatted text.
+ * @return Whether the object has been formatted. If false, a Java exception may be pending.
+ * @throw  std::exception if an error occurred during formatting.
  */
-JNIEXPORT jstring JNICALL Java_org_kortforsyningen_proj_SharedPointer_format
-    (JNIEnv *env, jobject object, jobject context, jint convention, jint indentation, jboolean multiline, jboolean strict)
+bool format_object(JNIEnv *env, jobject object, jobject context, jint convention, jint indentation,
+                   jboolean multiline, jboolean strict, std::string &text)
 {
     enum format {WKT, PROJ, JSON};
     union version {
@@ -1641,42 +1733,70 @@ JNIEXPORT jstring JNICALL Java_org_kortforsyningen_proj_SharedPointer_format
         default: {
             jclass c = env->FindClass(JPJ_ILLEGAL_ARGUMENT_EXCEPTION);
             if (c) env->ThrowNew(c, std::to_string(convention).c_str());
-            return nullptr;
+            return false;
+        }
+    }
+    BaseObjectPtr candidate = get_and_unwrap_ptr<BaseObject>(env, object);
+    switch (f) {
+        case WKT: {
+            std::shared_ptr<IWKTExportable> exportable = std::dynamic_pointer_cast<IWKTExportable>(candidate);
+            if (!exportable) break;
+            DatabaseContextPtr dbContext = get_database_context(env, context);
+            WKTFormatterNNPtr  formatter = WKTFormatter::create(c.wkt, dbContext);
+            formatter->setMultiLine(multiline);
+            formatter->setStrict(strict);
+            if (indentation >= 0) {
+                formatter->setIndentationWidth(indentation);
+            }
+            text = exportable->exportToWKT(formatter.get());
+            return true;
+        }
+        case JSON: {
+            std::shared_ptr<IJSONExportable> exportable = std::dynamic_pointer_cast<IJSONExportable>(candidate);
+            if (!exportable) break;
+            DatabaseContextPtr dbContext = get_database_context(env, context);
+            JSONFormatterNNPtr formatter = JSONFormatter::create(dbContext);
+            formatter->setMultiLine(multiline);
+            if (indentation >= 0) {
+                formatter->setIndentationWidth(indentation);
+            }
+            text = exportable->exportToJSON(formatter.get());
+            return true;
+        }
+        case PROJ: {
+            std::shared_ptr<IPROJStringExportable> exportable = std::dynamic_pointer_cast<IPROJStringExportable>(candidate);
+            if (!exportable) break;
+            DatabaseContextPtr       dbContext = get_database_context(env, context);
+            PROJStringFormatterNNPtr formatter = PROJStringFormatter::create(c.proj, dbContext);
+            text = exportable->exportToPROJString(formatter.get());
+            return true;
         }
     }
+    return false;
+}
+
+
+/**
+ * Returns a Well-Known Text (WKT), JSON or PROJ string for this object.
+ * This is allowed only if this object implements osgeo::proj::io::IWKTExportable,
+ * osgeo::proj::io::IJSONExportable or osgeo::proj::io::IPROJStringExportable.
+ *
+ * @param  env         The JNI environment.
+ * @param  object      The Java object wrapping the PROJ object to format.
+ * @param  context     The PJ_CONTEXT wrapper, or null if none.
+ * @param  convention  One of ReferencingFormat constants.
+ * @param  indentation Number of spaces for each indentation level, or -1 for the default value.
+ * @param  multiline   Whether the WKT will use multi-line layout.
+ * @param  strict      Whether to enforce strictly standard format.
+ * @return The Well-Known Text (WKT) for this object, or null if the object is not IWKTExportable.
+ */
+JNIEXPORT jstring JNICALL Java_org_kortforsyningen_proj_SharedPointer_format
+    (JNIEnv *env, jobject object, jobject context, jint convention, jint indentation, jboolean multiline, jboolean strict)
+{
     try {
-        BaseObjectPtr candidate = get_and_unwrap_ptr<BaseObject>(env, object);
-        switch (f) {
-            case WKT: {
-                std::shared_ptr<IWKTExportable> exportable = std::dynamic_pointer_cast<IWKTExportable>(candidate);
-                if (!exportable) break;
-                DatabaseContextPtr dbContext = get_database_context(env, context);
-                WKTFormatterNNPtr  formatter = WKTFormatter::create(c.wkt, dbContext);
-                formatter->setMultiLine(multiline);
-                formatter->setStrict(strict);
-                if (indentation >= 0) {
-                    formatter->setIndentationWidth(indentation);
-                }
-                return non_empty_string(env, exportable->exportToWKT(formatter.get()));
-            }
-            case JSON: {
-                std::shared_ptr<IJSONExportable> exportable = std::dynamic_pointer_cast<IJSONExportable>(candidate);
-                if (!exportable) break;
-                DatabaseContextPtr dbContext = get_database_context(env, context);
-                JSONFormatterNNPtr formatter = JSONFormatter::create(dbContext);
-                formatter->setMultiLine(multiline);
-                if (indentation >= 0) {
-                    formatter->setIndentationWidth(indentation);
-                }
-                return non_empty_string(env, exportable->exportToJSON(formatter.get()));
-            }
-            case PROJ: {
-                std::shared_ptr<IPROJStringExportable> exportable = std::dynamic_pointer_cast<IPROJStringExportable>(candidate);
-                if (!exportable) break;
-                DatabaseContextPtr       dbContext = get_database_context(env, context);
-                PROJStringFormatterNNPtr formatter = PROJStringFormatter::create(c.proj, dbContext);
-                return non_empty_string(env, exportable->exportToPROJString(formatter.get()));
-            }
+        std::string text;
+        if (format_object(env, object, context, convention, indentation, multiline, strict, text)) {
+            return non_empty_string(env, text);
         }
     } catch (const std::exception &e) {
         rethrow_as_java_exception(env, JPJ_UNFORMATTABLE_EXCEPTION, e);
@@ -1685,6 +1805,50 @@ JNIEXPORT jstring JNICALL Java_org_kortforsyningen_proj_SharedPointer_format
 }
 
 
+/**
+ * Formats this object in a direct buffer as UTF-8 bytes. This is an alternative to `SharedPointer.format`
+ * which avoid the creation of temporary Java strings. The object is formatted only once: after formatting,
+ * this function asks to the `ReferencingFormat` a buffer having a capacity of at least the text length.
+ *
+ * @param  env         The JNI environment.
+ * @param  object      The Java object wrapping the PROJ object to format.
+ * @param  context     The PJ_CONTEXT wrapper, or null if none.
+ * @param  convention  One of ReferencingFormat constants.
+ * @param  indentation Number of spaces for each indentation level, or -1 for the default value.
+ * @param  multiline   Whether the WKT will use multi-line layout.
+ * @param  strict      Whether to enforce strictly standard format.
+ * @param  format      The `ReferencingFormat` which provides the direct java.nio.ByteBuffer where to write.
+ * @return Number of bytes in the formatted text, or -1 if the object can not be formatted.
+ */
+JNIEXPORT jint JNICALL Java_org_kortforsyningen_proj_SharedPointer_formatTo
+    (JNIEnv *env, jobject object, jobject context, jint convention, jint indentation, jboolean multiline, jboolean strict, jobject format)
+{
+    try {
+        std::string text;
+        if (format_object(env, object, context, convention, indentation, multiline, strict, text)) {
+            const size_t length = text.size();
+            if (length > static_cast<size_t>(std::numeric_limits<jint>::max())) {
+                throw std::length_error("Formatted text is too long.");
+            }
+            jmethodID method = env->GetMethodID(env->GetObjectClass(format), "buffer", "(I)Ljava/nio/ByteBuffer;");
+            if (!method) return -1;                             // Java exception is pending.
+            jobject buffer = env->CallObjectMethod(format, method, static_cast<jint>(length));
+            if (env->ExceptionCheck()) return -1;               // OutOfMemoryError will be thrown in Java code.
+            void *target = env->GetDirectBufferAddress(buffer);
+            if (!target || env->GetDirectBufferCapacity(buffer) < static_cast<jlong>(length)) {
+                throw std::invalid_argument("Not a direct buffer of sufficient capacity.");
+            }
+            memcpy(target, text.data(), length);
+            env->DeleteLocalRef(buffer);
+            return static_cast<jint>(length);
+        }
+    } catch (const std::exception &e) {
+        rethrow_as_java_exception(env, JPJ_UNFORMATTABLE_EXCEPTION, e);
+    }
+    return -1;
+}
+
+
 /**
  * Sends warnings to the `ReferencingFormat` instance used for parsing a text.
  * This method should be invoked only after successful parsing.
@@ -1709,6 +1873,51 @@ void send_warnings(JNIEnv *env, jobject format, const std::vector<std::string>&
 }
 
 
+/**
+ * Parses a Well-Known Text (WKT) or PROJ string. This function is shared by the
+ * `ReferencingFormat.parse` and `ReferencingFormat.parseAll` methods.
+ *
+ * @param  text        The WKT or PROJ string to parse, in UTF-8.
+ * @param  convention  One of ReferencingFormat constants.
+ * @param  strict      Whether to enforce strictly standard format.
+ * @param  db          The database context, or null if none.
+ * @param  warnings    Where to append the warnings emitted during parsing.
+ * @return The object parsed from given text.
+ * @throw  std::invalid_argument if the convention is not supported for parsing.
+ * @throw  std::exception if an error occurred during parsing.
+ */
+BaseObjectPtr parse_text(const char *text, jint convention, jboolean strict,
+                         const DatabaseContextPtr &db, std::vector<std::string> &warnings)
+{
+    switch (convention) {
+        case Format_WKT2_2019_SIMPLIFIED:
+        case Format_WKT2_2015_SIMPLIFIED:
+        case Format_WKT2_2019:
+        case Format_WKT2_2015:
+        case Format_WKT1_ESRI:
+        case Format_WKT1_GDAL: {
+            WKTParser parser;
+            parser.setStrict(strict);
+            parser.attachDatabaseContext(db);
+            BaseObjectPtr object = parser.createFromWKT(text).as_nullable();
+            const std::list<std::string>& messages = parser.warningList();
+            warnings.insert(warnings.end(), messages.begin(), messages.end());
+            return object;
+        }
+        case Format_PROJ_5:
+        case Format_PROJ_4: {
+            PROJStringParser parser;
+            parser.attachDatabaseContext(db);
+            BaseObjectPtr object = parser.createFromPROJString(text).as_nullable();
+            const std::vector<std::string>& messages = parser.warningList();
+            warnings.insert(warnings.end(), messages.begin(), messages.end());
+            return object;
+        }
+    }
+    throw std::invalid_argument("Unsupported convention for parsing.");
+}
+
+
 /**
  * Parses a Well-Known Text (WKT), JSON or PROJ string.
  * Warnings, if any, will be sent to the `format` instance.
@@ -1726,44 +1935,18 @@ JNIEXPORT jobject JNICALL Java_org_kortforsyningen_proj_ReferencingFormat_parse
 {
     const char* text_utf = nullptr;
     try {
-        BaseObjectPtr object = nullptr;
-        switch (convention) {
-            case Format_WKT2_2019_SIMPLIFIED:
-            case Format_WKT2_2015_SIMPLIFIED:
-            case Format_WKT2_2019:
-            case Format_WKT2_2015:
-            case Format_WKT1_ESRI:
-            case Format_WKT1_GDAL: {
-                WKTParser parser;
-                parser.setStrict(strict);
-                parser.attachDatabaseContext(get_database_context(env, context));
-                text_utf = env->GetStringUTFChars(text, nullptr);
-                if (text_utf) {
-                    object = parser.createFromWKT(text_utf).as_nullable();
-                    env->ReleaseStringUTFChars(text, text_utf);
-                    text_utf = nullptr;
-                    const std::list<std::string>& warnings = parser.warningList();
-                    send_warnings(env, format, std::vector<std::string>(warnings.begin(), warnings.end()));
-                }
-                break;
-            }
-            case Format_PROJ_5:
-            case Format_PROJ_4: {
-                PROJStringParser parser;
-                parser.attachDatabaseContext(get_database_context(env, context));
-                text_utf = env->GetStringUTFChars(text, nullptr);
-                if (text_utf) {
-                    object = parser.createFromPROJString(text_utf).as_nullable();
-                    env->ReleaseStringUTFChars(text, text_utf);
-                    text_utf = nullptr;
-                    send_warnings(env, format, parser.warningList());
-                }
-                break;
+        DatabaseContextPtr db = get_database_context(env, context);
+        text_utf = env->GetStringUTFChars(text, nullptr);
+        if (text_utf) {
+            std::vector<std::string> warnings;
+            BaseObjectPtr object = parse_text(text_utf, convention, strict, db, warnings);
+            env->ReleaseStringUTFChars(text, text_utf);
+            text_utf = nullptr;
+            send_warnings(env, format, warnings);
+            if (object && !env->ExceptionCheck()) {
+                return specific_subclass(env, context, object, org_kortforsyningen_proj_Type_ANY);
             }
         }
-        if (object) {
-            return specific_subclass(env, context, object, org_kortforsyningen_proj_Type_ANY);
-        }
     } catch (const std::exception &e) {
         if (text_utf) {
             env->ReleaseStringUTFChars(text, text_utf);
@@ -1774,11 +1957,76 @@ JNIEXPORT jobject JNICALL Java_org_kortforsyningen_proj_ReferencingFormat_parse
 }
 
 
+/**
+ * Parses many Well-Known Text (WKT) or PROJ strings using the same context.
+ * Contrarily to `parse`, a parsing failure does not cause an exception to be thrown.
+ * Instead, the error message is stored in the `errors` array at the index of the
+ * string that failed, and parsing continues with the next string.
+ *
+ * @param  env         The JNI environment.
+ * @param  format      The `ReferencingFormat` instance used for parsing.
+ * @param  texts       The WKT or PROJ strings to parse. Elements shall not be null.
+ * @param  context     The PJ_CONTEXT wrapper.
+ * @param  convention  One of ReferencingFormat constants.
+ * @param  strict      Whether to enforce strictly standard format.
+ * @param  results     Where to store the parsed objects. Same length than `texts`.
+ * @param  errors      Where to store error messages of strings that failed. Same length than `texts`.
+ * @param  warnings    Where to store the warnings of each string, as `String[]`. Same length than `texts`.
+ */
+JNIEXPORT void JNICALL Java_org_kortforsyningen_proj_ReferencingFormat_parseAll
+    (JNIEnv *env, jobject format, jobjectArray texts, jobject context, jint convention, jboolean strict,
+     jobjectArray results, jobjectArray errors, jobjectArray warnings)
+{
+    DatabaseContextPtr db;
+    try {
+        db = get_database_context(env, context);
+    } catch (const std::exception &e) {
+        rethrow_as_java_exception(env, JPJ_UNPARSABLE_EXCEPTION, e);
+        return;
+    }
+    jclass stringClass = env->FindClass("java/lang/String");
+    if (!stringClass) return;
+    const jsize n = env->GetArrayLength(texts);
+    for (jsize i=0; i<n; i++) {
+        jstring text = static_cast<jstring>(env->GetObjectArrayElement(texts, i));
+        const char* text_utf = env->GetStringUTFChars(text, nullptr);
+        if (!text_utf) return;                                  // OutOfMemoryError will be thrown in Java code.
+        std::vector<std::string> messages;
+        try {
+            BaseObjectPtr object = parse_text(text_utf, convention, strict, db, messages);
+            env->ReleaseStringUTFChars(text, text_utf);
+            text_utf = nullptr;
+            if (object) {
+                jobject wrapper = specific_subclass(env, context, object, org_kortforsyningen_proj_Type_ANY);
+                if (!wrapper) return;                           // Java exception is pending.
+                set_and_release(env, results, i, wrapper);
+            }
+        } catch (const std::exception &e) {
+            if (text_utf) {
+                env->ReleaseStringUTFChars(text, text_utf);
+            }
+            set_and_release(env, errors, i, env->NewStringUTF(e.what()));
+        }
+        env->DeleteLocalRef(text);
+        const jsize count = messages.size();
+        if (count) {
+            jobjectArray array = env->NewObjectArray(count, stringClass, nullptr);
+            if (!array) return;                                 // OutOfMemoryError will be thrown in Java code.
+            for (jsize j=0; j<count; j++) {
+                set_and_release(env, array, j, env->NewStringUTF(messages[j].c_str()));
+            }
+            set_and_release(env, warnings, i, array);
+        }
+        if (env->ExceptionCheck()) return;
+    }
+}
+
+
 
 
 // </editor-fold>
 // ┌────────────────────────────────────────────────────────────────────────────────────────────┐
-// │                                      CLASS CompoundCS                                      │
+// │                        CLASS CompoundCS + SharedPointer.getSnapshot                        │
 // └────────────────────────────────────────────────────────────────────────────────────────────┘
 // <editor-fold desc="Compound CS">
 
@@ -1947,6 +2195,119 @@ JNIEXPORT jobject JNICALL Java_org_kortforsyningen_proj_CompoundCS_getAxis
 }
 
 
+/**
+ * Appends all axes of the given CRS in the given vector. If the CRS is compound,
+ * then this function appends the axes of all components in order.
+ *
+ * @param  crs    The CRS for which to get the axes.
+ * @param  axes   The vector where to append the axes.
+ * @param  depth  Counter for protection against infinite recursivity.
+ * @throw  std::invalid_argument if a CRS is not a recognized type.
+ */
+void collect_axes(const CRSPtr &crs, std::vector<CoordinateSystemAxisNNPtr> &axes, int depth) {
+    SingleCRSPtr single = as_single_crs(crs);
+    if (single) {
+        for (const CoordinateSystemAxisNNPtr &axis : get_axes(single)) {
+            axes.push_back(axis);
+        }
+    } else {
+        CompoundCRSPtr compound = as_compound_crs(crs, depth);
+        for (CRSNNPtr component : compound->componentReferenceSystems()) {
+            collect_axes(component.as_nullable(), axes, depth);
+        }
+    }
+}
+
+
+/**
+ * Returns in a single call the properties most frequently requested on an identified object:
+ * name, identifiers, domain of validity and (for CRS or coordinate systems) axes with their
+ * directions and units. Elements are stored in the returned array at the indices given by
+ * the SNAPSHOT_* constants. This is a bulk alternative to the `SharedPointer.getFooProperty`
+ * and `SharedPointer.getVectorElement` methods, which require one JNI call per value.
+ * Axes are fetched only if requested, since creating their wrappers is the most costly part.
+ *
+ * @param  env       The JNI environment.
+ * @param  object    The Java object wrapping the PROJ object for which to get the properties.
+ * @param  withAxes  Whether to fetch also the axes with their directions and units.
+ * @return The property values, or null if an exception is thrown.
+ */
+JNIEXPORT jobjectArray JNICALL Java_org_kortforsyningen_proj_SharedPointer_getSnapshot(JNIEnv *env, jobject object, jboolean withAxes) {
+    try {
+        BaseObjectPtr ptr = get_and_unwrap_ptr<BaseObject>(env, object);
+        IdentifiedObjectNNPtr id = get_identified_object(env, object);
+        jclass objectClass = env->FindClass("java/lang/Object");
+        if (!objectClass) return nullptr;
+        jobjectArray result = env->NewObjectArray(org_kortforsyningen_proj_Property_SNAPSHOT_LENGTH, objectClass, nullptr);
+        if (!result) return nullptr;
+        /*
+         * Name and identifiers. The test for deciding if the name is present
+         * shall be the same than the one done for the HAS_NAME property.
+         */
+        if (!id->name()->code().empty() || !id->nameStr().empty()) {
+            BaseObjectPtr name = id->name().as_nullable();
+            jobject wrapper = specific_subclass(env, object, name, org_kortforsyningen_proj_Type_IDENTIFIER);
+            if (!wrapper) return nullptr;                       // Java exception is pending.
+            set_and_release(env, result, org_kortforsyningen_proj_Property_SNAPSHOT_NAME, wrapper);
+        }
+        const std::vector<IdentifierNNPtr> &identifiers = id->identifiers();
+        jobjectArray array = env->NewObjectArray(identifiers.size(), objectClass, nullptr);
+        if (!array) return nullptr;
+        for (size_t i=0; i < identifiers.size(); i++) {
+            BaseObjectPtr identifier = identifiers[i].as_nullable();
+            jobject wrapper = specific_subclass(env, object, identifier, org_kortforsyningen_proj_Type_IDENTIFIER);
+            if (!wrapper) return nullptr;
+            set_and_release(env, array, i, wrapper);
+        }
+        set_and_release(env, result, org_kortforsyningen_proj_Property_SNAPSHOT_IDENTIFIERS, array);
+        /*
+         * Domain of validity, for objects that have a usage (CRS, datum, operations).
+         */
+        ObjectUsagePtr usage = std::dynamic_pointer_cast<ObjectUsage>(ptr);
+        if (usage) {
+            jdoubleArray bbox = get_domain_of_validity(env, *usage);
+            if (env->ExceptionCheck()) return nullptr;
+            set_and_release(env, result, org_kortforsyningen_proj_Property_SNAPSHOT_DOMAIN, bbox);
+        }
+        /*
+         * Axes of a coordinate system, or of all components of a coordinate reference system.
+         * The axis wrappers are returned together with their directions and units because
+         * those properties are usually requested together.
+         */
+        if (!withAxes) return result;
+        std::vector<CoordinateSystemAxisNNPtr> axes;
+        CoordinateSystemPtr cs = std::dynamic_pointer_cast<CoordinateSystem>(ptr);
+        if (cs) {
+            axes = cs->axisList();
+        } else {
+            CRSPtr crs = std::dynamic_pointer_cast<CRS>(ptr);
+            if (!crs) return result;
+            collect_axes(crs, axes, 0);
+        }
+        const jsize n = axes.size();
+        jobjectArray wrappers   = env->NewObjectArray(n, objectClass, nullptr);                          if (!wrappers)   return nullptr;
+        jobjectArray directions = env->NewObjectArray(n, env->FindClass("java/lang/String"), nullptr);   if (!directions) return nullptr;
+        jobjectArray units      = env->NewObjectArray(n, objectClass, nullptr);                          if (!units)      return nullptr;
+        for (jsize i=0; i<n; i++) {
+            BaseObjectPtr axis = axes[i].as_nullable();
+            jobject wrapper = specific_subclass(env, object, axis, org_kortforsyningen_proj_Type_AXIS);
+            if (!wrapper) return nullptr;
+            set_and_release(env, wrappers, i, wrapper);
+            set_and_release(env, directions, i, env->NewStringUTF(axes[i]->direction().toString().c_str()));
+            set_and_release(env, units, i, to_java_unit(env, object, &axes[i]->unit()));
+            if (env->ExceptionCheck()) return nullptr;
+        }
+        set_and_release(env, result, org_kortforsyningen_proj_Property_SNAPSHOT_AXES,            wrappers);
+        set_and_release(env, result, org_kortforsyningen_proj_Property_SNAPSHOT_AXIS_DIRECTIONS, directions);
+        set_and_release(env, result, org_kortforsyningen_proj_Property_SNAPSHOT_AXIS_UNITS,      units);
+        return result;
+    } catch (const std::exception &e) {
+        rethrow_as_java_exception(env, JPJ_RUNTIME_EXCEPTION, e);
+    }
+    return nullptr;
+}
+
+
 
 
 // </editor-fold>
@@ -2241,6 +2602,44 @@ JNIEXPORT jobject JNICALL Java_org_kortforsyningen_proj_ObjectFactory_create
                 object = CompoundCRS::create(propertyMap, items).as_nullable();
                 break;
             }
+            case org_kortforsyningen_proj_Type_COORDINATE_OPERATION: {
+                /*
+                 * Name, domain of validity and accuracy are computed from the components.
+                 * If the user specified some properties, they replace the computed ones
+                 * except the domain of validity and the accuracies, which are kept. The
+                 * PROJ string exported for the result is a single pipeline, which is what
+                 * `Context.createPJ(…)` will instantiate.
+                 */
+                int n = env->GetArrayLength(components);
+                std::vector<CoordinateOperationNNPtr> items;
+                for (int i=0; i<n; i++) {
+                    items.push_back(get_component<CoordinateOperation>(env, components, i));
+                }
+                ConcatenatedOperationNNPtr computed = ConcatenatedOperation::createComputeMetadata(items, false);
+                if (!properties) {
+                    object = computed.as_nullable();
+                    break;
+                }
+                bool hasName = false;
+                if (env->GetArrayLength(properties) > org_kortforsyningen_proj_ObjectFactory_NAME) {
+                    jobject name = env->GetObjectArrayElement(properties, org_kortforsyningen_proj_ObjectFactory_NAME);
+                    hasName = (name != nullptr);
+                    env->DeleteLocalRef(name);
+                }
+                if (!hasName) {
+                    propertyMap.set(IdentifiedObject::NAME_KEY, computed->nameStr());
+                }
+                for (const ObjectDomainNNPtr &domain : computed->domains()) {
+                    ExtentPtr extent = domain->domainOfValidity();
+                    if (extent) {
+                        propertyMap.set(ObjectUsage::DOMAIN_OF_VALIDITY_KEY, NN_NO_CHECK(extent));
+                        break;
+                    }
+                }
+                object = ConcatenatedOperation::create(propertyMap, computed->operations(),
+                                computed->coordinateOperationAccuracies()).as_nullable();
+                break;
+            }
         }
         if (object) {
             return specific_subclass(env, factory, object, type);
@@ -2455,9 +2854,9 @@ JNIEXPORT jobject JNICALL Java_org_kortforsyningen_proj_AuthorityFactory_createG
  * @param  gridAvailabilityUse          How grid availability is used.
  * @param  allowUseIntermediateCRS      Whether an intermediate pivot CRS can be used for researching coordinate operations.
  * @param  discardSuperseded            Whether transformations that are superseded (but not deprecated) should be discarded.
- * @return The coordinate operations.
+ * @return The coordinate operations that PROJ can instantiate, most relevant first. May be empty.
  */
-JNIEXPORT jobject JNICALL Java_org_kortforsyningen_proj_AuthorityFactory_createOperation
+JNIEXPORT jobjectArray JNICALL Java_org_kortforsyningen_proj_AuthorityFactory_createOperations
     (JNIEnv *env, jobject factory, jobject sourceCRS, jobject targetCRS,
      jdouble westBoundLongitude, jdouble eastBoundLongitude,
      jdouble southBoundLatitude, jdouble northBoundLatitude,
@@ -2493,12 +2892,34 @@ JNIEXPORT jobject JNICALL Java_org_kortforsyningen_proj_AuthorityFactory_createO
          */
         CoordinateOperationFactoryNNPtr opf = CoordinateOperationFactory::create();
         std::vector<CoordinateOperationNNPtr> operations = opf->createOperations(source, target, context);
-        if (!operations.empty()) {
-            BaseObjectPtr op = operations[0].as_nullable();
-            if (op) {
-                return specific_subclass(env, factory, op, org_kortforsyningen_proj_Type_COORDINATE_OPERATION);
+        /*
+         * Discard the operations that PROJ can not instantiate, for example because a required grid
+         * is not installed. This is the same filtering than the one done by proj_create_crs_to_crs(…).
+         * The remaining operations are kept in the order determined by CoordinateOperationFactory.
+         */
+        DatabaseContextPtr db = pf->databaseContext().as_nullable();
+        std::vector<BaseObjectPtr> candidates;
+        for (const CoordinateOperationNNPtr &op : operations) {
+#if PROJ_VERSION_MAJOR >= 7
+            const bool instantiable = op->isPROJInstantiable(db, false);
+#else
+            const bool instantiable = op->isPROJInstantiable(db);
+#endif
+            if (instantiable) {
+                candidates.push_back(op.as_nullable());
             }
         }
+        jclass c = env->FindClass("org/kortforsyningen/proj/Operation");
+        if (!c) return nullptr;
+        const jsize n = candidates.size();
+        jobjectArray result = env->NewObjectArray(n, c, nullptr);
+        if (!result) return nullptr;                            // OutOfMemoryError will be thrown in Java code.
+        for (jsize i=0; i<n; i++) {
+            jobject wrapper = specific_subclass(env, factory, candidates[i], org_kortforsyningen_proj_Type_COORDINATE_OPERATION);
+            if (!wrapper) return nullptr;                       // Java exception is pending.
+            set_and_release(env, result, i, wrapper);
+        }
+        return result;
     } catch (const std::exception &e) {
         rethrow_as_java_exception(env, JPJ_FACTORY_EXCEPTION, e);
     }
@@ -2599,9 +3020,10 @@ std::atomic_flag arrayCriticalDoesCopies;
  * @param  coordinates  The coordinates to transform, as a sequence of (x,y,z,…) tuples.
  * @param  offset       Offset of the first coordinate in the given array.
  * @param  numPts       Number of points to transform.
+ * @param  inverse      Whether to execute the operation in the inverse direction.
  */
 JNIEXPORT void JNICALL Java_org_kortforsyningen_proj_Transform_transform
-    (JNIEnv *env, jobject transform, const jint dimension, jdoubleArray coordinates, jint offset, jint numPts)
+    (JNIEnv *env, jobject transform, const jint dimension, jdoubleArray coordinates, jint offset, jint numPts, jboolean inverse)
 {
     PJ *pj = get_PJ(env, transform);
     if (pj) {
@@ -2620,7 +3042,7 @@ JNIEXPORT void JNICALL Java_org_kortforsyningen_proj_Transform_transform
             double *y = (dimension >= 2) ? x+1 : nullptr;
             double *z = (dimension >= 3) ? x+2 : nullptr;
             double *t = (dimension >= 4) ? x+3 : nullptr;
-            proj_trans_generic(pj, PJ_FWD,
+            proj_trans_generic(pj, inverse ? PJ_INV : PJ_FWD,
                     x, stride, numPts,
                     y, stride, numPts,
                     z, stride, numPts,
@@ -2642,6 +3064,692 @@ JNIEXPORT void JNICALL Java_org_kortforsyningen_proj_Transform_transform
 }
 
 
+/**
+ * Computes the Jacobian matrices of the operation at the given points using centred finite differences.
+ * For each source dimension j, the point is shifted by ±h along that dimension and both shifted points
+ * are transformed. The step h is proportional to the magnitude of the coordinate value, with a factor
+ * equals to the cube root of machine epsilon, which is the usual optimum for centred differences.
+ * Dimensions after the t value are not handled by PROJ and are assumed to be passed through unchanged
+ * to the target dimension of the same index, or dropped if the target has fewer dimensions.
+ *
+ * Matrices have dstDim rows and srcDim columns and are written in row-major order, one after the other.
+ * Elements of matrices computed at a point that can not be transformed are set to NaN. If at least one
+ * point can not be transformed, a TransformException is thrown after all points have been processed.
+ *
+ * @param  env        The JNI environment.
+ * @param  transform  The Java object wrapping the PJ to use.
+ * @param  srcDim     Number of dimensions of source points.
+ * @param  dstDim     Number of dimensions of target points.
+ * @param  points     The points where to evaluate the derivatives, as a sequence of (x,y,z,…) tuples.
+ * @param  ptOff      Offset of the first coordinate in the points array.
+ * @param  numPts     Number of points where to evaluate the derivatives.
+ * @param  jacobians  The array where to write the matrix elements.
+ * @param  jacOff     Offset of the first matrix element to write in the jacobians array.
+ * @param  inverse    Whether to execute the operation in the inverse direction.
+ */
+JNIEXPORT void JNICALL Java_org_kortforsyningen_proj_Transform_derivatives
+    (JNIEnv *env, jobject transform, const jint srcDim, const jint dstDim,
+     jdoubleArray points, jint ptOff, jint numPts, jdoubleArray jacobians, jint jacOff, jboolean inverse)
+{
+    PJ *pj = get_PJ(env, transform);
+    if (pj) {
+        const PJ_DIRECTION direction = inverse ? PJ_INV : PJ_FWD;
+        const double relativeStep = std::cbrt(std::numeric_limits<double>::epsilon());
+        const jint   numVar       = std::min(srcDim, 4);
+        const jint   numOut       = std::min(dstDim, 4);
+        bool anyFailure = false;
+        int  err = 0;
+        /*
+         * Same reason than in the transform method for using GetPrimitiveArrayCritical(…).
+         * We shall not invoke any JNI function before both arrays are released.
+         */
+        double *src = reinterpret_cast<jdouble*>(env->GetPrimitiveArrayCritical(points, nullptr));
+        if (src) {
+            double *jac = reinterpret_cast<jdouble*>(env->GetPrimitiveArrayCritical(jacobians, nullptr));
+            if (jac) {
+                const double *p = src + ptOff;
+                double       *m = jac + jacOff;
+                proj_errno_reset(pj);
+                while (--numPts >= 0) {
+                    PJ_COORD base = proj_coord(0, 0, 0, HUGE_VAL);
+                    for (jint j=0; j<numVar; j++) {
+                        base.v[j] = p[j];
+                    }
+                    for (jint j=0; j<srcDim; j++) {
+                        if (j < numVar) {
+                            const double h = relativeStep * std::max(std::abs(p[j]), 1.0);
+                            PJ_COORD lo = base;
+                            PJ_COORD hi = base;
+                            lo.v[j] -= h;
+                            hi.v[j] += h;
+                            const double span = hi.v[j] - lo.v[j];      // Exact step after rounding.
+                            lo = proj_trans(pj, direction, lo);
+                            hi = proj_trans(pj, direction, hi);
+                            const bool failed = (lo.v[0] == HUGE_VAL || hi.v[0] == HUGE_VAL);
+                            if (failed && !anyFailure) {
+                                anyFailure = true;
+                                err = proj_errno(pj);
+                            }
+                            for (jint i=0; i<dstDim; i++) {
+                                double value;
+                                if (failed) {
+                                    value = std::numeric_limits<double>::quiet_NaN();
+                                } else if (i < numOut) {
+                                    value = (hi.v[i] - lo.v[i]) / span;
+                                } else {
+                                    value = 0;
+                                }
+                                m[i*srcDim + j] = value;
+                            }
+                        } else {
+                            /*
+                             * Dimensions ignored by PROJ are passed through. The transform methods work in-place
+                             * in a buffer of max(srcDim, dstDim) coordinates per point, so source dimension j is
+                             * copied unchanged to target dimension j if the target has that many dimensions, and
+                             * dropped otherwise. It does not depend on whether srcDim and dstDim are equal.
+                             */
+                            const jint target = (j < dstDim) ? j : -1;
+                            for (jint i=0; i<dstDim; i++) {
+                                m[i*srcDim + j] = (i == target) ? 1 : 0;
+                            }
+                        }
+                    }
+                    p += srcDim;
+                    m += srcDim * dstDim;
+                }
+                env->ReleasePrimitiveArrayCritical(jacobians, jac, 0);
+            }
+            env->ReleasePrimitiveArrayCritical(points, src, JNI_ABORT);
+            if (anyFailure) {
+                jclass c = env->FindClass(JPJ_TRANSFORM_EXCEPTION);
+                if (c) env->ThrowNew(c, err ? proj_errno_string(err) : "Can not compute derivative at some points.");
+            }
+        }
+    }
+}
+
+
+/**
+ * Computes the bounds of a densified bounding box. This is the fallback used when proj_trans_bounds
+ * is not available (PROJ versions before 8.2) or failed. The perimeter of the box is sampled with
+ * (densifyPoints + 1) intervals per edge, all points are transformed in a single call to
+ * proj_trans_generic, then the box is replaced by the smallest box containing all transformed points.
+ * Points that can not be transformed are ignored.
+ *
+ * If the target CRS is geographic (longitudeAxis >= 0), two additional cases are handled:
+ *
+ *   - If a pole transformed back to the source CRS is inside the source box, then the latitude
+ *     bound is extended to that pole and the longitude range is widened to the whole world.
+ *   - Otherwise if the perimeter jumps by more than half a period between two consecutive points,
+ *     then the box crosses the anti-meridian. The longitude range is computed with longitudes
+ *     shifted to [0 … period] and wrapped, in which case the minimal longitude is greater than
+ *     the maximal longitude.
+ *
+ * @param  pj             The PJ to use, with a context already assigned.
+ * @param  direction      The direction of the operation.
+ * @param  box            The (xmin, ymin, xmax, ymax) values of the box to transform in-place.
+ * @param  densifyPoints  Number of points to add between the corners of each edge.
+ * @param  longitudeAxis  Index (0 or 1) of the longitude axis in the target CRS, or -1 if not geographic.
+ * @param  period         Number of longitude units in a full turn (e.g. 360 for degrees).
+ * @return whether at least one point has been transformed.
+ */
+bool densified_bounds(PJ *pj, const PJ_DIRECTION direction, jdouble *box,
+                      const jint densifyPoints, const jint longitudeAxis, const jdouble period)
+{
+    const size_t perEdge = static_cast<size_t>(densifyPoints) + 1;
+    const size_t n       = perEdge * 4;
+    const double dx      = (box[2] - box[0]) / perEdge;
+    const double dy      = (box[3] - box[1]) / perEdge;
+    std::vector<double> x(n), y(n);
+    for (size_t i=0; i<perEdge; i++) {
+        x[i            ] = box[0] + dx*i;   y[i            ] = box[1];            // South edge, toward east.
+        x[i + perEdge  ] = box[2];          y[i + perEdge  ] = box[1] + dy*i;     // East edge, toward north.
+        x[i + perEdge*2] = box[2] - dx*i;   y[i + perEdge*2] = box[3];            // North edge, toward west.
+        x[i + perEdge*3] = box[0];          y[i + perEdge*3] = box[3] - dy*i;     // West edge, toward south.
+    }
+    proj_trans_generic(pj, direction,
+            x.data(), sizeof(double), n,
+            y.data(), sizeof(double), n,
+            nullptr, 0, 0,
+            nullptr, 0, 0);
+    double min[2] = {std::numeric_limits<double>::infinity(), std::numeric_limits<double>::infinity()};
+    double max[2] = {-min[0], -min[1]};
+    for (size_t i=0; i<n; i++) {
+        const double xi = x[i];
+        const double yi = y[i];
+        if (std::isfinite(xi) && std::isfinite(yi)) {       // Failed points are set to HUGE_VAL.
+            if (xi < min[0]) min[0] = xi;
+            if (xi > max[0]) max[0] = xi;
+            if (yi < min[1]) min[1] = yi;
+            if (yi > max[1]) max[1] = yi;
+        }
+    }
+    if (!(min[0] <= max[0])) {
+        return false;
+    }
+    if (longitudeAxis >= 0) {
+        const int    latitudeAxis = 1 - longitudeAxis;
+        const double half         = period / 2;
+        const std::vector<double> &lon = (longitudeAxis == 0) ? x : y;
+        /*
+         * Poles: the source box contains a pole if the pole transformed in the opposite
+         * direction falls inside the source box. Both poles are tested in a single call.
+         */
+        double px[2], py[2];
+        double *plat = (latitudeAxis == 0) ? px : py;
+        double *plon = (latitudeAxis == 0) ? py : px;
+        plat[0] = -period / 4;  plon[0] = 0;
+        plat[1] = +period / 4;  plon[1] = 0;
+        proj_trans_generic(pj, (direction == PJ_FWD) ? PJ_INV : PJ_FWD,
+                px, sizeof(double), 2,
+                py, sizeof(double), 2,
+                nullptr, 0, 0,
+                nullptr, 0, 0);
+        bool pole = false;
+        for (int i=0; i<2; i++) {
+            if (px[i] >= box[0] && px[i] <= box[2] && py[i] >= box[1] && py[i] <= box[3]) {
+                if (i == 0) min[latitudeAxis] = -period / 4;
+                else        max[latitudeAxis] = +period / 4;
+                pole = true;
+            }
+        }
+        if (pole) {
+            min[longitudeAxis] = -half;
+            max[longitudeAxis] = +half;
+        } else {
+            /*
+             * Anti-meridian: search for jumps of more than half a period between consecutive
+             * points of the perimeter (including the jump from the last point to the first one).
+             */
+            bool crossing = false;
+            double previous = std::numeric_limits<double>::quiet_NaN();
+            for (size_t i=0; i<=n; i++) {
+                const double value = lon[i % n];
+                if (std::isfinite(value)) {
+                    if (std::abs(value - previous) > half) {
+                        crossing = true;
+                        break;
+                    }
+                    previous = value;
+                }
+            }
+            if (crossing) {
+                double low  = std::numeric_limits<double>::infinity();
+                double high = -low;
+                for (size_t i=0; i<n; i++) {
+                    double value = lon[i];
+                    if (std::isfinite(value) && std::isfinite((longitudeAxis == 0) ? y[i] : x[i])) {
+                        if (value < 0) value += period;
+                        if (value < low)  low  = value;
+                        if (value > high) high = value;
+                    }
+                }
+                if (high - low >= period) {
+                    low  = -half;
+                    high = +half;
+                } else {
+                    if (low  > half) low  -= period;
+                    if (high > half) high -= period;
+                }
+                min[longitudeAxis] = low;
+                max[longitudeAxis] = high;
+            }
+        }
+    }
+    box[0] = min[0];
+    box[1] = min[1];
+    box[2] = max[0];
+    box[3] = max[1];
+    return true;
+}
+
+
+/**
+ * Transforms in-place a bounding box, densifying each edge with intermediate points.
+ * If PROJ 8.2 or later is available, this function delegates to proj_trans_bounds,
+ * which handles the poles and the anti-meridian. The number of densification points
+ * is clamped to the [2 … 10000] range accepted by PROJ in that case. If PROJ is older
+ * or proj_trans_bounds failed, this function fallbacks on densified_bounds.
+ * In both cases, the minimal longitude is greater than the maximal longitude
+ * if the box crosses the anti-meridian in a geographic target CRS.
+ *
+ * @param  env            The JNI environment.
+ * @param  transform      The Java object wrapping the PJ to use.
+ * @param  context        The wrapper of the PJ_CONTEXT assigned to the PJ.
+ * @param  bounds         The (xmin, ymin, xmax, ymax) values of the box to transform in-place.
+ * @param  densifyPoints  Number of points to add between the corners of each edge.
+ * @param  longitudeAxis  Index (0 or 1) of the longitude axis in the target CRS, or -1 if not geographic.
+ * @param  period         Number of longitude units in a full turn (e.g. 360 for degrees).
+ * @param  inverse        Whether to execute the operation in the inverse direction.
+ */
+JNIEXPORT void JNICALL Java_org_kortforsyningen_proj_Transform_transformBounds
+    (JNIEnv *env, jobject transform, jobject context, jdoubleArray bounds, jint densifyPoints,
+     jint longitudeAxis, jdouble period, jboolean inverse)
+{
+    PJ *pj = get_PJ(env, transform);
+    if (pj) {
+        jdouble box[4];
+        env->GetDoubleArrayRegion(bounds, 0, 4, box);
+        if (env->ExceptionCheck()) return;
+        const PJ_DIRECTION direction = inverse ? PJ_INV : PJ_FWD;
+        proj_errno_reset(pj);
+#if PROJ_VERSION_MAJOR > 8 || (PROJ_VERSION_MAJOR == 8 && PROJ_VERSION_MINOR >= 2)
+        double result[4];
+        if (proj_trans_bounds(get_context(env, context), pj, direction, box[0], box[1], box[2], box[3],
+                              &result[0], &result[1], &result[2], &result[3],
+                              std::min(std::max(densifyPoints, 2), 10000)))
+        {
+            env->SetDoubleArrayRegion(bounds, 0, 4, result);
+            return;
+        }
+        proj_errno_reset(pj);
+#else
+        (void) context;     // Used only with PROJ 8.2 or later.
+#endif
+        if (densified_bounds(pj, direction, box, densifyPoints, longitudeAxis, period)) {
+            env->SetDoubleArrayRegion(bounds, 0, 4, box);
+        } else {
+            const int err = proj_errno(pj);
+            jclass c = env->FindClass(JPJ_TRANSFORM_EXCEPTION);
+            if (c) env->ThrowNew(c, err ? proj_errno_string(err) : "Can not transform any point of the bounding box.");
+        }
+    }
+}
+
+
+/**
+ * Returns whether the PJ wrapped by the given Transform can be executed in the inverse direction.
+ *
+ * @param  env        The JNI environment.
+ * @param  transform  The Java object wrapping the PJ to use.
+ * @return whether the PJ has an inverse.
+ */
+JNIEXPORT jboolean JNICALL Java_org_kortforsyningen_proj_Transform_hasInverse(JNIEnv *env, jobject transform) {
+    PJ *pj = get_PJ(env, transform);
+    return (pj && proj_pj_info(pj).has_inverse) ? JNI_TRUE : JNI_FALSE;
+}
+
+
+/**
+ * Transforms in-place coordinates stored as scaled integers, as in LAS point cloud files. Each coordinate
+ * value is dequantized as integer × scale + offset, transformed, then requantized with the target scale and
+ * offset and rounded to the nearest integer. Coordinates are processed in chunks of fixed size, so the only
+ * temporary memory is a small native buffer regardless of the number of points. Points that can not be
+ * transformed, or for which the requantized values overflow the integer range, are left unchanged and a
+ * TransformException is thrown after all other points have been processed.
+ *
+ * @param  env           The JNI environment.
+ * @param  transform     The Java object wrapping the PJ to use.
+ * @param  dimension     Number of integers in each coordinate tuple, from 1 to 4 inclusive.
+ * @param  coordinates   The coordinates to transform, as a sequence of (x,y,z,…) tuples.
+ * @param  offset        Offset of the first coordinate in the given array.
+ * @param  numPts        Number of points to transform.
+ * @param  quantization  Source scales, source offsets, target scales and target offsets, `dimension` values each.
+ * @param  inverse       Whether to execute the operation in the inverse direction.
+ */
+JNIEXPORT void JNICALL Java_org_kortforsyningen_proj_Transform_transformScaled
+    (JNIEnv *env, jobject transform, const jint dimension, jintArray coordinates, jint offset, jint numPts,
+     jdoubleArray quantization, jboolean inverse)
+{
+    if (dimension < 1 || dimension > 4) {
+        // Verified by the Java caller against the operation dimensions, but checked again for protecting `q`.
+        jclass c = env->FindClass(JPJ_ILLEGAL_ARGUMENT_EXCEPTION);
+        if (c) env->ThrowNew(c, "Illegal number of dimensions.");
+        return;
+    }
+    PJ *pj = get_PJ(env, transform);
+    if (pj) {
+        jdouble q[16];
+        env->GetDoubleArrayRegion(quantization, 0, dimension * 4, q);
+        if (env->ExceptionCheck()) return;
+        const jdouble *srcScale  = q;
+        const jdouble *srcOffset = q + dimension;
+        const jdouble *dstScale  = q + dimension * 2;
+        const jdouble *dstOffset = q + dimension * 3;
+        const PJ_DIRECTION direction = inverse ? PJ_INV : PJ_FWD;
+        const size_t stride = sizeof(double) * dimension;
+        const jint chunkSize = 4096;
+        std::vector<jint>   integers(static_cast<size_t>(chunkSize) * dimension);
+        std::vector<double> values  (static_cast<size_t>(chunkSize) * dimension);
+        size_t failures = 0;
+        while (numPts > 0) {
+            const jint n = std::min(numPts, chunkSize);
+            const jint length = n * dimension;
+            env->GetIntArrayRegion(coordinates, offset, length, integers.data());
+            if (env->ExceptionCheck()) return;
+            for (jint p=0; p<length; p += dimension) {
+                for (int d=0; d<dimension; d++) {
+                    values[p+d] = integers[p+d] * srcScale[d] + srcOffset[d];
+                }
+            }
+            double *x = values.data();
+            double *y = (dimension >= 2) ? x+1 : nullptr;
+            double *z = (dimension >= 3) ? x+2 : nullptr;
+            double *t = (dimension >= 4) ? x+3 : nullptr;
+            proj_trans_generic(pj, direction,
+                    x, stride, n,
+                    y, stride, n,
+                    z, stride, n,
+                    t, stride, n);
+            for (jint p=0; p<length; p += dimension) {
+                /*
+                 * Compute all values of the tuple before to write any of them,
+                 * so the point can be left unchanged if any value is invalid.
+                 */
+                bool valid = true;
+                for (int d=0; d<dimension; d++) {
+                    const double v = std::round((values[p+d] - dstOffset[d]) / dstScale[d]);
+                    if (!(v >= std::numeric_limits<jint>::min() && v <= std::numeric_limits<jint>::max())) {
+                        valid = false;      // Also catches NaN and HUGE_VAL set by PROJ on failed points.
+                        break;
+                    }
+                    values[p+d] = v;
+                }
+                if (valid) {
+                    for (int d=0; d<dimension; d++) {
+                        integers[p+d] = static_cast<jint>(values[p+d]);
+                    }
+                } else {
+                    failures++;
+                }
+            }
+            env->SetIntArrayRegion(coordinates, offset, length, integers.data());
+            if (env->ExceptionCheck()) return;
+            offset += length;
+            numPts -= n;
+        }
+        if (failures != 0) {
+            const std::string message = std::to_string(failures) + " points can not be transformed.";
+            jclass c = env->FindClass(JPJ_TRANSFORM_EXCEPTION);
+            if (c) env->ThrowNew(c, message.c_str());
+        }
+    }
+}
+
+
+/**
+ * Vertices collected from a WKB geometry, with their location in the WKB array. Vertices are
+ * separated in two batches: the ones having only (x,y) coordinates and the ones having also a
+ * z coordinate. The m coordinate, if present, is not collected since it is not transformed.
+ */
+struct WKBVertices {
+    /** The WKB bytes, the number of valid bytes and the position of the next byte to read. */
+    unsigned char *data;
+    size_t length;
+    size_t position;
+
+    /** Whether the host uses little-endian byte order. */
+    bool little_endian;
+
+    /** Number of dimensions expected by the operation, ignoring the m coordinate. */
+    int dimension;
+
+    /** Coordinate values of 2D vertices (index 0) and 3D vertices (index 1). */
+    std::vector<double> x[2], y[2], z[2];
+
+    /** Position in the WKB array of the x coordinate of each vertex, and whether its bytes are swapped. */
+    std::vector<size_t> offsets[2];
+    std::vector<bool>   swaps[2];
+};
+
+
+/**
+ * Ensures that the given number of bytes can be read from the WKB array.
+ *
+ * @param  wkb    The WKB array and the vertices collected so far.
+ * @param  count  Number of bytes to read.
+ */
+inline void wkb_require(const WKBVertices &wkb, const size_t count) {
+    if (count > wkb.length - wkb.position) {
+        throw std::invalid_argument("Unexpected end of WKB geometry.");
+    }
+}
+
+
+/**
+ * Reads an unsigned 32 bits integer from the WKB array and advances the position.
+ *
+ * @param  wkb   The WKB array and the vertices collected so far.
+ * @param  swap  Whether the bytes need to be swapped.
+ * @return The integer value.
+ */
+uint32_t wkb_read_int(WKBVertices &wkb, const bool swap) {
+    wkb_require(wkb, sizeof(uint32_t));
+    unsigned char bytes[sizeof(uint32_t)];
+    memcpy(bytes, wkb.data + wkb.position, sizeof(bytes));
+    if (swap) std::reverse(bytes, bytes + sizeof(bytes));
+    wkb.position += sizeof(bytes);
+    uint32_t value;
+    memcpy(&value, bytes, sizeof(value));
+    return value;
+}
+
+
+/**
+ * Reads or writes a double value in the WKB array at the given position.
+ * The position is not necessarily aligned on a multiple of 8 bytes.
+ *
+ * @param  data   Pointer to the first byte of the value.
+ * @param  swap   Whether the bytes need to be swapped.
+ * @param  value  The value to write (in the write function).
+ * @return The value read (in the read function).
+ */
+inline double wkb_get_double(const unsigned char *data, const bool swap) {
+    unsigned char bytes[sizeof(double)];
+    memcpy(bytes, data, sizeof(bytes));
+    if (swap) std::reverse(bytes, bytes + sizeof(bytes));
+    double value;
+    memcpy(&value, bytes, sizeof(value));
+    return value;
+}
+
+inline void wkb_put_double(unsigned char *data, const bool swap, const double value) {
+    unsigned char bytes[sizeof(double)];
+    memcpy(bytes, &value, sizeof(bytes));
+    if (swap) std::reverse(bytes, bytes + sizeof(bytes));
+    memcpy(data, bytes, sizeof(bytes));
+}
+
+
+/**
+ * Collects the given number of vertices from the WKB array and advances the position.
+ * Vertices having NaN coordinates (used for empty points) are skipped.
+ *
+ * @param  wkb    The WKB array and the vertices collected so far.
+ * @param  swap   Whether the bytes need to be swapped.
+ * @param  hasZ   Whether each vertex has a z coordinate.
+ * @param  hasM   Whether each vertex has a m coordinate.
+ * @param  count  Number of vertices to read.
+ */
+void wkb_read_vertices(WKBVertices &wkb, const bool swap, const bool hasZ, const bool hasM, const uint32_t count) {
+    const size_t stride = sizeof(double) * (2 + (hasZ ? 1 : 0) + (hasM ? 1 : 0));
+    if (count > (wkb.length - wkb.position) / stride) {
+        throw std::invalid_argument("Unexpected end of WKB geometry.");
+    }
+    const int batch = hasZ ? 1 : 0;
+    for (uint32_t i=0; i<count; i++) {
+        const unsigned char *p = wkb.data + wkb.position;
+        const double x = wkb_get_double(p, swap);
+        const double y = wkb_get_double(p + sizeof(double), swap);
+        if (!std::isnan(x) || !std::isnan(y)) {
+            wkb.x[batch].push_back(x);
+            wkb.y[batch].push_back(y);
+            if (hasZ) wkb.z[batch].push_back(wkb_get_double(p + 2*sizeof(double), swap));
+            wkb.offsets[batch].push_back(wkb.position);
+            wkb.swaps  [batch].push_back(swap);
+        }
+        wkb.position += stride;
+    }
+}
+
+
+/**
+ * Collects the vertices of the geometry starting at the current position of the WKB array,
+ * including the vertices of all components of multi-geometries. Both ISO WKB and PostGIS
+ * extended WKB (EWKB) are supported.
+ *
+ * @param  wkb    The WKB array and the vertices collected so far.
+ * @param  depth  Depth of the geometry in the collection tree, for protection against stack overflow.
+ */
+void wkb_read_geometry(WKBVertices &wkb, const int depth) {
+    if (depth > 64) {
+        throw std::invalid_argument("Too many nested collections in WKB geometry.");
+    }
+    wkb_require(wkb, 1);
+    const unsigned char order = wkb.data[wkb.position++];
+    if (order > 1) {
+        throw std::invalid_argument("Invalid byte order mark in WKB geometry.");
+    }
+    const bool swap = (order == 1) != wkb.little_endian;        // 0 = big endian, 1 = little endian.
+    const uint32_t code = wkb_read_int(wkb, swap);
+    const uint32_t type = (code & 0x0FFFFFFF) % 1000;
+    const uint32_t dims = (code & 0x0FFFFFFF) / 1000;           // ISO: 1 = Z, 2 = M, 3 = ZM.
+    const bool hasZ = (code & 0x80000000) || dims == 1 || dims == 3;
+    const bool hasM = (code & 0x40000000) || dims == 2 || dims == 3;
+    if ((hasZ ? 3 : 2) != wkb.dimension) {
+        throw std::invalid_argument("WKB geometry has " + std::to_string(hasZ ? 3 : 2)
+                + " dimensions but the operation expects " + std::to_string(wkb.dimension) + '.');
+    }
+    if (code & 0x20000000) {
+        wkb_read_int(wkb, swap);                                // Skip the SRID of extended WKB.
+    }
+    switch (type) {
+        case 1: {                                               // Point
+            wkb_read_vertices(wkb, swap, hasZ, hasM, 1);
+            break;
+        }
+        case 2:                                                 // LineString
+        case 8: {                                               // CircularString
+            wkb_read_vertices(wkb, swap, hasZ, hasM, wkb_read_int(wkb, swap));
+            break;
+        }
+        case 3:                                                 // Polygon
+        case 17: {                                              // Triangle
+            for (uint32_t n = wkb_read_int(wkb, swap); n != 0; n--) {
+                wkb_read_vertices(wkb, swap, hasZ, hasM, wkb_read_int(wkb, swap));
+            }
+            break;
+        }
+        case 4:  case 5:  case 6:  case 7:                      // Multi-Point, LineString, Polygon, GeometryCollection
+        case 9:  case 10: case 11: case 12:                     // CompoundCurve, CurvePolygon, MultiCurve, MultiSurface
+        case 15: case 16: {                                     // PolyhedralSurface, TIN
+            for (uint32_t n = wkb_read_int(wkb, swap); n != 0; n--) {
+                wkb_read_geometry(wkb, depth + 1);
+            }
+            break;
+        }
+        default: {
+            throw std::invalid_argument("Unsupported WKB geometry type: " + std::to_string(code));
+        }
+    }
+}
+
+
+/**
+ * Transforms in-place all vertices of the WKB geometry starting at the given offset.
+ * The WKB array is either a direct NIO buffer or a Java byte array. Vertices are collected
+ * in a first pass, transformed in at most two calls to proj_trans_generic (one for 2D vertices
+ * and one for 3D vertices), then written back in the byte order of each geometry component.
+ * If any vertex can not be transformed, then the WKB array is left unchanged. The dimension of
+ * each geometry component (ignoring the m coordinate) is verified against the dimension of the
+ * operation before any coordinate is given to PROJ.
+ *
+ * @param  env        The JNI environment.
+ * @param  transform  The Java object wrapping the PJ to use.
+ * @param  dimension  Number of dimensions of source and target points.
+ * @param  buffer     The direct buffer containing the WKB geometry, or null for using the array.
+ * @param  array      The Java array containing the WKB geometry. Ignored if buffer is non-null.
+ * @param  offset     Index of the first byte of the geometry.
+ * @param  length     Maximal number of bytes that can be read from the offset.
+ * @param  inverse    Whether to execute the operation in the inverse direction.
+ * @return Number of vertices in the high 32 bits and number of bytes in the WKB geometry in the low 32 bits.
+ */
+JNIEXPORT jlong JNICALL Java_org_kortforsyningen_proj_Transform_transformWKB
+    (JNIEnv *env, jobject transform, const jint dimension, jobject buffer, jbyteArray array,
+     jint offset, jint length, jboolean inverse)
+{
+    PJ *pj = get_PJ(env, transform);
+    if (!pj) return 0;
+    unsigned char *data;
+    if (buffer) {
+        data = reinterpret_cast<unsigned char*>(env->GetDirectBufferAddress(buffer));
+        if (!data) {
+            jclass c = env->FindClass(JPJ_ILLEGAL_ARGUMENT_EXCEPTION);
+            if (c) env->ThrowNew(c, "Not a direct buffer.");
+            return 0;
+        }
+    } else {
+        /*
+         * Same "critical" restrictions than in the `transform` function apply here:
+         * no JNI call until the array is released, so exceptions are thrown after release.
+         */
+        data = reinterpret_cast<unsigned char*>(env->GetPrimitiveArrayCritical(array, nullptr));
+        if (!data) return 0;
+    }
+    const uint16_t probe = 1;
+    WKBVertices wkb;
+    wkb.data          = data + offset;
+    wkb.length        = static_cast<size_t>(length);
+    wkb.position      = 0;
+    wkb.little_endian = *reinterpret_cast<const unsigned char*>(&probe) == 1;
+    wkb.dimension     = dimension;
+    std::string error;
+    const char *errorType = nullptr;
+    size_t failures = 0;
+    try {
+        wkb_read_geometry(wkb, 0);
+        const PJ_DIRECTION direction = inverse ? PJ_INV : PJ_FWD;
+        for (int batch=0; batch<2; batch++) {
+            const size_t n = wkb.offsets[batch].size();
+            if (n != 0) {
+                proj_trans_generic(pj, direction,
+                        wkb.x[batch].data(), sizeof(double), n,
+                        wkb.y[batch].data(), sizeof(double), n,
+                        batch ? wkb.z[batch].data() : nullptr, batch ? sizeof(double) : 0, batch ? n : 0,
+                        nullptr, 0, 0);
+                for (size_t i=0; i<n; i++) {
+                    // Failed points are set to HUGE_VAL.
+                    if (!std::isfinite(wkb.x[batch][i]) || !std::isfinite(wkb.y[batch][i])) failures++;
+                }
+            }
+        }
+        if (failures == 0) {
+            for (int batch=0; batch<2; batch++) {
+                const size_t n = wkb.offsets[batch].size();
+                for (size_t i=0; i<n; i++) {
+                    unsigned char *p = wkb.data + wkb.offsets[batch][i];
+                    const bool swap = wkb.swaps[batch][i];
+                    wkb_put_double(p, swap, wkb.x[batch][i]);
+                    wkb_put_double(p + sizeof(double), swap, wkb.y[batch][i]);
+                    if (batch) wkb_put_double(p + 2*sizeof(double), swap, wkb.z[batch][i]);
+                }
+            }
+        } else {
+            errorType = JPJ_TRANSFORM_EXCEPTION;
+            const int err = proj_errno(pj);
+            error = std::to_string(failures) + " vertices of the WKB geometry can not be transformed.";
+            if (err) error += std::string(" ") + proj_errno_string(err);
+        }
+    } catch (const std::invalid_argument &e) {
+        errorType = JPJ_ILLEGAL_ARGUMENT_EXCEPTION;
+        error = e.what();
+    } catch (const std::exception &e) {
+        errorType = JPJ_RUNTIME_EXCEPTION;
+        error = e.what();
+    }
+    if (!buffer) {
+        env->ReleasePrimitiveArrayCritical(array, data, errorType ? JNI_ABORT : 0);
+    }
+    if (errorType) {
+        jclass c = env->FindClass(errorType);
+        if (c) env->ThrowNew(c, error.c_str());
+        return 0;
+    }
+    const size_t numVertices = wkb.offsets[0].size() + wkb.offsets[1].size();
+    return (static_cast<jlong>(numVertices) << 32) | static_cast<jlong>(wkb.position);
+}
+
+
 /**
  * Creates the inverse of the wrapped operation.
  *
@@ -2662,6 +3770,28 @@ JNIEXPORT jobject JNICALL Java_org_kortforsyningen_proj_SharedPointer_inverse(JN
 }
 
 
+/**
+ * Creates the inverse of the wrapped operation and returns the address of its shared pointer
+ * without creating a Java wrapper. The caller is responsible for wrapping that address in a
+ * Java object which will release the shared pointer when no longer used.
+ *
+ * @param  env         The JNI environment.
+ * @param  operation   The Java object wrapping the PROJ operation to inverse.
+ * @return address of the inverse operation, or 0 if out of memory or if an exception is thrown.
+ */
+JNIEXPORT jlong JNICALL Java_org_kortforsyningen_proj_SharedPointer_inversePointer(JNIEnv *env, jobject operation) {
+    try {
+        CoordinateOperationNNPtr cop = get_shared_object<CoordinateOperation>(env, operation);
+        cop = cop->inverse();
+        BaseObjectPtr ptr = cop.as_nullable();
+        return wrap_shared_ptr<BaseObject>(ptr);
+    } catch (const std::exception &e) {
+        rethrow_as_java_exception(env, JPJ_NON_INVERTIBLE_EXCEPTION, e);
+    }
+    return 0;
+}
+
+
 /**
  * Creates an object with axis order such as the east direction is first and north direction is second,
  * if possible.
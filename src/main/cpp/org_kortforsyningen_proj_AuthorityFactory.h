@@ -33,10 +33,10 @@ JNIEXPORT jobject JNICALL Java_org_kortforsyningen_proj_AuthorityFactory_createG
 
 /*
  * Class:     org_kortforsyningen_proj_AuthorityFactory
- * Method:    createOperation
- * Signature: (Lorg/kortforsyningen/proj/NativeResource;Lorg/kortforsyningen/proj/NativeResource;DDDDDIIIIZ)Lorg/kortforsyningen/proj/Operation;
+ * Method:    createOperations
+ * Signature: (Lorg/kortforsyningen/proj/NativeResource;Lorg/kortforsyningen/proj/NativeResource;DDDDDIIIIZ)[Lorg/kortforsyningen/proj/Operation;
  */
-JNIEXPORT jobject JNICALL Java_org_kortforsyningen_proj_AuthorityFactory_createOperation
+JNIEXPORT jobjectArray JNICALL Java_org_kortforsyningen_proj_AuthorityFactory_createOperations
   (JNIEnv *, jobject, jobject, jobject, jdouble, jdouble, jdouble, jdouble, jdouble, jint, jint, jint, jint, jboolean);
 
 /*
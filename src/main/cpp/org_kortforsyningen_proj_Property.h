@@ -117,6 +117,20 @@ extern "C" {
 #define org_kortforsyningen_proj_Property_IVF_DEFINITIVE 602L
 #undef org_kortforsyningen_proj_Property_PARAMETER_BOOL
 #define org_kortforsyningen_proj_Property_PARAMETER_BOOL 603L
+#undef org_kortforsyningen_proj_Property_SNAPSHOT_NAME
+#define org_kortforsyningen_proj_Property_SNAPSHOT_NAME 0L
+#undef org_kortforsyningen_proj_Property_SNAPSHOT_IDENTIFIERS
+#define org_kortforsyningen_proj_Property_SNAPSHOT_IDENTIFIERS 1L
+#undef org_kortforsyningen_proj_Property_SNAPSHOT_DOMAIN
+#define org_kortforsyningen_proj_Property_SNAPSHOT_DOMAIN 2L
+#undef org_kortforsyningen_proj_Property_SNAPSHOT_AXES
+#define org_kortforsyningen_proj_Property_SNAPSHOT_AXES 3L
+#undef org_kortforsyningen_proj_Property_SNAPSHOT_AXIS_DIRECTIONS
+#define org_kortforsyningen_proj_Property_SNAPSHOT_AXIS_DIRECTIONS 4L
+#undef org_kortforsyningen_proj_Property_SNAPSHOT_AXIS_UNITS
+#define org_kortforsyningen_proj_Property_SNAPSHOT_AXIS_UNITS 5L
+#undef org_kortforsyningen_proj_Property_SNAPSHOT_LENGTH
+#define org_kortforsyningen_proj_Property_SNAPSHOT_LENGTH 6L
 #ifdef __cplusplus
 }
 #endif
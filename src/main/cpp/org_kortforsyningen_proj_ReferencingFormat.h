@@ -7,6 +7,8 @@
 #ifdef __cplusplus
 extern "C" {
 #endif
+#undef org_kortforsyningen_proj_ReferencingFormat_INITIAL_CAPACITY
+#define org_kortforsyningen_proj_ReferencingFormat_INITIAL_CAPACITY 8192L
 /*
  * Class:     org_kortforsyningen_proj_ReferencingFormat
  * Method:    parse
@@ -15,6 +17,14 @@ extern "C" {
 JNIEXPORT jobject JNICALL Java_org_kortforsyningen_proj_ReferencingFormat_parse
   (JNIEnv *, jobject, jstring, jobject, jint, jboolean);
 
+/*
+ * Class:     org_kortforsyningen_proj_ReferencingFormat
+ * Method:    parseAll
+ * Signature: ([Ljava/lang/String;Lorg/kortforsyningen/proj/Context;IZ[Ljava/lang/Object;[Ljava/lang/String;[[Ljava/lang/String;)V
+ */
+JNIEXPORT void JNICALL Java_org_kortforsyningen_proj_ReferencingFormat_parseAll
+  (JNIEnv *, jobject, jobjectArray, jobject, jint, jboolean, jobjectArray, jobjectArray, jobjectArray);
+
 #ifdef __cplusplus
 }
 #endif
@@ -71,6 +71,14 @@ JNIEXPORT jint JNICALL Java_org_kortforsyningen_proj_SharedPointer_getVectorSize
 JNIEXPORT jobject JNICALL Java_org_kortforsyningen_proj_SharedPointer_getVectorElement
   (JNIEnv *, jobject, jshort, jint);
 
+/*
+ * Class:     org_kortforsyningen_proj_SharedPointer
+ * Method:    getSnapshot
+ * Signature: (Z)[Ljava/lang/Object;
+ */
+JNIEXPORT jobjectArray JNICALL Java_org_kortforsyningen_proj_SharedPointer_getSnapshot
+  (JNIEnv *, jobject, jboolean);
+
 /*
  * Class:     org_kortforsyningen_proj_SharedPointer
  * Method:    searchVectorElement
@@ -87,6 +95,14 @@ JNIEXPORT jobject JNICALL Java_org_kortforsyningen_proj_SharedPointer_searchVect
 JNIEXPORT jobject JNICALL Java_org_kortforsyningen_proj_SharedPointer_inverse
   (JNIEnv *, jobject);
 
+/*
+ * Class:     org_kortforsyningen_proj_SharedPointer
+ * Method:    inversePointer
+ * Signature: ()J
+ */
+JNIEXPORT jlong JNICALL Java_org_kortforsyningen_proj_SharedPointer_inversePointer
+  (JNIEnv *, jobject);
+
 /*
  * Class:     org_kortforsyningen_proj_SharedPointer
  * Method:    normalizeForVisualization
@@ -103,6 +119,14 @@ JNIEXPORT jobject JNICALL Java_org_kortforsyningen_proj_SharedPointer_normalizeF
 JNIEXPORT jstring JNICALL Java_org_kortforsyningen_proj_SharedPointer_format
   (JNIEnv *, jobject, jobject, jint, jint, jboolean, jboolean);
 
+/*
+ * Class:     org_kortforsyningen_proj_SharedPointer
+ * Method:    formatTo
+ * Signature: (Lorg/kortforsyningen/proj/Context;IIZZLorg/kortforsyningen/proj/ReferencingFormat;)I
+ */
+JNIEXPORT jint JNICALL Java_org_kortforsyningen_proj_SharedPointer_formatTo
+  (JNIEnv *, jobject, jobject, jint, jint, jboolean, jboolean, jobject);
+
 /*
  * Class:     org_kortforsyningen_proj_SharedPointer
  * Method:    isEquivalentTo
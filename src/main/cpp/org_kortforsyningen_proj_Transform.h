@@ -18,10 +18,50 @@ JNIEXPORT void JNICALL Java_org_kortforsyningen_proj_Transform_assign
 /*
  * Class:     org_kortforsyningen_proj_Transform
  * Method:    transform
- * Signature: (I[DII)V
+ * Signature: (I[DIIZ)V
  */
 JNIEXPORT void JNICALL Java_org_kortforsyningen_proj_Transform_transform
-  (JNIEnv *, jobject, jint, jdoubleArray, jint, jint);
+  (JNIEnv *, jobject, jint, jdoubleArray, jint, jint, jboolean);
+
+/*
+ * Class:     org_kortforsyningen_proj_Transform
+ * Method:    derivatives
+ * Signature: (II[DII[DIZ)V
+ */
+JNIEXPORT void JNICALL Java_org_kortforsyningen_proj_Transform_derivatives
+  (JNIEnv *, jobject, jint, jint, jdoubleArray, jint, jint, jdoubleArray, jint, jboolean);
+
+/*
+ * Class:     org_kortforsyningen_proj_Transform
+ * Method:    transformBounds
+ * Signature: (Lorg/kortforsyningen/proj/Context;[DIIDZ)V
+ */
+JNIEXPORT void JNICALL Java_org_kortforsyningen_proj_Transform_transformBounds
+  (JNIEnv *, jobject, jobject, jdoubleArray, jint, jint, jdouble, jboolean);
+
+/*
+ * Class:     org_kortforsyningen_proj_Transform
+ * Method:    transformScaled
+ * Signature: (I[III[DZ)V
+ */
+JNIEXPORT void JNICALL Java_org_kortforsyningen_proj_Transform_transformScaled
+  (JNIEnv *, jobject, jint, jintArray, jint, jint, jdoubleArray, jboolean);
+
+/*
+ * Class:     org_kortforsyningen_proj_Transform
+ * Method:    transformWKB
+ * Signature: (ILjava/nio/ByteBuffer;[BIIZ)J
+ */
+JNIEXPORT jlong JNICALL Java_org_kortforsyningen_proj_Transform_transformWKB
+  (JNIEnv *, jobject, jint, jobject, jbyteArray, jint, jint, jboolean);
+
+/*
+ * Class:     org_kortforsyningen_proj_Transform
+ * Method:    hasInverse
+ * Signature: ()Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_kortforsyningen_proj_Transform_hasInverse
+  (JNIEnv *, jobject);
 
 /*
  * Class:     org_kortforsyningen_proj_Transform
@@ -0,0 +1,384 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import java.util.Map;
+import java.util.HashMap;
+
+
+/**
+ * Pure-Java implementation of PROJ pipelines made only of affine steps.
+ * Many coordinate operations reduce to a no-op, an axis swap or a unit conversion
+ * (for example EPSG:4326 to OGC:CRS84). For those operations, a Java implementation
+ * avoids the cost of acquiring a {@link Context} and a {@link Transform} and of crossing JNI.
+ *
+ * <p>The steps recognized by this class are {@code noop}, {@code axisswap} (with the {@code order}
+ * parameter), {@code unitconvert} (for linear and angular units only) and {@code affine}.
+ * Any other step or parameter causes {@link #parse(String, int)} to return {@code null},
+ * in which case the operation shall be delegated to PROJ.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+final class AffinePipeline {
+    /**
+     * Number of dimensions handled by PROJ: (<var>x</var>, <var>y</var>, <var>z</var>, <var>t</var>).
+     */
+    private static final int MAX_DIMENSION = 4;
+
+    /**
+     * Index of the <var>z</var> and <var>t</var> dimensions.
+     */
+    private static final int Z = 2, T = 3;
+
+    /**
+     * Number of dimensions of the tuples transformed by this pipeline.
+     */
+    private final int dimension;
+
+    /**
+     * The affine transform as a matrix of {@link #dimension} rows and {@code dimension + 1} columns
+     * in row-major order. The last column contains the translation terms.
+     */
+    private final double[] elements;
+
+    /**
+     * Whether this pipeline is the identity transform.
+     */
+    private final boolean identity;
+
+    /**
+     * Creates a new pipeline for the given matrix.
+     *
+     * @param  dimension  number of dimensions of the tuples to transform.
+     * @param  elements   the matrix elements, in row-major order.
+     */
+    private AffinePipeline(final int dimension, final double[] elements) {
+        this.dimension = dimension;
+        this.elements  = elements;
+        boolean identity = true;
+        for (int i=0; i<elements.length; i++) {
+            if (elements[i] != ((i % (dimension + 2)) == 0 ? 1 : 0)) {
+                identity = false;
+                break;
+            }
+        }
+        this.identity = identity;
+    }
+
+    /**
+     * Returns the pipeline for the given PROJ string, or {@code null} if the given string
+     * contains any step or parameter that is not recognized by this class.
+     *
+     * @param  definition  the PROJ string of the coordinate operation.
+     * @param  dimension   number of dimensions of the tuples given to {@link #transform(double[], int, int)}.
+     * @return the pipeline, or {@code null} if the operation can not be executed by this class.
+     */
+    static AffinePipeline parse(final String definition, final int dimension) {
+        if (dimension <= 0 || dimension > MAX_DIMENSION) {
+            return null;
+        }
+        final String[] tokens = definition.trim().split("\\s+");
+        int start = 0;
+        if (tokens.length != 0 && tokens[0].equals("+proj=pipeline")) {
+            /*
+             * Global pipeline options (any token before the first "+step") are not supported.
+             */
+            if (tokens.length < 2 || !tokens[1].equals("+step")) {
+                return null;
+            }
+            start = 1;
+        }
+        double[][] matrix = identity();
+        final Map<String,String> step = new HashMap<>();
+        for (int i=start; i <= tokens.length; i++) {
+            final String token = (i < tokens.length) ? tokens[i] : null;
+            if (token == null || token.equals("+step")) {
+                if (!step.isEmpty()) {
+                    matrix = concatenate(step, matrix);
+                    if (matrix == null) {
+                        return null;
+                    }
+                    step.clear();
+                }
+            } else {
+                if (!token.startsWith("+")) {
+                    return null;
+                }
+                final int s = token.indexOf('=');
+                final String key   = (s >= 0) ? token.substring(1, s) : token.substring(1);
+                final String value = (s >= 0) ? token.substring(s + 1) : "";
+                if (step.put(key, value) != null) {
+                    return null;                        // Duplicated parameter.
+                }
+            }
+        }
+        /*
+         * Reduce the 4-dimensional matrix to the number of dimensions of the tuples to transform.
+         * The tuples given to PROJ have missing z values replaced by 0, which is harmless, but
+         * missing t values replaced by infinity. Consequently we can not use the Java path if
+         * a remaining dimension depends on a missing time value.
+         */
+        final int numCol = dimension + 1;
+        final double[] elements = new double[dimension * numCol];
+        for (int i=0; i<dimension; i++) {
+            final double[] row = matrix[i];
+            if (dimension <= T && row[T] != 0) {
+                return null;
+            }
+            System.arraycopy(row, 0, elements, i * numCol, dimension);
+            elements[i * numCol + dimension] = row[MAX_DIMENSION];
+        }
+        return new AffinePipeline(dimension, elements);
+    }
+
+    /**
+     * Returns a new identity matrix of {@value #MAX_DIMENSION} rows and {@code MAX_DIMENSION + 1} columns.
+     *
+     * @return a new identity matrix.
+     */
+    private static double[][] identity() {
+        final double[][] matrix = new double[MAX_DIMENSION][MAX_DIMENSION + 1];
+        for (int i=0; i<MAX_DIMENSION; i++) {
+            matrix[i][i] = 1;
+        }
+        return matrix;
+    }
+
+    /**
+     * Returns the concatenation of the given matrix followed by the given step.
+     * Recognized parameters are removed from the {@code step} map.
+     *
+     * @param  step    parameters of the step to apply after the given matrix.
+     * @param  matrix  the matrix of all previous steps.
+     * @return the concatenated matrix, or {@code null} if the step is not recognized.
+     */
+    private static double[][] concatenate(final Map<String,String> step, final double[][] matrix) {
+        final boolean inverse = (step.remove("inv") != null);
+        final String  method  = step.remove("proj");
+        if (method == null) {
+            return null;
+        }
+        final double[][] s = identity();
+        try {
+            switch (method) {
+                case "noop": {
+                    break;
+                }
+                case "axisswap": {
+                    final String order = step.remove("order");
+                    if (order == null) {
+                        return null;
+                    }
+                    final String[] axes = order.split(",");
+                    if (axes.length > MAX_DIMENSION) {
+                        return null;
+                    }
+                    final boolean[] used = new boolean[axes.length];
+                    for (int i=0; i<axes.length; i++) {
+                        s[i][i] = 0;
+                    }
+                    for (int i=0; i<axes.length; i++) {
+                        final int code = Integer.parseInt(axes[i].trim());
+                        final int axis = Math.abs(code) - 1;
+                        if (axis < 0 || axis >= axes.length || used[axis]) {
+                            return null;
+                        }
+                        used[axis] = true;
+                        if (inverse) {
+                            s[axis][i] = Math.signum(code);
+                        } else {
+                            s[i][axis] = Math.signum(code);
+                        }
+                    }
+                    break;
+                }
+                case "unitconvert": {
+                    final double xy = unitFactor(step.remove("xy_in"), step.remove("xy_out"), true,  inverse);
+                    final double z  = unitFactor(step.remove("z_in"),  step.remove("z_out"),  false, inverse);
+                    if (Double.isNaN(xy) || Double.isNaN(z)) {
+                        return null;
+                    }
+                    s[0][0] = xy;
+                    s[1][1] = xy;
+                    s[Z][Z] = z;
+                    break;
+                }
+                case "affine": {
+                    if (inverse) {
+                        return null;
+                    }
+                    final String[] offsets = {"xoff", "yoff", "zoff", "toff"};
+                    for (int i=0; i<MAX_DIMENSION; i++) {
+                        s[i][MAX_DIMENSION] = parameter(step, offsets[i], 0);
+                    }
+                    for (int i=0; i<=Z; i++) {
+                        for (int j=0; j<=Z; j++) {
+                            s[i][j] = parameter(step, "s" + (i+1) + (j+1), (i == j) ? 1 : 0);
+                        }
+                    }
+                    s[T][T] = parameter(step, "tscale", 1);
+                    break;
+                }
+                default: {
+                    return null;
+                }
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (!step.isEmpty()) {
+            return null;                                // Unrecognized parameter.
+        }
+        final double[][] result = new double[MAX_DIMENSION][MAX_DIMENSION + 1];
+        for (int i=0; i<MAX_DIMENSION; i++) {
+            for (int j=0; j <= MAX_DIMENSION; j++) {
+                double sum = (j == MAX_DIMENSION) ? s[i][j] : 0;
+                for (int k=0; k<MAX_DIMENSION; k++) {
+                    sum += s[i][k] * matrix[k][j];
+                }
+                result[i][j] = sum;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes and returns the numerical value of the given parameter.
+     *
+     * @param  step          parameters of the step.
+     * @param  key           name of the parameter to remove.
+     * @param  defaultValue  value to return if the parameter is absent.
+     * @return the parameter value.
+     * @throws NumberFormatException if the parameter value is not a number.
+     */
+    private static double parameter(final Map<String,String> step, final String key, final double defaultValue) {
+        final String value = step.remove(key);
+        return (value != null) ? Double.parseDouble(value) : defaultValue;
+    }
+
+    /**
+     * Returns the factor for converting values from the source unit to the target unit.
+     * If both units are absent, returns 1. If only one unit is present, or if the units
+     * are not recognized or not of the same kind, returns NaN.
+     *
+     * @param  source   the {@code xy_in} or {@code z_in} parameter value, or {@code null}.
+     * @param  target   the {@code xy_out} or {@code z_out} parameter value, or {@code null}.
+     * @param  angular  whether angular units are allowed.
+     * @param  inverse  whether the step is applied in the inverse direction.
+     * @return conversion factor, or NaN if unknown.
+     */
+    private static double unitFactor(final String source, final String target, final boolean angular, final boolean inverse) {
+        if (source == null && target == null) {
+            return 1;
+        }
+        if (source == null || target == null) {
+            return Double.NaN;
+        }
+        double in  = linearUnit(source);
+        double out = linearUnit(target);
+        if (Double.isNaN(in) && Double.isNaN(out) && angular) {
+            in  = angularUnit(source);
+            out = angularUnit(target);
+        }
+        return inverse ? out / in : in / out;          // NaN if any unit is unknown or if kinds differ.
+    }
+
+    /**
+     * Returns the factor for converting values in the given linear unit to metres,
+     * or NaN if the given unit is not a recognized linear unit.
+     *
+     * @param  unit  PROJ name of the unit, or a numerical factor to metres.
+     * @return factor to metres, or NaN if unknown.
+     */
+    private static double linearUnit(final String unit) {
+        switch (unit) {
+            case "m":     return 1;
+            case "km":    return 1000;
+            case "dm":    return 0.1;
+            case "cm":    return 0.01;
+            case "mm":    return 0.001;
+            case "ft":    return 0.3048;
+            case "us-ft": return 1200.0 / 3937;
+            case "yd":    return 0.9144;
+            case "mi":    return 1609.344;
+        }
+        if (!unit.isEmpty() && (Character.isDigit(unit.charAt(0)) || unit.charAt(0) == '.')) {
+            try {
+                return Double.parseDouble(unit);
+            } catch (NumberFormatException e) {
+                // Fall through.
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Returns the factor for converting values in the given angular unit to radians,
+     * or NaN if the given unit is not a recognized angular unit.
+     *
+     * @param  unit  PROJ name of the unit.
+     * @return factor to radians, or NaN if unknown.
+     */
+    private static double angularUnit(final String unit) {
+        switch (unit) {
+            case "rad":  return 1;
+            case "deg":  return Math.PI / 180;
+            case "grad": return Math.PI / 200;
+            default:     return Double.NaN;
+        }
+    }
+
+    /**
+     * Transforms in-place the coordinates in the given array. The array shall contain tuples of
+     * {@link #dimension} coordinate values, which is {@code max(srcDim, dstDim)} of the operation.
+     *
+     * @param  coordinates  the coordinates to transform.
+     * @param  offset       offset of the first coordinate in the given array.
+     * @param  numPts       number of points to transform.
+     */
+    void transform(final double[] coordinates, int offset, final int numPts) {
+        if (identity) {
+            return;
+        }
+        final int dimension = this.dimension;
+        final double[] elements = this.elements;
+        final double[] tuple = new double[dimension];
+        for (int p=0; p<numPts; p++) {
+            System.arraycopy(coordinates, offset, tuple, 0, dimension);
+            int k = 0;
+            for (int i=0; i<dimension; i++) {
+                double sum = elements[k + dimension];
+                for (int j=0; j<dimension; j++) {
+                    final double c = elements[k + j];
+                    if (c != 0) {
+                        sum += c * tuple[j];        // Skip zeros for avoiding NaN from 0 × ∞.
+                    }
+                }
+                coordinates[offset + i] = sum;
+                k += dimension + 1;
+            }
+            offset += dimension;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+
+/**
+ * Loops converting contiguous sequences of coordinate values between {@code float} and {@code double}.
+ * This implementation uses plain counted loops, which the JIT compiler may auto-vectorize.
+ * A Java 17 implementation of this class is provided in the {@code META-INF/versions/17}
+ * directory of the JAR file, where it uses the {@code jdk.incubator.vector} module if that
+ * module has been added to the boot layer (for example with {@code --add-modules jdk.incubator.vector}).
+ *
+ * <p>Only the case where source and target points have the same number of dimensions is handled here.
+ * Copies between arrays of different dimensions are strided and stay in {@link Operation}.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+class ArrayKernels {
+    /**
+     * The implementation to use, selected when this class is initialized.
+     */
+    static final ArrayKernels INSTANCE = new ArrayKernels();
+
+    /**
+     * Creates a new instance using plain loops.
+     * Should be invoked only for {@link #INSTANCE} or for benchmarking.
+     */
+    ArrayKernels() {
+    }
+
+    /**
+     * Returns whether this implementation uses the Vector API.
+     *
+     * @return whether the Vector API is used.
+     */
+    boolean isVectorized() {
+        return false;
+    }
+
+    /**
+     * Copies a sequence of float values into an array of double values.
+     *
+     * @param srcPts  the array of source coordinates.
+     * @param srcOff  index of the first coordinate to read in the source array.
+     * @param dstPts  the array where to write the coordinates.
+     * @param dstOff  index of the first coordinate to write in the destination array.
+     * @param length  number of coordinate values to copy.
+     */
+    void floatsToDoubles(final float[] srcPts, final int srcOff, final double[] dstPts, final int dstOff, final int length) {
+        for (int i=0; i<length; i++) {
+            dstPts[dstOff + i] = srcPts[srcOff + i];
+        }
+    }
+
+    /**
+     * Copies a sequence of double values into an array of float values.
+     *
+     * @param srcPts  the array of source coordinates.
+     * @param srcOff  index of the first coordinate to read in the source array.
+     * @param dstPts  the array where to write the coordinates.
+     * @param dstOff  index of the first coordinate to write in the destination array.
+     * @param length  number of coordinate values to copy.
+     */
+    void doublesToFloats(final double[] srcPts, final int srcOff, final float[] dstPts, final int dstOff, final int length) {
+        for (int i=0; i<length; i++) {
+            dstPts[dstOff + i] = (float) srcPts[srcOff + i];
+        }
+    }
+}
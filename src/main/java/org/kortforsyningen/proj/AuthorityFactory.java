@@ -120,12 +120,10 @@ final class AuthorityFactory extends NativeResource {
      * @param  gridAvailabilityUse          how grid availability is used.
      * @param  allowUseIntermediateCRS      whether an intermediate pivot CRS can be used for researching coordinate operations.
      * @param  discardSuperseded            whether transformations that are superseded (but not deprecated) should be discarded.
-     * @return the coordinate operations.
+     * @return the coordinate operations that PROJ can instantiate, most relevant first. May be empty.
      * @throws FactoryException if an error occurred while searching the coordinate operations.
-     *
-     * @todo add missing parameters, returns a list.
      */
-    native Operation createOperation(NativeResource sourceCRS, NativeResource targetCRS,
+    native Operation[] createOperations(NativeResource sourceCRS, NativeResource targetCRS,
             double westBoundLongitude, double eastBoundLongitude,
             double southBoundLatitude, double northBoundLatitude,
             double desiredAccuracy,
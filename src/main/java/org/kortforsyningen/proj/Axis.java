@@ -36,6 +36,28 @@ import org.opengis.referencing.cs.RangeMeaning;
  * @since   1.0
  */
 final class Axis extends IdentifiableObject implements CoordinateSystemAxis {
+    /**
+     * The axis direction, or {@code null} if not yet fetched.
+     * No synchronization is needed since fetching this value twice is harmless.
+     *
+     * @see #getDirection()
+     */
+    private transient AxisDirection direction;
+
+    /**
+     * Value of {@link #unit} when PROJ has been queried but the axis has no unit of measurement.
+     * This sentinel avoids querying PROJ again on each call to {@link #getUnit()}.
+     */
+    private static final Object NO_UNIT = new Object();
+
+    /**
+     * The axis unit of measurement, {@link #NO_UNIT} if none, or {@code null} if not yet fetched.
+     * No synchronization is needed since fetching this value twice is harmless.
+     *
+     * @see #getUnit()
+     */
+    private transient Object unit;
+
     /**
      * Creates a new wrapper for the given {@code osgeo::proj::cs::CoordinateSystemAxis}.
      *
@@ -65,8 +87,11 @@ final class Axis extends IdentifiableObject implements CoordinateSystemAxis {
      */
     @Override
     public AxisDirection getDirection() {
-        final String dir = impl.getStringProperty(Property.DIRECTION);
-        return search(AxisDirection.class, dir);
+        AxisDirection value = direction;
+        if (value == null) {
+            direction = value = search(AxisDirection.class, impl.getStringProperty(Property.DIRECTION));
+        }
+        return value;
     }
 
     /**
@@ -98,7 +123,24 @@ final class Axis extends IdentifiableObject implements CoordinateSystemAxis {
      */
     @Override
     public Unit<?> getUnit() {
-        return (Unit<?>) impl.getObjectProperty(Property.AXIS_UNIT);
+        Object value = unit;
+        if (value == null) {
+            value = impl.getObjectProperty(Property.AXIS_UNIT);
+            unit  = (value != null) ? value : NO_UNIT;
+        }
+        return (value != NO_UNIT) ? (Unit<?>) value : null;
+    }
+
+    /**
+     * Stores the direction and unit fetched by {@link IdentifiableObject#loadSnapshot(boolean)}
+     * on the enclosing coordinate system or coordinate reference system.
+     *
+     * @param  dir  name of the axis direction.
+     * @param  uom  the axis unit of measurement.
+     */
+    final void setCachedValues(final String dir, final Unit<?> uom) {
+        direction = search(AxisDirection.class, dir);
+        unit = (uom != null) ? uom : NO_UNIT;
     }
 
     /**
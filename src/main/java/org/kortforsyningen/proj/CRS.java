@@ -70,6 +70,22 @@ class CRS extends IdentifiableObject implements CoordinateReferenceSystem {
         }
     }
 
+    /**
+     * The number of dimensions of this CRS, or 0 if not yet computed.
+     * No synchronization is needed since computing this value twice is harmless.
+     *
+     * @see #getDimension()
+     */
+    private transient int dimension;
+
+    /**
+     * All axes of this CRS (including all components of a compound CRS),
+     * fetched in a single call when first needed. This array shall not be modified.
+     *
+     * @see #getAxis(int)
+     */
+    private transient Axis[] axes;
+
     /**
      * Creates a new wrapper for the given {@code osgeo::proj::crs::CRS}.
      *
@@ -81,11 +97,44 @@ class CRS extends IdentifiableObject implements CoordinateReferenceSystem {
 
     /**
      * Returns the number of dimensions of this CRS.
+     * This value is computed by PROJ on first invocation, then cached.
      *
      * @return the number of dimensions of this CRS.
      */
     final int getDimension() {
-        return CompoundCS.getDimension(impl);
+        int dim = dimension;
+        if (dim == 0) {
+            dimension = dim = CompoundCS.getDimension(impl);
+        }
+        return dim;
+    }
+
+    /**
+     * Returns the axis at the given dimension, including in the components of a compound CRS.
+     * This method uses the axes fetched by {@link #loadSnapshot(boolean)}.
+     *
+     * @param  dimension  the zero based index of axis.
+     * @return the axis at the specified dimension.
+     * @throws IndexOutOfBoundsException if {@code dimension} is out of bounds.
+     */
+    final Axis getAxis(final int dimension) {
+        loadSnapshot(true);
+        final Axis[] cached = axes;
+        if (cached != null) {
+            return cached[dimension];
+        }
+        return (Axis) CompoundCS.getAxis(impl, dimension);
+    }
+
+    /**
+     * Invoked by {@link #loadSnapshot(boolean)} for caching the axes of this CRS.
+     *
+     * @param  axes  all axes of this CRS.
+     */
+    @Override
+    final void setAxes(final Axis[] axes) {
+        this.axes = axes;
+        dimension = axes.length;
     }
 
     /**
@@ -48,14 +48,35 @@ class CS extends IdentifiableObject implements CoordinateSystem {
         super(ptr);
     }
 
+    /**
+     * The number of axes, or 0 if not yet computed.
+     * No synchronization is needed since computing this value twice is harmless.
+     *
+     * @see #getDimension()
+     */
+    private transient int dimension;
+
+    /**
+     * All axes of this coordinate system, fetched in a single call when first needed.
+     * This array shall not be modified.
+     *
+     * @see #getAxis(int)
+     */
+    private transient Axis[] axes;
+
     /**
      * Returns the dimension of the coordinate system.
+     * This value is fetched from PROJ on first invocation, then cached.
      *
      * @return the dimension of the coordinate system.
      */
     @Override
     public int getDimension() {
-        return impl.getVectorSize(Property.AXIS);
+        int dim = dimension;
+        if (dim == 0) {
+            dimension = dim = impl.getVectorSize(Property.AXIS);
+        }
+        return dim;
     }
 
     /**
@@ -68,9 +89,25 @@ class CS extends IdentifiableObject implements CoordinateSystem {
     @Override
     @SuppressWarnings("OverlyStrongTypeCast")       // Casting to final class is easier for the JVM.
     public CoordinateSystemAxis getAxis(int dimension) throws IndexOutOfBoundsException {
+        loadSnapshot(true);
+        final Axis[] cached = axes;
+        if (cached != null) {
+            return cached[dimension];
+        }
         return (Axis) impl.getVectorElement(Property.AXIS, dimension);
     }
 
+    /**
+     * Invoked by {@link #loadSnapshot(boolean)} for caching the axes of this coordinate system.
+     *
+     * @param  axes  all axes of this coordinate system.
+     */
+    @Override
+    final void setAxes(final Axis[] axes) {
+        this.axes = axes;
+        dimension = axes.length;
+    }
+
     /**
      * A coordinate system specialization. No new properties compared to parent CS.
      */
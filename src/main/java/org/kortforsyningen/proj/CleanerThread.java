@@ -31,7 +31,8 @@ import java.util.logging.Logger;
  * A thread processing all {@link Reference} instances enqueued in a {@link ReferenceQueue}.
  * This is the central place where every soft references produced by the PROJ-JNI library
  * are consumed. This thread will invoke the {@link SharedPointer#release()} method for
- * each references enqueued by the garbage collector.
+ * each references enqueued by the garbage collector, or release the resources of
+ * {@link PointTransformer}s that have not been closed.
  *
  * @author  Martin Desruisseaux (Geomatys)
  * @version 1.0
@@ -91,15 +92,27 @@ final class CleanerThread extends Thread {
                  * may be in the middle of a shutdown. Continue anyway as long as we didn't
                  * received the kill event.
                  */
-                final SharedObjects.Entry ref = (SharedObjects.Entry) queue.remove();
-                if (ref != null) {
+                final Reference<?> ref = queue.remove();
+                if (ref instanceof PointTransformer.Cleaner) {
+                    /*
+                     * A PointTransformer has been garbage collected without having been closed.
+                     * Return its PJ and context to the pools.
+                     */
+                    ((PointTransformer.Cleaner) ref).release();
+                } else if (ref != null) {
                     /*
                      * If the reference does not implement the SharedObjects.Entry class, we want
                      * the ClassCastException to be logged in the "catch" block since it would be
                      * a programming error that we want to know about.
                      */
-                    ref.cleaner.release();
-                    SharedObjects.CACHE.remove(ref);
+                    final SharedObjects.Entry entry = (SharedObjects.Entry) ref;
+                    final Object event = Events.beginDisposal();
+                    try {
+                        entry.cleaner.release();
+                        SharedObjects.CACHE.remove(entry);
+                    } finally {
+                        Events.end(event);
+                    }
                 }
             } catch (Throwable exception) {
                 Logger.getLogger(NativeResource.LOGGER_NAME).log(Level.WARNING, exception.getLocalizedMessage(), exception);
@@ -114,7 +114,7 @@ final class CompoundCS implements CoordinateSystem {
      */
     @Override
     public int getDimension() {
-        return getDimension(crs.impl);
+        return crs.getDimension();
     }
 
     /**
@@ -133,9 +133,8 @@ final class CompoundCS implements CoordinateSystem {
      * @throws IndexOutOfBoundsException if {@code dimension} is out of bounds.
      */
     @Override
-    @SuppressWarnings("OverlyStrongTypeCast")       // Casting to final class is easier for the JVM.
     public CoordinateSystemAxis getAxis(int dimension) {
-        return (Axis) getAxis(crs.impl, dimension);
+        return crs.getAxis(dimension);
     }
 
     /**
@@ -117,8 +117,16 @@ final class Context extends NativeResource implements AutoCloseable {
      * @return  wrapper for the {@code PJ_CONTEXT} structure, together with resources that depends on it.
      */
     static Context acquire() {
-        final Context c = CONTEXTS.pollLast();
-        return (c != null) ? c : new Context();
+        Context c = CONTEXTS.pollLast();
+        if (c == null) {
+            final Object event = Events.beginContextCreation();
+            try {
+                c = new Context();
+            } finally {
+                Events.end(event);
+            }
+        }
+        return c;
     }
 
     /**
@@ -225,15 +233,20 @@ final class Context extends NativeResource implements AutoCloseable {
      * destroyed last.
      */
     private void destroy() {
-        factories.values().forEach(AuthorityFactory::release);
-        /*
-         * PJ_CONTEXT is not a pointer managed by C++ std::shared_ptr library, so we need to be
-         * careful here. We destroy PJ_CONTEXT here on the assumption that above lines disposed
-         * all objects that were using it. If an exception has been thrown before we reach this
-         * line, we will have a memory leak. But the alternative (destroy PJ_CONTEXT in finally
-         * block) may be worst since it could destroy a resource still used by live C++ objects.
-         */
-        destroyPJ();
+        final Object event = Events.beginContextDestruction();
+        try {
+            factories.values().forEach(AuthorityFactory::release);
+            /*
+             * PJ_CONTEXT is not a pointer managed by C++ std::shared_ptr library, so we need to be
+             * careful here. We destroy PJ_CONTEXT here on the assumption that above lines disposed
+             * all objects that were using it. If an exception has been thrown before we reach this
+             * line, we will have a memory leak. But the alternative (destroy PJ_CONTEXT in finally
+             * block) may be worst since it could destroy a resource still used by live C++ objects.
+             */
+            destroyPJ();
+        } finally {
+            Events.end(event);
+        }
     }
 
     /**
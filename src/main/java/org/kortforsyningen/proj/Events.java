@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+
+/**
+ * Hooks for recording Java Flight Recorder (JFR) events about native operations.
+ * This implementation does nothing, since JFR is not available in the Java 8 API.
+ * A Java 11 implementation of this class is provided in the {@code META-INF/versions/11}
+ * directory of the JAR file, where it emits events in the "PROJ" category.
+ *
+ * <p>All {@code begin…()} methods return an object to give to the corresponding
+ * {@code end…(…)} method, or {@code null} if the event is not recorded.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+final class Events {
+    /**
+     * Do not allow instantiation of this class.
+     */
+    private Events() {
+    }
+
+    /**
+     * Invoked before searching the coordinate operations between two CRS.
+     *
+     * @return the event to give to {@link #endOperationSearch endOperationSearch(…)}, or {@code null}.
+     */
+    static Object beginOperationSearch() {
+        return null;
+    }
+
+    /**
+     * Invoked after the search for coordinate operations between two CRS.
+     *
+     * @param  event      the value returned by {@link #beginOperationSearch()}.
+     * @param  sourceCRS  the source CRS of the search.
+     * @param  targetCRS  the target CRS of the search.
+     * @param  count      number of operations found, or -1 if the search failed.
+     */
+    static void endOperationSearch(Object event, IdentifiableObject sourceCRS, IdentifiableObject targetCRS, int count) {
+    }
+
+    /**
+     * Invoked before the creation of a {@code PJ_CONTEXT}.
+     *
+     * @return the event to give to {@link #end(Object)}, or {@code null}.
+     */
+    static Object beginContextCreation() {
+        return null;
+    }
+
+    /**
+     * Invoked before the destruction of a {@code PJ_CONTEXT}.
+     *
+     * @return the event to give to {@link #end(Object)}, or {@code null}.
+     */
+    static Object beginContextDestruction() {
+        return null;
+    }
+
+    /**
+     * Invoked by native code before opening the PROJ database for a {@code PJ_CONTEXT}.
+     *
+     * @return the event to give to {@link #end(Object)}, or {@code null}.
+     */
+    static Object beginDatabaseOpening() {
+        return null;
+    }
+
+    /**
+     * Invoked before the creation of a {@code PJ} object for a coordinate operation.
+     *
+     * @return the event to give to {@link #endTransformCreation endTransformCreation(…)}, or {@code null}.
+     */
+    static Object beginTransformCreation() {
+        return null;
+    }
+
+    /**
+     * Invoked after the creation of a {@code PJ} object for a coordinate operation.
+     *
+     * @param  event      the value returned by {@link #beginTransformCreation()}.
+     * @param  operation  the operation for which a {@code PJ} object has been created.
+     */
+    static void endTransformCreation(Object event, IdentifiableObject operation) {
+    }
+
+    /**
+     * Invoked before transforming a batch of points.
+     *
+     * @return the event to give to {@link #endTransform endTransform(…)}, or {@code null}.
+     */
+    static Object beginTransform() {
+        return null;
+    }
+
+    /**
+     * Invoked after transforming a batch of points, successfully or not.
+     *
+     * @param  event      the value returned by {@link #beginTransform()}.
+     * @param  operation  the operation used for transforming the points.
+     * @param  numPts     number of points to transform.
+     * @param  dimension  number of dimensions of the points.
+     * @param  failed     whether the transformation failed.
+     */
+    static void endTransform(Object event, IdentifiableObject operation, long numPts, int dimension, boolean failed) {
+    }
+
+    /**
+     * Invoked by {@link CleanerThread} before disposing the native resources of a garbage-collected object.
+     *
+     * @return the event to give to {@link #end(Object)}, or {@code null}.
+     */
+    static Object beginDisposal() {
+        return null;
+    }
+
+    /**
+     * Invoked after an event which has no property other than its duration.
+     *
+     * @param  event  the value returned by a {@code begin…()} method.
+     */
+    static void end(Object event) {
+    }
+}
@@ -24,13 +24,12 @@ package org.kortforsyningen.proj;
 import java.time.Instant;
 import java.util.Set;
 import java.util.Collection;
-import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.AbstractList;
 import java.util.Formattable;
 import java.util.FormattableFlags;
 import java.util.Formatter;
-import java.util.Iterator;
-import java.util.NoSuchElementException;
 import java.util.Date;
 import javax.measure.Unit;
 import javax.measure.Quantity;
@@ -58,6 +57,49 @@ abstract class IdentifiableObject implements Formattable {
      */
     final SharedPointer impl;
 
+    /**
+     * The primary name, fetched from PROJ when first needed.
+     * PROJ objects are immutable, so this value can be cached.
+     *
+     * @see #getName()
+     * @see #loadSnapshot(boolean)
+     */
+    private transient ReferenceIdentifier name;
+
+    /**
+     * The identifiers, copied from PROJ when first needed.
+     * This is an unmodifiable set.
+     *
+     * @see #getIdentifiers()
+     * @see #loadSnapshot(boolean)
+     */
+    private transient Set<ReferenceIdentifier> identifiers;
+
+    /**
+     * The domain of validity, fetched from PROJ when first needed.
+     *
+     * @see #getDomainOfValidity()
+     * @see #loadSnapshot(boolean)
+     */
+    private transient Extent domainOfValidity;
+
+    /**
+     * Whether {@link #name}, {@link #identifiers} and {@link #domainOfValidity} have been fetched.
+     * This flag, rather than a null check, tells whether PROJ needs to be queried, so that a
+     * {@code null} name or domain of validity is cached like any other value.
+     * This field is volatile for making sure that the cached values are visible to other threads
+     * after this flag has been set. No other synchronization is needed since fetching the values
+     * twice in a race condition is harmless.
+     */
+    private transient volatile boolean snapshotLoaded;
+
+    /**
+     * Whether the axes have also been fetched and given to {@link #setAxes(Axis[])}.
+     * Axes are fetched only when first requested, so that a request for the name only
+     * does not create the wrappers of all axes and units.
+     */
+    private transient volatile boolean axesLoaded;
+
     /**
      * Creates a wrapper for the given pointer to a PROJ structure.
      * It is caller's responsibility to invoke {@link #releaseWhenUnreachable()} after construction.
@@ -129,11 +171,8 @@ abstract class IdentifiableObject implements Formattable {
      * @return the primary name, or {@code null} if this object does not provide a name.
      */
     public ReferenceIdentifier getName() {
-        if (impl.getBooleanProperty(Property.HAS_NAME)) {
-            return ((ObjectIdentifier) impl.getObjectProperty(Property.NAME)).new PrimaryName(this);
-        } else {
-            return null;
-        }
+        loadSnapshot(false);
+        return name;
     }
 
     /**
@@ -151,7 +190,8 @@ abstract class IdentifiableObject implements Formattable {
      * @return this object identifiers, or an empty collection if there is none.
      */
     public Set<ReferenceIdentifier> getIdentifiers() {
-        return new PropertySet<>(ObjectIdentifier.class, Property.IDENTIFIER);
+        loadSnapshot(false);
+        return identifiers;
     }
 
     /**
@@ -160,8 +200,75 @@ abstract class IdentifiableObject implements Formattable {
      * @return the CRS, datum or operation valid domain, or {@code null} if not available.
      */
     public Extent getDomainOfValidity() {
-        final double[] extent = impl.getArrayProperty(Property.DOMAIN_OF_VALIDITY);
-        return (extent != null) ? new SimpleExtent(extent) : null;
+        loadSnapshot(false);
+        return domainOfValidity;
+    }
+
+    /**
+     * Fetches in a single native call the name, identifiers, domain of validity and optionally the axes
+     * of this object. This method does nothing if the requested values have already been fetched.
+     * Axes are given to subclasses by a call to {@link #setAxes(Axis[])}. Values fetched by a previous
+     * call are not replaced, so the same instances are returned before and after the axes are fetched.
+     *
+     * @param  withAxes  whether to fetch also the axes with their directions and units.
+     * @throws RuntimeException if the wrapped object is not an identified object.
+     */
+    final void loadSnapshot(final boolean withAxes) {
+        if (withAxes ? !axesLoaded : !snapshotLoaded) {
+            final Object[] values = impl.getSnapshot(withAxes);
+            if (!snapshotLoaded) {
+                final ObjectIdentifier id = (ObjectIdentifier) values[Property.SNAPSHOT_NAME];
+                name = (id != null) ? id.new PrimaryName(this) : null;
+                final Object[] ids = (Object[]) values[Property.SNAPSHOT_IDENTIFIERS];
+                if (ids.length == 0) {
+                    identifiers = Collections.emptySet();
+                } else {
+                    final Set<ReferenceIdentifier> set = new LinkedHashSet<>(Math.max(16, ids.length * 2));
+                    for (final Object e : ids) {
+                        set.add((ObjectIdentifier) e);
+                    }
+                    identifiers = Collections.unmodifiableSet(set);
+                }
+                final double[] extent = (double[]) values[Property.SNAPSHOT_DOMAIN];
+                domainOfValidity = (extent != null) ? new SimpleExtent(extent) : null;
+                snapshotLoaded = true;
+            }
+            final Object[] axes = (Object[]) values[Property.SNAPSHOT_AXES];
+            if (axes != null) {
+                final String[] directions = (String[]) values[Property.SNAPSHOT_AXIS_DIRECTIONS];
+                final Object[] units      = (Object[]) values[Property.SNAPSHOT_AXIS_UNITS];
+                final Axis[]   wrappers   = new Axis[axes.length];
+                for (int i=0; i<axes.length; i++) {
+                    final Axis axis = (Axis) axes[i];
+                    axis.setCachedValues(directions[i], (Unit<?>) units[i]);
+                    wrappers[i] = axis;
+                }
+                setAxes(wrappers);
+            }
+            if (withAxes) {
+                axesLoaded = true;
+            }
+        }
+    }
+
+    /**
+     * Returns whether the axes have been fetched by {@link #loadSnapshot(boolean)}.
+     * This is used for verifying that requesting only the name does not fetch the axes.
+     *
+     * @return whether the axes have been fetched.
+     */
+    final boolean isAxesLoaded() {
+        return axesLoaded;
+    }
+
+    /**
+     * Invoked by {@link #loadSnapshot(boolean)} if this object is a coordinate reference system or a coordinate system.
+     * Subclasses can override this method for caching the axes or the number of dimensions.
+     * The default implementation does nothing.
+     *
+     * @param  axes  all axes of this object, in order. Shall not be modified.
+     */
+    void setAxes(final Axis[] axes) {
     }
 
     /**
@@ -283,68 +390,6 @@ abstract class IdentifiableObject implements Formattable {
         }
     }
 
-    /**
-     * Collection of objects stored by PROJ in a vector.
-     * This class performs the same work than {@link PropertyList}, but viewed as a set.
-     * This class assumes that the vector does not contain duplicated elements; we do not verify.
-     *
-     * @param  <E>  type of values returned by this collection.
-     */
-    private final class PropertySet<E> extends AbstractSet<E> {
-        /**
-         * Type of values returned by this collection.
-         */
-        final Class<? extends E> type;
-
-        /**
-         * The {@link Property} constant which identify which property to read.
-         */
-        private final short property;
-
-        /**
-         * Creates a new collection.
-         *
-         * @param  type      type of values returned by this collection.
-         * @param  property  the {@link Property} constant which identify which property to read.
-         */
-        PropertySet(final Class<? extends E> type, final short property) {
-            this.type     = type;
-            this.property = property;
-        }
-
-        /**
-         * Returns the length of the C++ vector.
-         *
-         * @return number of elements in the wrapped vector.
-         */
-        @Override
-        public int size() {
-            return impl.getVectorSize(property);
-        }
-
-        /**
-         * Returns an iterator over the elements in the C++ vector.
-         *
-         * @return iterator over the elements in the wrapped vector.
-         */
-        @Override
-        public Iterator<E> iterator() {
-            return new Iterator<E>() {
-                private final int size = size();
-                private int index;
-
-                @Override public boolean hasNext() {
-                    return index < size;
-                }
-
-                @Override public E next() {
-                    if (index >= size) throw new NoSuchElementException();
-                    return type.cast(impl.getVectorElement(property, index++));
-                }
-            };
-        }
-    }
-
     /**
      * Returns the given property value as an unit of the given type.
      *
@@ -0,0 +1,198 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import java.util.Map;
+import java.util.LinkedHashMap;
+import java.util.logging.Level;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+
+
+/**
+ * A bounded cache of objects created from character strings, with a <cite>Least Recently Used</cite> policy.
+ * This cache is used by {@link Proj#createFromUserInput(String)} and {@link ReferencingFormat#parse(String)}
+ * for returning the same wrapper when the same string is parsed many times, without crossing JNI
+ * and without running the PROJ parser again. This is possible because PROJ objects are immutable.
+ *
+ * <p>Keys are the texts to parse with leading and trailing white spaces removed, together with the parsing
+ * options. Values are retained by strong references, which keep the PROJ objects alive until they are
+ * evicted from this cache. For that reason the cache capacity is kept small.</p>
+ *
+ * <p>This class extends {@link LinkedHashMap} for implementation convenience only.
+ * We allow ourself to do that because this class is not public.
+ * Callers should not rely on this implementation detail.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+@SuppressWarnings("serial")
+final class InternedObjects extends LinkedHashMap<InternedObjects.Key, Object> {
+    /**
+     * The maximal number of objects to retain. If zero, then the cache is disabled.
+     * This value can be controlled by the {@code "org.kortforsyningen.proj.maxCachedTexts"}
+     * system property at startup time.
+     */
+    private static final int CAPACITY;
+    static {
+        Integer n = null;
+        try {
+            /*
+             * The AccessController is used for reading the property value in a security constrained environment.
+             * It has no effect on the common case where no security manager is enforced. We must promise to not
+             * execute any user-supplied parameter in the privileged block.
+             */
+            n = AccessController.doPrivileged((PrivilegedAction<Integer>) () ->
+                    Integer.getInteger("org.kortforsyningen.proj.maxCachedTexts"));
+        } catch (SecurityException e) {
+            NativeResource.logger().log(Level.FINE, e.getLocalizedMessage(), e);
+        }
+        /*
+         * The default value below (64) is arbitrary. If that default value is modified,
+         * then the documentation in package-info.java file should be updated accordingly.
+         */
+        CAPACITY = (n != null) ? Math.max(0, n) : 64;
+    }
+
+    /**
+     * The kind of key used for {@link Proj#createFromUserInput(String)}.
+     * Other kinds are derived from {@link ReferencingFormat.Convention} ordinal values.
+     */
+    static final int USER_INPUT = -1;
+
+    /**
+     * The unique instance of {@link InternedObjects}.
+     */
+    static final InternedObjects CACHE = new InternedObjects();
+
+    /**
+     * Key of cached values. This is the text to parse together with parsing options.
+     */
+    static final class Key {
+        /**
+         * The text to parse, with leading and trailing white spaces removed.
+         */
+        private final String text;
+
+        /**
+         * {@link #USER_INPUT} or an encoding of {@link ReferencingFormat} convention and strict mode.
+         */
+        private final int kind;
+
+        /**
+         * Creates a new key for a text parsed by {@link Proj#createFromUserInput(String)}.
+         *
+         * @param  text  the text to parse.
+         */
+        Key(final String text) {
+            this.text = text.trim();
+            this.kind = USER_INPUT;
+        }
+
+        /**
+         * Creates a new key for a text parsed by {@link ReferencingFormat#parse(String)}.
+         *
+         * @param  text        the text to parse.
+         * @param  convention  the convention used for parsing.
+         * @param  strict      whether the parser enforces strictly standard format.
+         */
+        Key(final String text, final ReferencingFormat.Convention convention, final boolean strict) {
+            this.text = text.trim();
+            this.kind = (convention.ordinal() << 1) | (strict ? 1 : 0);
+        }
+
+        /**
+         * Returns a hash code value for this key.
+         */
+        @Override
+        public int hashCode() {
+            return text.hashCode() + kind;
+        }
+
+        /**
+         * Compares this key with the given object for equality.
+         */
+        @Override
+        public boolean equals(final Object other) {
+            if (other instanceof Key) {
+                final Key that = (Key) other;
+                return kind == that.kind && text.equals(that.text);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Creates the unique instance.
+     */
+    private InternedObjects() {
+        super(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the object previously created for the given key, or {@code null} if none.
+     *
+     * @param  key  the text and parsing options.
+     * @return the cached object, or {@code null} if none.
+     */
+    final Object lookup(final Key key) {
+        if (CAPACITY != 0) {
+            synchronized (this) {
+                return get(key);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Caches the object created for the given key. If an object has been created concurrently
+     * for the same key, then the existing object is returned instead of the given one.
+     *
+     * @param  key    the text and parsing options.
+     * @param  value  the object created from the given text.
+     * @return the object to use, which is {@code value} unless an object was already cached.
+     */
+    final Object intern(final Key key, final Object value) {
+        if (CAPACITY != 0) {
+            synchronized (this) {
+                final Object existing = putIfAbsent(key, value);
+                if (existing != null) {
+                    return existing;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns whether the eldest entry should be removed after an insertion.
+     * This method is invoked by {@link LinkedHashMap} and shall not be invoked directly.
+     *
+     * @param  eldest  the least recently used entry.
+     * @return whether the map contains more elements than the capacity.
+     */
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<Key, Object> eldest) {
+        return size() > CAPACITY;
+    }
+}
@@ -0,0 +1,691 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import java.util.List;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.logging.Level;
+import org.opengis.util.FactoryException;
+import org.opengis.geometry.DirectPosition;
+import org.opengis.geometry.MismatchedDimensionException;
+import org.opengis.metadata.extent.Extent;
+import org.opengis.metadata.extent.GeographicExtent;
+import org.opengis.metadata.extent.GeographicBoundingBox;
+import org.opengis.referencing.IdentifiedObject;
+import org.opengis.referencing.operation.CoordinateOperation;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.NoninvertibleTransformException;
+import org.opengis.referencing.operation.TransformException;
+
+
+/**
+ * A transform which selects, for each point, the best operation among many candidates.
+ * Candidates are coordinate operations between the same pair of CRS, sorted in preference order
+ * (for example different datum shift grids by region). For each point, this transform uses the first
+ * operation having a domain of validity that contains the point, like what {@code proj_create_crs_to_crs}
+ * does in the PROJ library. Points are grouped by selected operation before to be transformed,
+ * so each operation is invoked only once per call to a {@code transform(…)} method.
+ *
+ * <p>Domains of validity are the union of all geographic bounding boxes of each operation extent,
+ * which are transformed to the source CRS at construction time. Points outside the domains of validity
+ * of all operations are not transformed: their coordinates are set to {@link Double#NaN} by the methods
+ * transforming arrays, and a {@link TransformException} is thrown by the methods working on a single point.
+ * Operations having a domain of validity that can not be transformed to the source CRS are never selected,
+ * like what PROJ does.</p>
+ *
+ * <p>This transform supports the {@link Proj} methods working on arrays of points, namely
+ * {@link Proj#derivatives derivatives(…)}, {@link Proj#transformDeduplicated transformDeduplicated(…)},
+ * {@link Proj#transformInSpatialOrder transformInSpatialOrder(…)} and
+ * {@link Proj#transformAlongLine transformAlongLine(…)}, by delegating each group of points
+ * to its selected operation. Other methods requiring a single PROJ operation
+ * (point transformer, bounds, warp maps, scaled or WKB coordinates) are not supported.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+final class MultiOperation implements MathTransform {
+    /**
+     * Number of points to add between the corners of each edge of a domain of validity
+     * when transforming it to the source CRS.
+     */
+    private static final int DENSIFY_POINTS = 21;
+
+    /**
+     * Domain of an operation which is never selected.
+     */
+    private static final double[] EMPTY = new double[0];
+
+    /**
+     * The candidate operations, in preference order.
+     */
+    private final Operation[] operations;
+
+    /**
+     * The domains of validity of each operation in source CRS, or {@code null} if unbounded.
+     * Each array contains zero or more boxes as (<var>x</var><sub>min</sub>, <var>y</var><sub>min</sub>,
+     * <var>x</var><sub>max</sub>, <var>y</var><sub>max</sub>) tuples. There is more than one box
+     * when the extent has many geographic bounding boxes or when a box crosses the anti-meridian.
+     */
+    private final double[][] domains;
+
+    /**
+     * The inverse of this transform, computed when first needed.
+     *
+     * @see #inverse()
+     */
+    private MultiOperation inverse;
+
+    /**
+     * Creates a new transform for the given candidate operations.
+     *
+     * @param  operations  the candidate operations, in preference order. Shall contain at least 2 elements.
+     * @param  sourceCRS   the source CRS of all operations.
+     * @throws FactoryException if the operation for transforming domains of validity can not be created.
+     */
+    private MultiOperation(final Operation[] operations, final CRS sourceCRS) throws FactoryException {
+        this.operations = operations;
+        final Operation fromCRS84 = fromCRS84(sourceCRS);
+        domains = new double[operations.length][];
+        for (int i=0; i<operations.length; i++) {
+            domains[i] = domain(operations[i], fromCRS84);
+        }
+    }
+
+    /**
+     * Creates a transform selecting the best operation for each point among the given candidates.
+     * If there is only one candidate, then its transform is returned directly.
+     *
+     * @param  candidates  the candidate operations, in preference order.
+     * @param  sourceCRS   the source CRS of all operations.
+     * @return the transform, or {@code null} if no candidate is a PROJ-JNI operation with a transform.
+     * @throws MismatchedDimensionException if the candidates do not have the same number of dimensions.
+     * @throws FactoryException if the operation for transforming domains of validity can not be created.
+     */
+    static MathTransform create(final List<CoordinateOperation> candidates, final CRS sourceCRS) throws FactoryException {
+        final List<Operation> operations = new ArrayList<>(candidates.size());
+        for (final CoordinateOperation candidate : candidates) {
+            if (candidate instanceof Operation && candidate.getMathTransform() != null) {
+                final Operation op = (Operation) candidate;
+                if (!operations.isEmpty()) {
+                    final Operation first = operations.get(0);
+                    if (op.getSourceDimensions() != first.getSourceDimensions() ||
+                        op.getTargetDimensions() != first.getTargetDimensions())
+                    {
+                        throw new MismatchedDimensionException("All candidate operations shall have the same dimensions.");
+                    }
+                }
+                operations.add(op);
+            }
+        }
+        switch (operations.size()) {
+            case 0:  return null;
+            case 1:  return operations.get(0);
+            default: return new MultiOperation(operations.toArray(new Operation[operations.size()]), sourceCRS);
+        }
+    }
+
+    /**
+     * Returns the operation from OGC:CRS84 to the given CRS, or {@code null} if none.
+     * This is used for transforming the geographic bounding boxes to the source CRS.
+     *
+     * @param  sourceCRS  the source CRS of the candidate operations.
+     * @return operation from geographic coordinates to the given CRS, or {@code null} if none.
+     * @throws FactoryException if an error occurred while creating the operation.
+     */
+    private static Operation fromCRS84(final CRS sourceCRS) throws FactoryException {
+        final IdentifiedObject crs84 = Proj.createFromUserInput("OGC:CRS84");
+        if (crs84 instanceof CRS && sourceCRS != null) {
+            final List<CoordinateOperation> ops = OperationFactory.findOperations(
+                    (CRS) crs84, sourceCRS, new CoordinateOperationContext());
+            if (!ops.isEmpty()) {
+                final CoordinateOperation op = ops.get(0);
+                if (op instanceof Operation && op.getMathTransform() != null) {
+                    return (Operation) op;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the domain of validity of the given operation in source CRS, or {@code null} if unbounded.
+     * The domain is the union of all geographic bounding boxes of the operation extent. Boxes that can
+     * not be transformed to the source CRS are omitted; if all boxes are omitted, then the returned
+     * array is empty and the operation will never be selected.
+     *
+     * @param  op         the operation for which to get the domain of validity.
+     * @param  fromCRS84  the operation from geographic coordinates to source CRS, or {@code null} if none.
+     * @return boxes in source CRS, or {@code null} if unbounded.
+     */
+    private static double[] domain(final Operation op, final Operation fromCRS84) {
+        final Extent extent = op.getDomainOfValidity();
+        if (extent == null || fromCRS84 == null) {
+            return null;
+        }
+        double[] boxes = null;
+        for (final GeographicExtent element : extent.getGeographicElements()) {
+            if (element instanceof GeographicBoundingBox) {
+                if (boxes == null) {
+                    boxes = EMPTY;
+                }
+                final GeographicBoundingBox bbox = (GeographicBoundingBox) element;
+                final double west  = bbox.getWestBoundLongitude();
+                final double east  = bbox.getEastBoundLongitude();
+                final double south = bbox.getSouthBoundLatitude();
+                final double north = bbox.getNorthBoundLatitude();
+                try {
+                    if (west <= east) {
+                        boxes = append(boxes, fromCRS84.transformBounds(west, south, east, north, DENSIFY_POINTS));
+                    } else {
+                        // Box crossing the anti-meridian: split in two boxes.
+                        boxes = append(boxes, fromCRS84.transformBounds(west, south, 180, north, DENSIFY_POINTS));
+                        boxes = append(boxes, fromCRS84.transformBounds(-180, south, east, north, DENSIFY_POINTS));
+                    }
+                } catch (TransformException | IllegalArgumentException e) {
+                    /*
+                     * Not a fatal error: this box will not be used for selecting the operation.
+                     * This is what PROJ does in proj_create_crs_to_crs for areas of use that can
+                     * not be transformed to the source CRS.
+                     */
+                    NativeResource.logger().log(Level.FINE, e.getLocalizedMessage(), e);
+                }
+            }
+        }
+        return boxes;
+    }
+
+    /**
+     * Appends a box to the given array of boxes.
+     *
+     * @param  boxes  the boxes computed so far.
+     * @param  box    the box to append.
+     * @return the boxes with the new box appended.
+     */
+    private static double[] append(final double[] boxes, final double[] box) {
+        final double[] result = Arrays.copyOf(boxes, boxes.length + 4);
+        System.arraycopy(box, 0, result, boxes.length, 4);
+        return result;
+    }
+
+    /**
+     * Returns the index of the operation to use for the given point.
+     *
+     * @param  x  first coordinate value of the point to transform.
+     * @param  y  second coordinate value of the point to transform.
+     * @return index of the first operation having a domain of validity containing the given point,
+     *         or -1 if the point is outside the domains of validity of all operations.
+     */
+    final int select(final double x, final double y) {
+        for (int i=0; i<domains.length; i++) {
+            final double[] boxes = domains[i];
+            if (boxes == null) {
+                return i;
+            }
+            for (int j=0; j<boxes.length; j += 4) {
+                if (contains(boxes[j], boxes[j+2], x) && contains(boxes[j+1], boxes[j+3], y)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether the given range contains the given value. If {@code min} is greater than {@code max},
+     * then the range is assumed to cross the anti-meridian as computed by {@link Operation#transformBounds
+     * Operation.transformBounds(…)}.
+     *
+     * @param  min    minimal value of the range.
+     * @param  max    maximal value of the range.
+     * @param  value  the value to test.
+     * @return whether the range contains the value.
+     */
+    private static boolean contains(final double min, final double max, final double value) {
+        return (min <= max) ? (value >= min && value <= max) : (value >= min || value <= max);
+    }
+
+    /**
+     * Returns the operation selected for the given point.
+     *
+     * @param  point  the point to transform.
+     * @return the operation to use for the given point.
+     * @throws TransformException if the point is outside the domains of validity of all operations.
+     */
+    private Operation select(final DirectPosition point) throws TransformException {
+        final int i = select(point.getOrdinate(0), (point.getDimension() >= 2) ? point.getOrdinate(1) : 0);
+        if (i < 0) {
+            throw new TransformException("The point is outside the domains of validity of all operations.");
+        }
+        return operations[i];
+    }
+
+    /**
+     * Returns the candidate operations, in preference order.
+     *
+     * @return the candidate operations.
+     */
+    final List<Operation> getOperations() {
+        return Arrays.asList(operations.clone());
+    }
+
+    /**
+     * Returns the number of dimensions of input points.
+     *
+     * @return the dimension of input points.
+     */
+    @Override
+    public int getSourceDimensions() {
+        return operations[0].getSourceDimensions();
+    }
+
+    /**
+     * Returns the number of dimensions of output points.
+     *
+     * @return the dimension of output points.
+     */
+    @Override
+    public int getTargetDimensions() {
+        return operations[0].getTargetDimensions();
+    }
+
+    /**
+     * Transforms the specified {@code ptSrc} with the best operation for that point
+     * and stores the result in {@code ptDst}.
+     *
+     * @param  ptSrc the coordinate point to be transformed.
+     * @param  ptDst the coordinate point that stores the result of transforming {@code ptSrc}, or {@code null}.
+     * @return the coordinate point after transforming {@code ptSrc} and storing the result.
+     * @throws MismatchedDimensionException if {@code ptSrc} or {@code ptDst} does not have the expected dimension.
+     * @throws TransformException if the point is outside the domains of validity or can not be transformed.
+     */
+    @Override
+    public DirectPosition transform(final DirectPosition ptSrc, final DirectPosition ptDst) throws TransformException {
+        return select(ptSrc).transform(ptSrc, ptDst);
+    }
+
+    /**
+     * Transforms a list of coordinate points. Points are grouped by selected operation,
+     * then each group is transformed in a single call to the selected operation.
+     * Points outside the domains of validity of all operations are set to {@link Double#NaN}.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned.
+     *                 May be the same than {@code srcPts}.
+     * @param  dstOff  the offset to the location of the first transformed point in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Override
+    public void transform(final double[] srcPts, final int srcOff, final double[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        execute(srcPts, srcOff, dstPts, dstOff, numPts, getTargetDimensions(), Operation::transform, Operation::transform);
+    }
+
+    /**
+     * Transforms a list of coordinate points, transforming only once each distinct point.
+     * Each group of points is delegated to {@link Operation#transformDeduplicated
+     * Operation.transformDeduplicated(…)} on the selected operation.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned.
+     * @param  dstOff  the offset to the location of the first transformed point in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     * @throws TransformException if a point can not be transformed.
+     *
+     * @see Proj#transformDeduplicated(MathTransform, double[], int, double[], int, int)
+     */
+    final void transformDeduplicated(final double[] srcPts, final int srcOff, final double[] dstPts, final int dstOff,
+            final int numPts) throws TransformException
+    {
+        execute(srcPts, srcOff, dstPts, dstOff, numPts, getTargetDimensions(),
+                Operation::transformDeduplicated, Operation::transformDeduplicated);
+    }
+
+    /**
+     * Transforms a list of coordinate points after sorting them in spatial order.
+     * Each group of points is delegated to {@link Operation#transformInSpatialOrder
+     * Operation.transformInSpatialOrder(…)} on the selected operation.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned.
+     * @param  dstOff  the offset to the location of the first transformed point in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     * @throws TransformException if a point can not be transformed.
+     *
+     * @see Proj#transformInSpatialOrder(MathTransform, double[], int, double[], int, int)
+     */
+    final void transformInSpatialOrder(final double[] srcPts, final int srcOff, final double[] dstPts, final int dstOff,
+            final int numPts) throws TransformException
+    {
+        execute(srcPts, srcOff, dstPts, dstOff, numPts, getTargetDimensions(),
+                Operation::transformInSpatialOrder, Operation::transformInSpatialOrder);
+    }
+
+    /**
+     * Transforms approximately a sequence of points regularly spaced along a straight line. If all points are transformed by the same
+     * operation, this method delegates to {@link Operation#transformAlongLine Operation.transformAlongLine(…)}.
+     * Otherwise the points of each group are no longer regularly spaced, so they are transformed exactly.
+     *
+     * @param  srcPts     the array containing the source point coordinates.
+     * @param  srcOff     the offset to the first point to be transformed in the source array.
+     * @param  dstPts     the array into which the transformed point coordinates are returned.
+     * @param  dstOff     the offset to the location of the first transformed point in the destination array.
+     * @param  numPts     the number of point objects to be transformed.
+     * @param  tolerance  maximal error allowed in target CRS units.
+     * @throws TransformException if a point can not be transformed.
+     *
+     * @see Proj#transformAlongLine(MathTransform, double[], int, double[], int, int, double)
+     */
+    final void transformAlongLine(final double[] srcPts, final int srcOff, final double[] dstPts, final int dstOff,
+            final int numPts, final double tolerance) throws TransformException
+    {
+        execute(srcPts, srcOff, dstPts, dstOff, numPts, getTargetDimensions(),
+                (op, s, so, d, doff, n) -> op.transformAlongLine(s, so, d, doff, n, tolerance),
+                Operation::transform);
+    }
+
+    /**
+     * Computes the Jacobian matrices at many points. Each group of points is delegated
+     * to {@link Operation#derivatives Operation.derivatives(…)} on the selected operation.
+     * Elements of matrices at points outside the domains of validity are set to {@link Double#NaN}.
+     *
+     * @param  srcPts     the points where to evaluate the derivatives.
+     * @param  srcOff     offset of the first point coordinate in the {@code srcPts} array.
+     * @param  jacobians  the array where to write the matrix elements.
+     * @param  jacOff     offset of the first matrix element to write in the {@code jacobians} array.
+     * @param  numPts     number of points where to evaluate the derivatives.
+     * @throws TransformException if the derivative can not be computed for at least one point.
+     *
+     * @see Proj#derivatives(MathTransform, double[], int, double[], int, int)
+     */
+    final void derivatives(final double[] srcPts, final int srcOff, final double[] jacobians, final int jacOff,
+            final int numPts) throws TransformException
+    {
+        execute(srcPts, srcOff, jacobians, jacOff, numPts, getSourceDimensions() * getTargetDimensions(),
+                Operation::derivatives, Operation::derivatives);
+    }
+
+    /**
+     * An action to execute on a group of points with the operation selected for those points.
+     */
+    @FunctionalInterface
+    private interface Batch {
+        /**
+         * Executes the action on the given points.
+         *
+         * @param  op      the operation selected for the points.
+         * @param  srcPts  the array containing the source point coordinates.
+         * @param  srcOff  the offset to the first point in the source array.
+         * @param  dstPts  the array where to write the results.
+         * @param  dstOff  the offset to the first result in the destination array.
+         * @param  numPts  the number of points.
+         * @throws TransformException if a point can not be processed.
+         */
+        void apply(Operation op, double[] srcPts, int srcOff, double[] dstPts, int dstOff, int numPts)
+                throws TransformException;
+    }
+
+    /**
+     * Groups the given points by selected operation, then executes the given action on each group.
+     * If all points are in the same group, then {@code whole} is executed directly on the given arrays.
+     * Otherwise the points are gathered in a temporary array and {@code group} is executed on each group.
+     * Results of points outside the domains of validity of all operations are set to {@link Double#NaN}.
+     *
+     * @param  srcPts     the array containing the source point coordinates.
+     * @param  srcOff     the offset to the first point in the source array.
+     * @param  dstPts     the array where to write the results. May be the same than {@code srcPts}.
+     * @param  dstOff     the offset to the first result in the destination array.
+     * @param  numPts     the number of points.
+     * @param  dstStride  number of values written in {@code dstPts} for each point.
+     * @param  whole      the action to execute when all points use the same operation.
+     * @param  group      the action to execute on each group of points otherwise.
+     * @throws TransformException if a point can not be processed.
+     */
+    private void execute(double[] srcPts, int srcOff, final double[] dstPts, final int dstOff, final int numPts,
+            final int dstStride, final Batch whole, final Batch group) throws TransformException
+    {
+        if (numPts <= 0) {
+            whole.apply(operations[0], srcPts, srcOff, dstPts, dstOff, numPts);     // For argument validation.
+            return;
+        }
+        final int srcDim = getSourceDimensions();
+        final int[] selected = new int[numPts];
+        final int[] counts = new int[operations.length];
+        boolean outside = false;
+        for (int i=0, s=srcOff; i<numPts; i++, s += srcDim) {
+            final int k = select(srcPts[s], (srcDim >= 2) ? srcPts[s+1] : 0);
+            selected[i] = k;
+            if (k >= 0) {
+                counts[k]++;
+            } else {
+                outside = true;
+            }
+        }
+        int maxCount = 0;
+        for (int k=0; k<counts.length; k++) {
+            if (counts[k] == numPts) {
+                // All points use the same operation (common case): no need to regroup them.
+                whole.apply(operations[k], srcPts, srcOff, dstPts, dstOff, numPts);
+                return;
+            }
+            maxCount = Math.max(maxCount, counts[k]);
+        }
+        if (srcPts == dstPts && (srcOff != dstOff || srcDim != dstStride)) {
+            // Source coordinates of a group could be overwritten by the results of a previous group.
+            srcPts = Arrays.copyOfRange(srcPts, srcOff, srcOff + numPts * srcDim);
+            srcOff = 0;
+        }
+        final double[] gathered = new double[maxCount * srcDim];
+        final double[] results  = new double[maxCount * dstStride];
+        for (int k=0; k<counts.length; k++) {
+            final int n = counts[k];
+            if (n != 0) {
+                for (int i=0, s=srcOff, t=0; i<numPts; i++, s += srcDim) {
+                    if (selected[i] == k) {
+                        System.arraycopy(srcPts, s, gathered, t, srcDim);
+                        t += srcDim;
+                    }
+                }
+                group.apply(operations[k], gathered, 0, results, 0, n);
+                for (int i=0, d=dstOff, t=0; i<numPts; i++, d += dstStride) {
+                    if (selected[i] == k) {
+                        System.arraycopy(results, t, dstPts, d, dstStride);
+                        t += dstStride;
+                    }
+                }
+            }
+        }
+        if (outside) {
+            for (int i=0, d=dstOff; i<numPts; i++, d += dstStride) {
+                if (selected[i] < 0) {
+                    Arrays.fill(dstPts, d, d + dstStride, Double.NaN);
+                }
+            }
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate points. This method converts the coordinates to double precision,
+     * delegates to {@link #transform(double[], int, double[], int, int)}, then converts the results.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned.
+     * @param  dstOff  the offset to the location of the first transformed point in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Override
+    public void transform(final float[] srcPts, final int srcOff, final float[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        final double[] coordinates = toDoubles(srcPts, srcOff, numPts);
+        final double[] results = new double[Math.max(numPts, 0) * getTargetDimensions()];
+        transform(coordinates, 0, results, 0, numPts);
+        for (int i=0; i<results.length; i++) {
+            dstPts[dstOff + i] = (float) results[i];
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate points. This method delegates to
+     * {@link #transform(double[], int, double[], int, int)} then converts the results.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned.
+     * @param  dstOff  the offset to the location of the first transformed point in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Override
+    public void transform(final double[] srcPts, final int srcOff, final float[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        final double[] results = new double[Math.max(numPts, 0) * getTargetDimensions()];
+        transform(srcPts, srcOff, results, 0, numPts);
+        for (int i=0; i<results.length; i++) {
+            dstPts[dstOff + i] = (float) results[i];
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate points. This method converts the coordinates to double precision,
+     * then delegates to {@link #transform(double[], int, double[], int, int)}.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned.
+     * @param  dstOff  the offset to the location of the first transformed point in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Override
+    public void transform(final float[] srcPts, final int srcOff, final double[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        transform(toDoubles(srcPts, srcOff, numPts), 0, dstPts, dstOff, numPts);
+    }
+
+    /**
+     * Copies the given source coordinates in a new array of double precision values.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point in the source array.
+     * @param  numPts  the number of points to copy.
+     * @return the coordinates in double precision.
+     */
+    private double[] toDoubles(final float[] srcPts, final int srcOff, final int numPts) {
+        final double[] coordinates = new double[Math.max(numPts, 0) * getSourceDimensions()];
+        for (int i=0; i<coordinates.length; i++) {
+            coordinates[i] = srcPts[srcOff + i];
+        }
+        return coordinates;
+    }
+
+    /**
+     * Gets the derivative of this transform at a point, using the best operation for that point.
+     *
+     * @param  point  the coordinate point where to evaluate the derivative.
+     * @return the derivative at the given position.
+     * @throws TransformException if the point is outside the domains of validity
+     *         or if the derivative can not be computed.
+     */
+    @Override
+    public Matrix derivative(final DirectPosition point) throws TransformException {
+        if (point == null) {
+            throw new TransformException("The position where to evaluate the derivative is mandatory.");
+        }
+        return select(point).derivative(point);
+    }
+
+    /**
+     * Returns the inverse transform. The inverse selects the best inverse operation for each point
+     * using the domains of validity transformed to the target CRS of this transform.
+     *
+     * @return the inverse transform.
+     * @throws NoninvertibleTransformException if at least one operation can not be inverted.
+     */
+    @Override
+    public synchronized MathTransform inverse() throws NoninvertibleTransformException {
+        if (inverse == null) {
+            final Operation[] inverses = new Operation[operations.length];
+            for (int i=0; i<inverses.length; i++) {
+                inverses[i] = (Operation) operations[i].inverse();
+            }
+            try {
+                final CRS targetCRS = (CRS) operations[0].getTargetCRS();
+                inverse = new MultiOperation(inverses, targetCRS);
+            } catch (FactoryException | ClassCastException e) {
+                throw (NoninvertibleTransformException) new NoninvertibleTransformException(e.getLocalizedMessage()).initCause(e);
+            }
+            inverse.inverse = this;
+        }
+        return inverse;
+    }
+
+    /**
+     * Returns {@code false} since this transform delegates to operations in different areas.
+     *
+     * @return {@code false}.
+     */
+    @Override
+    public boolean isIdentity() {
+        return false;
+    }
+
+    /**
+     * Returns an approximate <cite>Well-Known Text</cite> (WKT) for this transform.
+     * There is no WKT representation for a choice between many operations, so this method
+     * formats only the first candidate, which is the operation preferred by PROJ.
+     * The other candidates and their domains of validity are not represented.
+     *
+     * @return the Well-Known Text of the preferred operation.
+     * @throws UnsupportedOperationException if the preferred operation can not be formatted as WKT.
+     */
+    @Override
+    public String toWKT() {
+        return operations[0].toWKT();
+    }
+
+    /**
+     * Returns a string representation of this transform, which lists the names of candidate operations.
+     *
+     * @return a string representation of this transform.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder buffer = new StringBuilder("MultiOperation[");
+        for (int i=0; i<operations.length; i++) {
+            if (i != 0) buffer.append(", ");
+            buffer.append('“').append(operations[i].getNameString(false)).append('”');
+        }
+        return buffer.append(']').toString();
+    }
+}
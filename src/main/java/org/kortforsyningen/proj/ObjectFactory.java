@@ -35,6 +35,7 @@ import org.opengis.metadata.citation.Citation;
 import org.opengis.referencing.IdentifiedObject;
 import org.opengis.referencing.ReferenceIdentifier;
 import org.opengis.referencing.operation.Conversion;
+import org.opengis.referencing.operation.CoordinateOperation;
 import org.opengis.referencing.operation.CoordinateOperationFactory;
 import org.opengis.referencing.datum.*;
 import org.opengis.referencing.crs.*;
@@ -830,6 +831,25 @@ final class ObjectFactory extends NativeResource implements DatumFactory, CSFact
         return (CompoundCRS) create(flat(properties), components(components), null, null, 0, Type.COMPOUND_CRS);
     }
 
+    /**
+     * Creates a concatenated operation from a sequence of operations. The name, domain of validity and
+     * accuracy of the concatenated operation are computed by PROJ from the given operations. The name,
+     * identifiers, remarks and scope can be replaced by the given properties.
+     * The concatenated operation is executed as a single PROJ pipeline.
+     * This method is invoked by {@link OperationFactory}, which is the public API.
+     *
+     * @param  properties  name and other properties to give to the new object, or an empty map for the computed ones.
+     * @param  operations  the sequence of operations. Shall contain at least two elements.
+     * @return the concatenated operation.
+     * @throws FactoryException if the object creation failed.
+     */
+    final CoordinateOperation createConcatenatedOperation(
+            final Map<String,?> properties,
+            final CoordinateOperation... operations) throws FactoryException
+    {
+        return (CoordinateOperation) create(flat(properties), components(operations), null, null, 0, Type.COORDINATE_OPERATION);
+    }
+
     /**
      * Creates a coordinate reference system object from a GML string.
      *
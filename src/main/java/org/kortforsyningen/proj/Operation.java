@@ -21,15 +21,24 @@
  */
 package org.kortforsyningen.proj;
 
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.util.Set;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Formattable;
 import java.util.Formatter;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import javax.measure.Unit;
 import org.opengis.util.GenericName;
 import org.opengis.util.InternationalString;
 import org.opengis.geometry.DirectPosition;
@@ -42,6 +51,10 @@ import org.opengis.parameter.ParameterValueGroup;
 import org.opengis.referencing.ReferenceIdentifier;
 import org.opengis.referencing.crs.GeneralDerivedCRS;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.crs.GeographicCRS;
+import org.opengis.referencing.cs.AxisDirection;
+import org.opengis.referencing.cs.CoordinateSystem;
+import org.opengis.referencing.cs.CoordinateSystemAxis;
 import org.opengis.referencing.operation.CoordinateOperation;
 import org.opengis.referencing.operation.Formula;
 import org.opengis.referencing.operation.MathTransform;
@@ -100,6 +113,21 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
      */
     private final int srcDim, dstDim;
 
+    /**
+     * The source and target CRS, or {@code null} if unknown.
+     * Fetched at construction time since they are needed for the dimensions anyway,
+     * and for avoiding a JNI call on every {@link #getSourceCRS()} or {@link #isIdentity()} invocation.
+     */
+    private final CRS sourceCRS, targetCRS;
+
+    /**
+     * Whether this operation is an identity operation, or {@code null} if not yet determined.
+     * No synchronization is needed since computing this value twice is harmless.
+     *
+     * @see #isIdentity()
+     */
+    private transient Boolean identity;
+
     /**
      * The inverse transform, created only when first needed.
      *
@@ -122,9 +150,52 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
      * would be more efficient, but it is also a relatively heavy class for this simple need.
      * We use an array for now, with the requirement that all accesses to this array must be
      * synchronized of {@code transforms}.</p>
+     *
+     * <p>This array is {@code null} if this operation uses the pool of another operation.</p>
+     *
+     * @see #pool
      */
     private final Transform[] transforms;
 
+    /**
+     * The operation owning the {@link #transforms} pool used by this operation. This is {@code this}
+     * except for an inverse operation created by {@link #inverse()}, which may reuse the {@code PJ}
+     * objects of the forward operation in the {@link #pjInverse inverse direction} instead of
+     * creating its own {@code PJ} objects.
+     */
+    private final Operation pool;
+
+    /**
+     * Whether the {@code PJ} objects of the {@linkplain #pool} shall be executed in the inverse direction.
+     * This is {@code true} only if {@link #pool} is the operation for which this operation is the inverse.
+     */
+    private final boolean pjInverse;
+
+    /**
+     * Value of {@link #affine} when the operation has been inspected and shall be delegated to PROJ.
+     */
+    private static final Object NOT_AFFINE = new Object();
+
+    /**
+     * Pure-Java implementation of this operation if the PROJ pipeline is a simple affine operation
+     * (no-op, axis swap, unit conversion), {@link #NOT_AFFINE} if the operation shall be delegated
+     * to PROJ, or {@code null} if not yet determined. The result of the check is published by this
+     * single volatile reference to an immutable object, so a thread seeing a non-null value sees the
+     * complete pipeline. No other synchronization is needed since computing the value twice in a race
+     * condition is harmless.
+     *
+     * @see #affine()
+     */
+    private transient volatile Object affine;
+
+    /**
+     * Counters of the use of this operation, created when first needed if metrics are enabled.
+     * Computing this value twice in a race condition is harmless since the same instance is returned.
+     *
+     * @see #metrics()
+     */
+    private transient OperationMetrics metrics;
+
     /**
      * Task executed when the enclosing {@link Operation} is garbage collected.
      * This task destroys all {@link Transform} cached by the enclosing class.
@@ -175,15 +246,43 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
 
     /**
      * Creates a new wrapper for the given {@code osgeo::proj::operation::CoordinateOperation}.
-     * The source and target CRS needs to be specified after construction.
+     * The source and target CRS are fetched from PROJ at construction time.
      *
      * @param  ptr  pointer to the wrapped PROJ object.
      */
     Operation(final long ptr) {
         super(new Cleaner(ptr));
         transforms = ((Cleaner) impl).transforms;
-        srcDim = getDimension(0);
-        dstDim = getDimension(1);
+        pool       = this;
+        pjInverse  = false;
+        sourceCRS  = getCRS(0);
+        targetCRS  = getCRS(1);
+        srcDim     = getDimension(sourceCRS);
+        dstDim     = getDimension(targetCRS);
+    }
+
+    /**
+     * Creates a wrapper for the inverse of the given operation. The new operation has no pool of
+     * {@link Transform} objects; it executes the {@code PJ} objects of {@code forward} in the inverse
+     * direction instead. The wrapped PROJ object is used only for metadata (name, parameters, WKT).
+     * The source and target CRS are the target and source CRS of the forward operation,
+     * so they do not need to be fetched from PROJ.
+     *
+     * <p>It is caller's responsibility to invoke {@link #releaseWhenUnreachable()} after construction.</p>
+     *
+     * @param  ptr      pointer to the wrapped PROJ inverse operation.
+     * @param  forward  the operation for which to create the inverse.
+     */
+    Operation(final long ptr, final Operation forward) {
+        super(ptr);
+        transforms = null;
+        pool       = forward;
+        pjInverse  = true;
+        sourceCRS  = forward.targetCRS;
+        targetCRS  = forward.sourceCRS;
+        srcDim     = forward.dstDim;
+        dstDim     = forward.srcDim;
+        inverse    = forward;
     }
 
     /**
@@ -199,16 +298,17 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
     /**
      * Returns the number of dimension of the specified CRS, or 0 if unknown.
      *
-     * @param  i  0 for source CRS, or 1 for target CRS.
+     * @param  crs  the source or target CRS, or {@code null} if unknown.
      * @return number of dimension of specified CRS, or 0 in unknown.
      */
-    private int getDimension(final int i) {
-        final CRS crs = getCRS(i);
+    private static int getDimension(final CRS crs) {
         return (crs != null) ? crs.getDimension() : 0;
     }
 
     /**
-     * Returns the source or target CRS, or {@code null} if unknown.
+     * Fetches the source or target CRS from PROJ, or returns {@code null} if unknown.
+     * This method is invoked at construction time only; other methods should use
+     * the {@link #sourceCRS} and {@link #targetCRS} fields instead.
      *
      * @param  i  0 for source CRS, or 1 for target CRS.
      * @return the specified CRS, or {@code null} in unknown.
@@ -224,7 +324,7 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
      */
     @Override
     public final CoordinateReferenceSystem getSourceCRS() {
-        return getCRS(0);
+        return sourceCRS;
     }
 
     /**
@@ -234,7 +334,7 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
      */
     @Override
     public final int getSourceDimensions() {
-        assert dimensionMatches(0, srcDim) : srcDim;
+        assert dimensionMatches(sourceCRS, srcDim) : srcDim;
         return srcDim;
     }
 
@@ -245,7 +345,7 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
      */
     @Override
     public final CoordinateReferenceSystem getTargetCRS() {
-        return getCRS(1);
+        return targetCRS;
     }
 
     /**
@@ -255,7 +355,7 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
      */
     @Override
     public final int getTargetDimensions() {
-        assert dimensionMatches(1, dstDim) : dstDim;
+        assert dimensionMatches(targetCRS, dstDim) : dstDim;
         return dstDim;
     }
 
@@ -263,12 +363,11 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
      * Verifies if the number of dimension of source or target CRS matches the expected value.
      * This is used for assertions only.
      *
-     * @param  i    0 for source CRS, or 1 for target CRS.
+     * @param  crs  the source or target CRS, or {@code null} if unknown.
      * @param  dim  the expected number of dimensions.
      * @return whether the dimension matches.
      */
-    private boolean dimensionMatches(final int i, final int dim) {
-        final CRS crs = getCRS(i);
+    private static boolean dimensionMatches(final CRS crs, final int dim) {
         return (crs == null) || (dim == crs.getDimension());
     }
 
@@ -392,6 +491,15 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
             super(ptr);
         }
 
+        /**
+         * Invoked by {@link Operation#inverse()} only.
+         * @param  ptr      pointer to the wrapped PROJ inverse operation.
+         * @param  forward  the operation for which to create the inverse.
+         */
+        Conversion(final long ptr, final Operation forward) {
+            super(ptr, forward);
+        }
+
         @Override public ParameterValueGroup getParameterValues() {return this;}
         @Override public ParameterDescriptorGroup getDescriptor() {return this;}
     }
@@ -410,6 +518,15 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
             super(ptr);
         }
 
+        /**
+         * Invoked by {@link Operation#inverse()} only.
+         * @param  ptr      pointer to the wrapped PROJ inverse operation.
+         * @param  forward  the operation for which to create the inverse.
+         */
+        Transformation(final long ptr, final Operation forward) {
+            super(ptr, forward);
+        }
+
         @Override public ParameterValueGroup getParameterValues() {return this;}
         @Override public ParameterDescriptorGroup getDescriptor() {return this;}
     }
@@ -486,8 +603,20 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
      */
     @Override
     public boolean isIdentity() {
-        final CRS sourceCRS = getCRS(0);
-        final CRS targetCRS = getCRS(1);
+        Boolean value = identity;
+        if (value == null) {
+            identity = value = computeIdentity();
+        }
+        return value;
+    }
+
+    /**
+     * Computes the value to be returned by {@link #isIdentity()}.
+     * This method is invoked only once; the result is cached.
+     *
+     * @return whether the source and target CRS are equivalent.
+     */
+    private boolean computeIdentity() {
         if (sourceCRS == targetCRS) {
             return true;
         }
@@ -515,7 +644,8 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
      * @return the {@code PJ} wrapper for the current thread.
      * @throws TransformException if the {@code PJ} object can not be created.
      */
-    private Transform acquire(final Context c) throws TransformException {
+    final Transform acquire(final Context c) throws TransformException {
+        final Transform[] transforms = pool.transforms;
         synchronized (transforms) {
             for (int i=transforms.length; --i >= 0;) {
                 final Transform tr = transforms[i];
@@ -526,7 +656,32 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
                 }
             }
         }
-        return new Transform(impl, c);
+        final OperationMetrics m = metrics();
+        if (m != null) {
+            m.poolMiss();
+        }
+        final Object event = Events.beginTransformCreation();
+        try {
+            return new Transform(pool.impl, c);
+        } finally {
+            Events.endTransformCreation(event, this);
+        }
+    }
+
+    /**
+     * Returns the counters of the use of this operation, or {@code null} if metrics are disabled.
+     *
+     * @return the counters to increment, or {@code null} if none.
+     */
+    final OperationMetrics metrics() {
+        if (!OperationMetrics.isEnabled()) {
+            return null;
+        }
+        OperationMetrics m = metrics;
+        if (m == null) {
+            metrics = m = OperationMetrics.forOperation(this);
+        }
+        return m;
     }
 
     /**
@@ -534,7 +689,8 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
      *
      * @param  tr  wrapper of the {@code PJ} to cache for reuse or to destroy.
      */
-    private void release(final Transform tr) {
+    final void release(final Transform tr) {
+        final Transform[] transforms = pool.transforms;
         synchronized (transforms) {
             for (int i=transforms.length; --i >= 0;) {
                 if (transforms[i] == null) {
@@ -547,6 +703,162 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
         tr.destroy();
     }
 
+    /**
+     * Returns the pure-Java implementation of this operation, or {@code null} if none.
+     * The PROJ string of this operation is inspected on the first invocation of this method.
+     * If that string describes a pipeline made only of no-op, axis swap, unit conversion or
+     * affine steps, then the coordinates will be transformed in Java without JNI call.
+     *
+     * @return the pure-Java implementation, or {@code null} if the operation shall be delegated to PROJ.
+     */
+    final AffinePipeline affine() {
+        Object value = affine;
+        if (value == null) {
+            AffinePipeline pipeline = null;
+            try (Context c = Context.acquire()) {
+                final String definition = impl.format(c, ReferencingFormat.Convention.PROJ_5.ordinal(), -1, false, false);
+                if (definition != null) {
+                    pipeline = AffinePipeline.parse(definition, Math.max(srcDim, dstDim));
+                }
+            } catch (UnformattableObjectException e) {
+                /*
+                 * Not a fatal error since the transformation can still be delegated to PROJ,
+                 * which will report the error if the PJ object can not be created.
+                 */
+                NativeResource.logger().log(Level.FINE, e.getLocalizedMessage(), e);
+            }
+            affine = value = (pipeline != null) ? pipeline : NOT_AFFINE;
+        }
+        return (value != NOT_AFFINE) ? (AffinePipeline) value : null;
+    }
+
+    /**
+     * Transforms in-place the coordinates in the given array, either in Java if the operation
+     * is a simple affine pipeline, or by delegating to PROJ otherwise.
+     *
+     * @param  dimension    the dimension of each coordinate tuple, which shall be {@code max(srcDim, dstDim)}.
+     * @param  coordinates  the coordinates to transform, as a sequence of (<var>x</var>,<var>y</var>,<var>z</var>,…) tuples.
+     * @param  offset       offset of the first coordinate in the given array.
+     * @param  numPts       number of points to transform.
+     * @throws TransformException if the operation failed.
+     */
+    private void transformInPlace(final int dimension, final double[] coordinates, final int offset, final int numPts)
+            throws TransformException
+    {
+        final OperationMetrics m = metrics();
+        final long start = (m != null) ? System.nanoTime() : 0;
+        final Object event = Events.beginTransform();
+        boolean failed = true;
+        try {
+            final AffinePipeline pipeline = affine();
+            if (pipeline != null) {
+                pipeline.transform(coordinates, offset, numPts);
+            } else try (Context c = Context.acquire()) {
+                final Transform tr = acquire(c);
+                try {
+                    tr.transform(dimension, coordinates, offset, numPts, pjInverse);
+                } finally {
+                    release(tr);
+                }
+            }
+            failed = false;
+        } finally {
+            Events.endTransform(event, this, numPts, dimension, failed);
+            if (m != null) {
+                m.record(numPts, System.nanoTime() - start, failed);
+            }
+        }
+    }
+
+    /**
+     * A batch operation executed with the {@code PJ} wrapper of the current thread.
+     *
+     * @see #execute(int, Batch)
+     */
+    @FunctionalInterface
+    private interface Batch {
+        /**
+         * Executes the batch operation.
+         *
+         * @param  tr       the {@code PJ} wrapper to use.
+         * @param  context  the context assigned to the {@code PJ} wrapper.
+         * @throws TransformException if the operation failed.
+         */
+        void run(Transform tr, Context context) throws TransformException;
+    }
+
+    /**
+     * Executes the given batch operation with a {@code PJ} wrapper fetched from the pool,
+     * and records the call in metrics and in a flight recorder event if enabled. This is used
+     * by all methods transforming many points other than {@link #transformInPlace transformInPlace(…)}.
+     *
+     * @param  numPts     number of points processed by the batch operation.
+     * @param  dimension  number of dimensions of the points.
+     * @param  batch      the operation to execute.
+     * @throws TransformException if the operation failed.
+     */
+    private void execute(final int numPts, final int dimension, final Batch batch) throws TransformException {
+        final OperationMetrics m = metrics();
+        final long start = (m != null) ? System.nanoTime() : 0;
+        final Object event = Events.beginTransform();
+        boolean failed = true;
+        try (Context c = Context.acquire()) {
+            final Transform tr = acquire(c);
+            try {
+                batch.run(tr, c);
+            } finally {
+                release(tr);
+            }
+            failed = false;
+        } finally {
+            Events.endTransform(event, this, numPts, dimension, failed);
+            if (m != null) {
+                m.record(numPts, System.nanoTime() - start, failed);
+            }
+        }
+    }
+
+    /**
+     * Transforms in-place one point with the given {@code PJ} wrapper, or with the pure-Java
+     * implementation if {@code tr} is null. This is used by {@link PointTransformer}, which
+     * keeps a {@code PJ} for many points.
+     *
+     * @param  tr      a {@code PJ} wrapper obtained by {@link #acquire(Context)}, or {@code null}
+     *                 if this operation is executed by the {@linkplain #affine() affine pipeline}.
+     * @param  buffer  coordinates of the point to transform, with a length of {@code max(srcDim, dstDim)}.
+     * @throws TransformException if the point can not be transformed.
+     */
+    final void transform(final Transform tr, final double[] buffer) throws TransformException {
+        final OperationMetrics m = metrics();
+        if (m == null) {
+            transformPoint(tr, buffer);
+            return;
+        }
+        final long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            transformPoint(tr, buffer);
+            failed = false;
+        } finally {
+            m.record(1, System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * Implementation of {@link #transform(Transform, double[])} without metrics.
+     *
+     * @param  tr      a {@code PJ} wrapper, or {@code null} for using the affine pipeline.
+     * @param  buffer  coordinates of the point to transform.
+     * @throws TransformException if the point can not be transformed.
+     */
+    private void transformPoint(final Transform tr, final double[] buffer) throws TransformException {
+        if (tr != null) {
+            tr.transform(buffer.length, buffer, 0, 1, pjInverse);
+        } else {
+            affine().transform(buffer, 0, 1);
+        }
+    }
+
     /**
      * Transforms the specified {@code ptSrc} and stores the result in {@code ptDst}.
      * If {@code ptDst} is {@code null}, a new {@link DirectPosition} object is allocated
@@ -571,16 +883,10 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
             ordinates[i] = ptSrc.getOrdinate(i);
         }
         /*
-         * Delegate the transform to PROJ, which will overwrite the coordinates in-place.
+         * Delegate the transform to PROJ (or to a Java implementation for trivial pipelines),
+         * which will overwrite the coordinates in-place.
          */
-        try (Context c = Context.acquire()) {
-            final Transform tr = acquire(c);
-            try {
-                tr.transform(ordinates.length, ordinates, 0, 1);
-            } finally {
-                release(tr);
-            }
-        }
+        transformInPlace(ordinates.length, ordinates, 0, 1);
         /*
          * Copy the result to final location.
          */
@@ -595,7 +901,7 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
             if (ordinates.length != dstDim) {
                 ordinates = Arrays.copyOf(ordinates, dstDim);
             }
-            ptDst = new SimpleDirectPosition(getCRS(1), ordinates);
+            ptDst = new SimpleDirectPosition(targetCRS, ordinates);
         }
         return ptDst;
     }
@@ -625,6 +931,10 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
      * The {@code srcPts} and {@code dstPts} arrays should not be the same array since this method does
      * not check if there is overlapping.
      *
+     * <p>When the number of dimensions differ, the copy is done with a plain loop instead of one call
+     * to {@link System#arraycopy System.arraycopy(…)} per point, because the overhead of that call is
+     * significant for the small number of dimensions (typically 2 or 3) copied for each point.</p>
+     *
      * @param srcPts  the array of source coordinates to copy in the buffer.
      * @param srcOff  index of the first coordinate to read in the source array.
      * @param srcDim  number of dimensions of points in the source array.
@@ -634,19 +944,19 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
      * @param n       number of points to copy. Must be greater than 0.
      */
     private static void copy(final double[] srcPts, int srcOff, final int srcDim,
-                             final double[] dstPts, int dstOff, final int dstDim, int n)
+                             final double[] dstPts, int dstOff, final int dstDim, final int n)
     {
-        n *= srcDim;
         if (srcDim == dstDim) {
-            System.arraycopy(srcPts, srcOff, dstPts, dstOff, n);
+            System.arraycopy(srcPts, srcOff, dstPts, dstOff, n * srcDim);
         } else {
             final int dimension = Math.min(srcDim, dstDim);
-            n += srcOff;
-            do {
-                System.arraycopy(srcPts, srcOff, dstPts, dstOff, dimension);
+            for (int p=0; p<n; p++) {
+                for (int i=0; i<dimension; i++) {
+                    dstPts[dstOff + i] = srcPts[srcOff + i];
+                }
                 srcOff += srcDim;
                 dstOff += dstDim;
-            } while (srcOff < n);
+            }
         }
     }
 
@@ -656,6 +966,9 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
      * In the later case, the destination array should be initialized
      * to zero because not all destination values will be written.
      *
+     * <p>If the number of dimensions are the same, the conversion is delegated to {@link ArrayKernels},
+     * which may use the Vector API (SIMD instructions) when available.</p>
+     *
      * @param srcPts  the array of source coordinates to copy in the buffer.
      * @param srcOff  index of the first coordinate to read in the source array.
      * @param srcDim  number of dimensions of points in the source array.
@@ -665,20 +978,17 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
      * @param n       number of points to copy. Must be greater than 0.
      */
     private static void floatsToDoubles(final float[]  srcPts, int srcOff, final int srcDim,
-                                        final double[] dstPts, int dstOff, final int dstDim, int n)
+                                        final double[] dstPts, int dstOff, final int dstDim, final int n)
     {
-        n *= srcDim;
-        final int skip = dstDim - srcDim;
-        int nextStop = (skip == 0) ? n : srcDim;
-        nextStop += srcOff;
-        dstOff   -= srcOff;
-        n        += srcOff;
-        for (;;) {
-            dstPts[dstOff + srcOff] = srcPts[srcOff];
-            if (++srcOff == nextStop) {
-                if (srcOff == n) break;
-                nextStop += srcDim;
-                dstOff   += skip;
+        if (srcDim == dstDim) {
+            ArrayKernels.INSTANCE.floatsToDoubles(srcPts, srcOff, dstPts, dstOff, n * srcDim);
+        } else {
+            for (int p=0; p<n; p++) {
+                for (int i=0; i<srcDim; i++) {
+                    dstPts[dstOff + i] = srcPts[srcOff + i];
+                }
+                srcOff += srcDim;
+                dstOff += dstDim;
             }
         }
     }
@@ -687,6 +997,9 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
      * Copies a buffer of double values into an array of float values.
      * The destination may have less dimensions than the source.
      *
+     * <p>If the number of dimensions are the same, the conversion is delegated to {@link ArrayKernels},
+     * which may use the Vector API (SIMD instructions) when available.</p>
+     *
      * @param srcPts  the buffer from where to read coordinate values.
      * @param srcOff  index of the first coordinate to read in the buffer.
      * @param srcDim  number of dimensions of points in the buffer. Must be ≥ {@code dstDim}.
@@ -696,20 +1009,17 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
      * @param n       number of points to copy. Must be greater than 0.
      */
     private static void doublesToFloats(final double[] srcPts, int srcOff, final int srcDim,
-                                        final float[]  dstPts, int dstOff, final int dstDim, int n)
+                                        final float[]  dstPts, int dstOff, final int dstDim, final int n)
     {
-        n *= dstDim;
-        final int skip = srcDim - dstDim;
-        int nextStop = (skip == 0) ? n : dstDim;
-        nextStop += dstOff;
-        srcOff   -= dstOff;
-        n        += dstOff;
-        for (;;) {
-            dstPts[dstOff] = (float) srcPts[srcOff + dstOff];
-            if (++dstOff == nextStop) {
-                if (dstOff == n) break;
-                nextStop += dstDim;
-                srcOff   += skip;
+        if (srcDim == dstDim) {
+            ArrayKernels.INSTANCE.doublesToFloats(srcPts, srcOff, dstPts, dstOff, n * dstDim);
+        } else {
+            for (int p=0; p<n; p++) {
+                for (int i=0; i<dstDim; i++) {
+                    dstPts[dstOff + i] = (float) srcPts[srcOff + i];
+                }
+                srcOff += srcDim;
+                dstOff += dstDim;
             }
         }
     }
@@ -773,17 +1083,11 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
                      buffer, bufOff, dimension, numPts);
             }
             /*
-             * Delegate the transform to PROJ, which will overwrite the coordinates in-place.
+             * Delegate the transform to PROJ (or to a Java implementation for trivial pipelines),
+             * which will overwrite the coordinates in-place.
              * If we used a temporary buffer, we will need to copy the results to `dstPts`.
              */
-            try (Context c = Context.acquire()) {
-                final Transform tr = acquire(c);
-                try {
-                    tr.transform(dimension, buffer, bufOff, numPts);
-                } finally {
-                    release(tr);
-                }
-            }
+            transformInPlace(dimension, buffer, bufOff, numPts);
             if (buffer != dstPts) {
                 copy(buffer, bufOff, dimension,
                      dstPts, dstOff, dstDim, numPts);
@@ -815,14 +1119,7 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
             final int dimension = Math.max(srcDim, dstDim);
             final double[] buffer = new double[dimension * numPts];
             floatsToDoubles(srcPts, srcOff, srcDim, buffer, 0, dimension, numPts);
-            try (Context c = Context.acquire()) {
-                final Transform tr = acquire(c);
-                try {
-                    tr.transform(dimension, buffer, 0, numPts);
-                } finally {
-                    release(tr);
-                }
-            }
+            transformInPlace(dimension, buffer, 0, numPts);
             doublesToFloats(buffer, 0, dimension, dstPts, dstOff, dstDim, numPts);
         }
     }
@@ -850,14 +1147,7 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
             final int dimension = Math.max(srcDim, dstDim);
             final double[] buffer = new double[dimension * numPts];
             copy(srcPts, srcOff, srcDim, buffer, 0, dimension, numPts);
-            try (Context c = Context.acquire()) {
-                final Transform tr = acquire(c);
-                try {
-                    tr.transform(dimension, buffer, 0, numPts);
-                } finally {
-                    release(tr);
-                }
-            }
+            transformInPlace(dimension, buffer, 0, numPts);
             doublesToFloats(buffer, 0, dimension, dstPts, dstOff, dstDim, numPts);
         }
     }
@@ -895,34 +1185,874 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
                 bufOff = 0;
             }
             floatsToDoubles(srcPts, srcOff, srcDim, buffer, bufOff, dimension, numPts);
-            try (Context c = Context.acquire()) {
+            transformInPlace(dimension, buffer, bufOff, numPts);
+            if (buffer != dstPts) {
+                copy(buffer, bufOff, dimension,
+                     dstPts, dstOff, dstDim, numPts);
+            }
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate points, transforming only once the points that are repeated.
+     * Duplicated points are detected by comparing the bit patterns of source coordinates with an
+     * open-addressing hash table of point indices, then only the distinct points are given to PROJ
+     * and the results are copied to all occurrences. This is useful for polygons sharing boundaries
+     * with their neighbours, or for closed rings where the last point repeats the first one.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned.
+     *                 May be the same than {@code srcPts}.
+     * @param  dstOff  the offset to the location of the first transformed point in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     * @throws IllegalArgumentException if an offset or number of points argument is invalid.
+     * @throws TransformException if a point can not be transformed.
+     */
+    final void transformDeduplicated(final double[] srcPts, final int srcOff,
+                                     final double[] dstPts, final int dstOff,
+                                     final int numPts) throws TransformException
+    {
+        if (numPts < 2 || numPts > (1 << 28) || affine() != null) {
+            // No duplicated point, hash table too large, or Java implementation cheaper than hashing.
+            transform(srcPts, srcOff, dstPts, dstOff, numPts);
+            return;
+        }
+        ensureValidRange(srcPts.length, srcOff, numPts, srcDim);
+        ensureValidRange(dstPts.length, dstOff, numPts, dstDim);
+        /*
+         * Assign to each point the index of its first occurrence among distinct points.
+         * The hash table contains (distinct index + 1), with 0 for empty slots. Its size
+         * is a power of 2 at least twice the number of points, for a load factor ≤ 0.5.
+         */
+        final int[] table = new int[Integer.highestOneBit(numPts - 1) << 2];
+        final int   mask  = table.length - 1;
+        final int[] first = new int[numPts];         // For each distinct point, index of first occurrence.
+        final int[] slot  = new int[numPts];         // For each point, index of the distinct point.
+        int count = 0;
+        for (int i=0, s=srcOff; i<numPts; i++, s += srcDim) {
+            long hash = 0;
+            for (int j=0; j<srcDim; j++) {
+                hash = (hash + Double.doubleToLongBits(srcPts[s+j])) * 0x9E3779B97F4A7C15L;
+            }
+            int h = (int) (hash ^ (hash >>> 32)) & mask;
+            int k;
+            while ((k = table[h]) != 0) {
+                if (sameCoordinates(srcPts, srcOff + first[k-1] * srcDim, s)) break;
+                h = (h + 1) & mask;
+            }
+            if (k == 0) {
+                first[count] = i;
+                table[h] = k = ++count;
+            }
+            slot[i] = k - 1;
+        }
+        /*
+         * Transform the distinct points, then copy the results to all occurrences.
+         */
+        final int dimension = Math.max(srcDim, dstDim);
+        final double[] buffer = new double[dimension * count];
+        for (int i=0, t=0; i<count; i++, t += dimension) {
+            System.arraycopy(srcPts, srcOff + first[i] * srcDim, buffer, t, srcDim);
+        }
+        transformInPlace(dimension, buffer, 0, count);
+        for (int i=0, d=dstOff; i<numPts; i++, d += dstDim) {
+            System.arraycopy(buffer, slot[i] * dimension, dstPts, d, dstDim);
+        }
+    }
+
+    /**
+     * Returns whether the points at the given indices have the same coordinates, compared bit by bit.
+     *
+     * @param  coordinates  the array containing the points to compare.
+     * @param  p1           index of the first coordinate of the first point.
+     * @param  p2           index of the first coordinate of the second point.
+     * @return whether the two points have the same coordinates.
+     */
+    private boolean sameCoordinates(final double[] coordinates, final int p1, final int p2) {
+        for (int j=0; j<srcDim; j++) {
+            if (Double.doubleToLongBits(coordinates[p1 + j]) != Double.doubleToLongBits(coordinates[p2 + j])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Number of bits per axis of the Hilbert curve used by {@link #transformInSpatialOrder transformInSpatialOrder(…)}.
+     * With 15 bits, the curve index of a point fits in 30 bits.
+     */
+    private static final int HILBERT_ORDER = 15;
+
+    /**
+     * Transforms a list of coordinate points after sorting them along a Hilbert curve.
+     * The results are written in the original order. This is useful for operations using datum shift
+     * or geoid grids, because PROJ caches only a few blocks of each grid: when consecutive points are
+     * far apart, blocks are loaded and discarded repetitively. Sorting costs a few array copies,
+     * so this method should not be used for operations which do not use grids.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned.
+     *                 May be the same than {@code srcPts}.
+     * @param  dstOff  the offset to the location of the first transformed point in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     * @throws IllegalArgumentException if an offset or number of points argument is invalid.
+     * @throws TransformException if a point can not be transformed.
+     */
+    final void transformInSpatialOrder(final double[] srcPts, final int srcOff,
+                                       final double[] dstPts, final int dstOff,
+                                       final int numPts) throws TransformException
+    {
+        if (numPts < 3 || srcDim < 2 || affine() != null) {
+            // Sorting would not reduce grid accesses.
+            transform(srcPts, srcOff, dstPts, dstOff, numPts);
+            return;
+        }
+        ensureValidRange(srcPts.length, srcOff, numPts, srcDim);
+        ensureValidRange(dstPts.length, dstOff, numPts, dstDim);
+        /*
+         * Compute the bounds of all finite points, for scaling coordinates to the Hilbert grid.
+         */
+        double xmin = Double.POSITIVE_INFINITY, xmax = Double.NEGATIVE_INFINITY;
+        double ymin = Double.POSITIVE_INFINITY, ymax = Double.NEGATIVE_INFINITY;
+        for (int i=0, s=srcOff; i<numPts; i++, s += srcDim) {
+            final double x = srcPts[s  ];
+            final double y = srcPts[s+1];
+            if (Double.isFinite(x) && Double.isFinite(y)) {
+                if (x < xmin) xmin = x;
+                if (x > xmax) xmax = x;
+                if (y < ymin) ymin = y;
+                if (y > ymax) ymax = y;
+            }
+        }
+        /*
+         * Sort (curve index, point index) pairs packed in long integers, so we can use the
+         * fast sort on primitive types. Points with non-finite coordinates are sorted last.
+         */
+        final int    cells  = 1 << HILBERT_ORDER;
+        final double xscale = (xmax > xmin) ? (cells - 1) / (xmax - xmin) : 0;
+        final double yscale = (ymax > ymin) ? (cells - 1) / (ymax - ymin) : 0;
+        final long[] order  = new long[numPts];
+        for (int i=0, s=srcOff; i<numPts; i++, s += srcDim) {
+            final double x = srcPts[s  ];
+            final double y = srcPts[s+1];
+            long key = 1L << (2 * HILBERT_ORDER);
+            if (Double.isFinite(x) && Double.isFinite(y)) {
+                key = hilbert((int) ((x - xmin) * xscale), (int) ((y - ymin) * yscale));
+            }
+            order[i] = (key << Integer.SIZE) | i;
+        }
+        Arrays.sort(order);
+        /*
+         * Gather source points in sorted order, transform them, then scatter them in original order.
+         */
+        final int dimension = Math.max(srcDim, dstDim);
+        final double[] buffer = new double[dimension * numPts];
+        for (int i=0, t=0; i<numPts; i++, t += dimension) {
+            System.arraycopy(srcPts, srcOff + ((int) order[i]) * srcDim, buffer, t, srcDim);
+        }
+        transformInPlace(dimension, buffer, 0, numPts);
+        for (int i=0, t=0; i<numPts; i++, t += dimension) {
+            System.arraycopy(buffer, t, dstPts, dstOff + ((int) order[i]) * dstDim, dstDim);
+        }
+    }
+
+    /**
+     * Returns the index of the given cell along a Hilbert curve covering a grid of
+     * 2<sup>{@value #HILBERT_ORDER}</sup> × 2<sup>{@value #HILBERT_ORDER}</sup> cells.
+     * Consecutive indices are adjacent cells.
+     *
+     * @param  x  column of the cell, from 0 inclusive to 2<sup>{@value #HILBERT_ORDER}</sup> exclusive.
+     * @param  y  row of the cell, from 0 inclusive to 2<sup>{@value #HILBERT_ORDER}</sup> exclusive.
+     * @return index of the cell along the Hilbert curve.
+     */
+    static long hilbert(int x, int y) {
+        final int last = (1 << HILBERT_ORDER) - 1;
+        long index = 0;
+        for (int s = 1 << (HILBERT_ORDER - 1); s > 0; s >>>= 1) {
+            final int rx = (x & s) != 0 ? 1 : 0;
+            final int ry = (y & s) != 0 ? 1 : 0;
+            index += (long) s * s * ((3 * rx) ^ ry);
+            if (ry == 0) {                          // Rotate the quadrant.
+                if (rx == 1) {
+                    x = last - x;
+                    y = last - y;
+                }
+                final int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Transforms approximately a sequence of points regularly spaced along a straight line in the
+     * source CRS, for example a row of pixel centers in a raster or a densified segment. The first,
+     * last and middle points are transformed exactly by PROJ. If the middle point differs from the
+     * linear interpolation of the first and last points by no more than the given tolerance, then
+     * all other points are interpolated linearly. Otherwise the sequence is split in two halves and
+     * the process is repeated on each half. This is the same strategy than GDAL's approximate
+     * transformer, except that the subdivision is done breadth-first: the middle points of all
+     * segments at the same subdivision level are transformed together in a single call to PROJ.
+     *
+     * <p>Interpolations are computed from point indices, so they are valid only if the source points
+     * are in order along the line with a constant spacing. This method verifies that condition first;
+     * if the points are not regularly spaced along a line, then all points are transformed exactly.</p>
+     *
+     * @param  srcPts     the array containing the source point coordinates.
+     * @param  srcOff     the offset to the first point to be transformed in the source array.
+     * @param  dstPts     the array into which the transformed point coordinates are returned.
+     *                    May be the same than {@code srcPts}.
+     * @param  dstOff     the offset to the location of the first transformed point in the destination array.
+     * @param  numPts     the number of point objects to be transformed.
+     * @param  tolerance  maximal error allowed in target CRS units. If zero, all points are transformed exactly.
+     * @throws IllegalArgumentException if an offset or number of points argument is invalid.
+     * @throws TransformException if a point can not be transformed.
+     */
+    final void transformAlongLine(double[] srcPts, int srcOff,
+                                  final double[] dstPts, final int dstOff,
+                                  final int numPts, final double tolerance) throws TransformException
+    {
+        if (numPts < 3 || !(tolerance > 0) || affine() != null) {
+            // Linear interpolation would not save anything, or would be exact anyway in the affine case.
+            transform(srcPts, srcOff, dstPts, dstOff, numPts);
+            return;
+        }
+        ensureValidRange(srcPts.length, srcOff, numPts, srcDim);
+        ensureValidRange(dstPts.length, dstOff, numPts, dstDim);
+        if (!isRegularLine(srcPts, srcOff, numPts)) {
+            // Interpolating between indices would mix unrelated points.
+            transform(srcPts, srcOff, dstPts, dstOff, numPts);
+            return;
+        }
+        if (srcPts == dstPts) {
+            // Source coordinates are still needed after we started to write interpolated values.
+            srcPts = Arrays.copyOfRange(srcPts, srcOff, srcOff + numPts * srcDim);
+            srcOff = 0;
+        }
+        final double[] source = srcPts;
+        final int sourceOffset = srcOff;
+        execute(numPts, srcDim, (tr, c) -> {
+            final LineApproximation approx = new LineApproximation(tr, source, sourceOffset, dstPts, dstOff, tolerance);
+            approx.exact(new int[] {0, numPts - 1}, 2);
+            approx.interpolate(0, numPts - 1);
+        });
+    }
+
+    /**
+     * Returns whether the given points are regularly spaced along a straight line, in order.
+     * Each coordinate of each point shall be equal to the linear interpolation of the first
+     * and last points at the index of that point, ignoring rounding errors.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point in the source array.
+     * @param  numPts  the number of points, at least 3.
+     * @return whether the points are regularly spaced along a straight line.
+     */
+    private boolean isRegularLine(final double[] srcPts, final int srcOff, final int numPts) {
+        final int last = srcOff + (numPts - 1) * srcDim;
+        for (int i=0; i<srcDim; i++) {
+            final double first = srcPts[srcOff + i];
+            final double delta = (srcPts[last + i] - first) / (numPts - 1);
+            final double eps   = 1E-10 * Math.max(Math.abs(first), Math.abs(srcPts[last + i]));
+            for (int p=1, k = srcOff + srcDim + i; p < numPts - 1; p++, k += srcDim) {
+                if (!(Math.abs(srcPts[k] - (first + p * delta)) <= eps)) {        // Use `!` for catching NaN.
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Helper class for {@link #transformAlongLine transformAlongLine(…)}.
+     * Holds the arrays and the {@code PJ} wrapper used during the subdivision.
+     */
+    private final class LineApproximation {
+        /** The {@code PJ} wrapper to use for exact transformations. */
+        private final Transform tr;
+
+        /** The source and destination arrays. */
+        private final double[] srcPts, dstPts;
+
+        /** Buffer for transforming the points of one subdivision level, expanded when needed. */
+        private double[] buffer;
+
+        /** Index of the first coordinate in source and destination arrays. */
+        private final int srcOff, dstOff;
+
+        /** Maximal error allowed in target CRS units. */
+        private final double tolerance;
+
+        /**
+         * Creates a new helper for the given arrays.
+         *
+         * @param  tr         the {@code PJ} wrapper to use for exact transformations.
+         * @param  srcPts     the array containing the source point coordinates.
+         * @param  srcOff     the offset to the first point to be transformed in the source array.
+         * @param  dstPts     the array into which the transformed point coordinates are returned.
+         * @param  dstOff     the offset to the location of the first transformed point in the destination array.
+         * @param  tolerance  maximal error allowed in target CRS units.
+         */
+        LineApproximation(final Transform tr, final double[] srcPts, final int srcOff,
+                          final double[] dstPts, final int dstOff, final double tolerance)
+        {
+            this.tr        = tr;
+            this.srcPts    = srcPts;
+            this.srcOff    = srcOff;
+            this.dstPts    = dstPts;
+            this.dstOff    = dstOff;
+            this.tolerance = tolerance;
+            this.buffer    = new double[Math.max(srcDim, dstDim) * 2];
+        }
+
+        /**
+         * Transforms exactly the points at the given indices in a single call to PROJ.
+         *
+         * @param  indices  indices of the points to transform.
+         * @param  count    number of valid elements in {@code indices}.
+         * @throws TransformException if a point can not be transformed.
+         */
+        void exact(final int[] indices, final int count) throws TransformException {
+            final int dimension = Math.max(srcDim, dstDim);
+            final int length    = count * dimension;
+            if (buffer.length < length) {
+                buffer = new double[length];
+            } else if (dimension != srcDim) {
+                Arrays.fill(buffer, 0, length, 0);
+            }
+            for (int i=0, t=0; i<count; i++, t += dimension) {
+                System.arraycopy(srcPts, srcOff + indices[i] * srcDim, buffer, t, srcDim);
+            }
+            tr.transform(dimension, buffer, 0, count, pjInverse);
+            for (int i=0, t=0; i<count; i++, t += dimension) {
+                System.arraycopy(buffer, t, dstPts, dstOff + indices[i] * dstDim, dstDim);
+            }
+        }
+
+        /**
+         * Computes all points between the given indices, exclusive.
+         * Points at the given indices shall have been transformed exactly before this method is invoked.
+         * Segments are subdivided level by level, and the middle points of all segments of the same level
+         * are transformed by a single call to {@link #exact(int[], int)}.
+         *
+         * <p>The segments of a level are disjoint and each one contains at least one interval, so there is
+         * at most {@code hi - lo} segments in a level and at most half as many segments to subdivide.
+         * The arrays are allocated once for those maximal sizes and reused for all levels.</p>
+         *
+         * @param  lo  index of the first point, already transformed.
+         * @param  hi  index of the last point, already transformed.
+         * @throws TransformException if a point can not be transformed.
+         */
+        void interpolate(final int lo, final int hi) throws TransformException {
+            final int   intervals = hi - lo;
+            final int[] mids      = new int[intervals / 2];
+            int[] segments = new int[intervals * 2];    // (lo, hi) pairs of the current level.
+            int[] next     = new int[intervals * 2];    // (lo, hi) pairs of the next level.
+            segments[0] = lo;
+            segments[1] = hi;
+            int count = 1;                              // Number of pairs in `segments`.
+            while (count != 0) {
+                /*
+                 * Keep only the segments having at least one point between their ends,
+                 * then transform the middle points of all those segments together.
+                 */
+                int n = 0;
+                for (int s=0; s<count; s++) {
+                    final int a = segments[s*2];
+                    final int b = segments[s*2 + 1];
+                    if (b - a >= 2) {
+                        segments[n*2]     = a;
+                        segments[n*2 + 1] = b;
+                        mids[n++] = (a + b) >>> 1;
+                    }
+                }
+                if (n == 0) break;
+                exact(mids, n);
+                /*
+                 * Interpolate the segments where the middle point is close enough to the linear
+                 * interpolation. Other segments are split in two halves for the next level.
+                 */
+                count = 0;
+next:           for (int s=0; s<n; s++) {
+                    final int    pl   = segments[s*2];
+                    final int    ph   = segments[s*2 + 1];
+                    final int    mid  = mids[s];
+                    final int    a    = dstOff + pl  * dstDim;
+                    final int    b    = dstOff + ph  * dstDim;
+                    final int    m    = dstOff + mid * dstDim;
+                    final double span = ph - pl;
+                    final double t    = (mid - pl) / span;
+                    for (int i=0; i<dstDim; i++) {
+                        final double expected = dstPts[a+i] + t * (dstPts[b+i] - dstPts[a+i]);
+                        if (!(Math.abs(dstPts[m+i] - expected) <= tolerance)) {       // Use `!` for catching NaN.
+                            next[count*2]     = pl;
+                            next[count*2 + 1] = mid;
+                            next[count*2 + 2] = mid;
+                            next[count*2 + 3] = ph;
+                            count += 2;
+                            continue next;
+                        }
+                    }
+                    for (int p = pl+1; p < ph; p++) {
+                        if (p != mid) {
+                            final double f = (p - pl) / span;
+                            final int    d = dstOff + p * dstDim;
+                            for (int i=0; i<dstDim; i++) {
+                                dstPts[d+i] = dstPts[a+i] + f * (dstPts[b+i] - dstPts[a+i]);
+                            }
+                        }
+                    }
+                }
+                final int[] swap = segments;
+                segments = next;
+                next = swap;
+            }
+        }
+    }
+
+    /**
+     * Computes the coordinates of the centers of all cells in a regular grid, as a map of
+     * (<var>x</var>,<var>y</var>) tuples in target CRS. This operation is typically from the CRS
+     * of the raster to create to the CRS of the raster to resample, in which case the map gives
+     * the location in the source raster of each pixel of the target raster. Rows are computed
+     * in parallel, each worker thread using a single row buffer and a single pooled {@code PJ}.
+     * Cells that can not be transformed are set to {@link Double#NaN}.
+     *
+     * <p>Exactly one of {@code dmap} and {@code fmap} shall be non-null.</p>
+     *
+     * @param  x0      coordinate of the grid corner along the first source axis.
+     * @param  y0      coordinate of the grid corner along the second source axis.
+     * @param  dx      cell size along the first source axis (may be negative).
+     * @param  dy      cell size along the second source axis (may be negative).
+     * @param  width   number of cells along the first source axis.
+     * @param  height  number of cells along the second source axis.
+     * @param  dmap    the array where to write the map in double precision, or {@code null}.
+     * @param  fmap    the array where to write the map in single precision, or {@code null}.
+     * @param  mapOff  index of the first element to write in the map array.
+     * @throws MismatchedDimensionException if the source or target CRS is not at least two-dimensional.
+     * @throws IllegalArgumentException if the grid size or the offset is invalid.
+     * @throws TransformException if the {@code PJ} object can not be created.
+     */
+    final void warpMap(final double x0, final double y0, final double dx, final double dy,
+                       final int width, final int height, final double[] dmap, final float[] fmap,
+                       final int mapOff) throws TransformException
+    {
+        if (srcDim < 2 || dstDim < 2) {
+            throw new MismatchedDimensionException("Warp map computation requires at least two dimensions.");
+        }
+        if (width < 0 || height < 0 || (long) width * Math.max(srcDim, dstDim) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Illegal grid size: " + width + " × " + height);
+        }
+        /*
+         * Check bounds with `long` arithmetic instead of `ensureValidRange(…)`,
+         * because the number of map elements may not fit in an `int`.
+         */
+        final int  length   = (dmap != null) ? dmap.length : fmap.length;
+        final long required = 2L * width * height;
+        if (mapOff < 0 || mapOff > length) {
+            throw new IllegalArgumentException("Offset " + mapOff + " is out of bounds.");
+        }
+        if (required > length - mapOff) {
+            throw new IllegalArgumentException("A map of " + width + " × " + height + " cells exceeds array capacity by "
+                        + (required - (length - mapOff)) + " elements.");
+        }
+        if (width == 0 || height == 0) {
+            return;
+        }
+        /*
+         * Metrics and events are recorded once for the whole map rather than by each worker,
+         * so the call count is the number of `warpMap(…)` invocations.
+         */
+        final OperationMetrics m = metrics();
+        final long start = (m != null) ? System.nanoTime() : 0;
+        final Object event = Events.beginTransform();
+        boolean failed = true;
+        try {
+            // Inspect the pipeline before to start the workers, so they do not all try concurrently.
+            final WarpMap task = new WarpMap(affine(), x0, y0, dx, dy, width, height, dmap, fmap, mapOff);
+            final int numWorkers = Math.min(height, Math.min(NUM_THREADS, Runtime.getRuntime().availableProcessors()));
+            if (numWorkers <= 1) {
+                task.call();
+            } else {
+                final List<Future<Void>> workers;
+                try {
+                    workers = ForkJoinPool.commonPool().invokeAll(Collections.nCopies(numWorkers, task));
+                    for (final Future<Void> worker : workers) {
+                        worker.get();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new TransformException("Warp map computation has been interrupted.", e);
+                } catch (ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof TransformException) throw (TransformException) cause;
+                    if (cause instanceof RuntimeException)   throw (RuntimeException)   cause;
+                    if (cause instanceof Error)              throw (Error)              cause;
+                    throw new TransformException(cause.getLocalizedMessage(), cause);
+                }
+            }
+            failed = false;
+        } finally {
+            Events.endTransform(event, this, (long) width * height, 2, failed);
+            if (m != null) {
+                m.record((long) width * height, System.nanoTime() - start, failed);
+            }
+        }
+    }
+
+    /**
+     * Helper class for {@link #warpMap warpMap(…)}. The same instance is executed by all worker threads.
+     * Each worker takes the next row to compute until all rows have been computed, so the work load is
+     * balanced even if some rows are more costly than others.
+     */
+    private final class WarpMap implements Callable<Void> {
+        /** The pure-Java implementation of this operation, or {@code null} if delegated to PROJ. */
+        private final AffinePipeline pipeline;
+
+        /** Coordinates of the grid corner and cell size. */
+        private final double x0, y0, dx, dy;
+
+        /** Number of cells in the grid. */
+        private final int width, height;
+
+        /** The array where to write the map in double or single precision. Only one is non-null. */
+        private final double[] dmap;
+
+        /** The array where to write the map in double or single precision. Only one is non-null. */
+        private final float[] fmap;
+
+        /** Index of the first element to write in the map array. */
+        private final int mapOff;
+
+        /** Index of the next row to compute. */
+        private final AtomicInteger nextRow;
+
+        /**
+         * Creates a new task. See {@link #warpMap warpMap(…)} for a description of arguments.
+         * The pipeline is the value of {@link #affine()}, computed once by the caller.
+         */
+        WarpMap(final AffinePipeline pipeline, final double x0, final double y0, final double dx, final double dy,
+                final int width, final int height, final double[] dmap, final float[] fmap, final int mapOff)
+        {
+            this.pipeline = pipeline;
+            this.x0       = x0;
+            this.y0       = y0;
+            this.dx       = dx;
+            this.dy       = dy;
+            this.width    = width;
+            this.height   = height;
+            this.dmap     = dmap;
+            this.fmap     = fmap;
+            this.mapOff   = mapOff;
+            this.nextRow  = new AtomicInteger();
+        }
+
+        /**
+         * Computes rows until there is no more row to compute.
+         *
+         * @return {@code null}.
+         * @throws TransformException if the {@code PJ} object can not be created.
+         */
+        @Override
+        public Void call() throws TransformException {
+            if (pipeline != null) {
+                computeRows(pipeline, null);
+            } else try (Context c = Context.acquire()) {
                 final Transform tr = acquire(c);
                 try {
-                    tr.transform(dimension, buffer, 0, numPts);
+                    computeRows(null, tr);
                 } finally {
                     release(tr);
                 }
             }
-            if (buffer != dstPts) {
-                copy(buffer, bufOff, dimension,
-                     dstPts, dstOff, dstDim, numPts);
+            return null;
+        }
+
+        /**
+         * Computes rows with the given Java pipeline or {@code PJ} wrapper until there is no more row to compute.
+         * Exactly one of the given arguments shall be non-null.
+         *
+         * @param  pipeline  the pure-Java implementation of this operation, or {@code null}.
+         * @param  tr        the {@code PJ} wrapper to use, or {@code null}.
+         */
+        private void computeRows(final AffinePipeline pipeline, final Transform tr) {
+            final int dimension = Math.max(srcDim, dstDim);
+            final double[] buffer = new double[width * dimension];
+            int row;
+            while ((row = nextRow.getAndIncrement()) < height) {
+                final double y = y0 + (row + 0.5) * dy;
+                Arrays.fill(buffer, 0);
+                for (int i=0, j=0; i<width; i++, j += dimension) {
+                    buffer[j  ] = x0 + (i + 0.5) * dx;
+                    buffer[j+1] = y;
+                }
+                if (pipeline != null) {
+                    pipeline.transform(buffer, 0, width);
+                } else {
+                    try {
+                        tr.transform(dimension, buffer, 0, width, pjInverse);
+                    } catch (TransformException e) {
+                        // PROJ transformed all points of the row before to report the error.
+                    }
+                    /*
+                     * Points that failed have infinite coordinates (HUGE_VAL); replace them by NaN.
+                     * This is done even if no exception has been thrown, because PROJ may report
+                     * failures of individual points only by those infinite values.
+                     */
+                    for (int j=0; j<buffer.length; j += dimension) {
+                        if (Double.isInfinite(buffer[j]) || Double.isInfinite(buffer[j+1])) {
+                            buffer[j] = buffer[j+1] = Double.NaN;
+                        }
+                    }
+                }
+                int t = mapOff + row * (width * 2);
+                if (dmap != null) {
+                    for (int j=0; j<buffer.length; j += dimension) {
+                        dmap[t++] = buffer[j  ];
+                        dmap[t++] = buffer[j+1];
+                    }
+                } else {
+                    for (int j=0; j<buffer.length; j += dimension) {
+                        fmap[t++] = (float) buffer[j  ];
+                        fmap[t++] = (float) buffer[j+1];
+                    }
+                }
             }
         }
     }
 
     /**
-     * The PROJ library does not provide derivative functions.
+     * Gets the derivative of this transform at a point. The PROJ library does not provide derivative
+     * functions for all operations, so this method estimates the derivative by centred finite differences.
+     * The step size is proportional to the magnitude of each coordinate value.
      *
+     * @param  point  the coordinate point where to evaluate the derivative.
      * @return the derivative at the given position.
+     * @throws MismatchedDimensionException if {@code point} does not have the expected dimension.
      * @throws TransformException if the derivative can not be computed.
      */
     @Override
     public Matrix derivative(final DirectPosition point) throws TransformException {
-        throw new TransformException(NativeResource.UNSUPPORTED);
+        if (point == null) {
+            throw new TransformException("The position where to evaluate the derivative is mandatory.");
+        }
+        if (point.getDimension() != srcDim) {
+            throw new MismatchedDimensionException();
+        }
+        final SimpleMatrix derivative = new SimpleMatrix(dstDim, srcDim);
+        derivatives(point.getCoordinate(), 0, derivative.elements, 0, 1);
+        return derivative;
+    }
+
+    /**
+     * Computes the Jacobian matrices at many points in a single native call.
+     * Each matrix has {@link #getTargetDimensions()} rows and {@link #getSourceDimensions()} columns
+     * and is stored in row-major order in the {@code jacobians} array, one matrix after the other.
+     * Elements of matrices computed at points that can not be transformed are set to {@link Double#NaN}.
+     *
+     * @param  srcPts     the points where to evaluate the derivatives.
+     * @param  srcOff     offset of the first point coordinate in the {@code srcPts} array.
+     * @param  jacobians  the array where to write the matrix elements.
+     * @param  jacOff     offset of the first matrix element to write in the {@code jacobians} array.
+     * @param  numPts     number of points where to evaluate the derivatives.
+     * @throws IllegalArgumentException if an offset or number of points argument is invalid.
+     * @throws TransformException if the derivative can not be computed for at least one point.
+     */
+    final void derivatives(final double[] srcPts, final int srcOff,
+                           final double[] jacobians, final int jacOff,
+                           final int numPts) throws TransformException
+    {
+        if (numPts > 0) {
+            ensureValidRange(srcPts.length, srcOff, numPts, srcDim);
+            ensureValidRange(jacobians.length, jacOff, numPts, srcDim * dstDim);
+            execute(numPts, srcDim, (tr, c) -> tr.derivatives(srcDim, dstDim, srcPts, srcOff, numPts, jacobians, jacOff, pjInverse));
+        }
+    }
+
+    /**
+     * Transforms a bounding box in a single native call. Each edge of the box is densified with
+     * {@code densifyPoints} intermediate points before transformation, then the smallest box
+     * containing all transformed points is returned. Coordinates are in the axis order of the
+     * source and target CRS; only the two first dimensions are considered.
+     * If the target CRS is geographic, the box is expanded to the pole and to all longitudes
+     * when the source box contains a pole, and the minimal longitude is greater than the
+     * maximal longitude when the box crosses the anti-meridian.
+     *
+     * @param  xmin           minimal coordinate value along the first source axis.
+     * @param  ymin           minimal coordinate value along the second source axis.
+     * @param  xmax           maximal coordinate value along the first source axis.
+     * @param  ymax           maximal coordinate value along the second source axis.
+     * @param  densifyPoints  number of points to add between the corners of each edge.
+     * @return the transformed box as (<var>x</var><sub>min</sub>, <var>y</var><sub>min</sub>,
+     *         <var>x</var><sub>max</sub>, <var>y</var><sub>max</sub>) in target CRS.
+     * @throws MismatchedDimensionException if the source or target CRS is not at least two-dimensional.
+     * @throws IllegalArgumentException if the bounds are invalid or {@code densifyPoints} is negative.
+     * @throws TransformException if no point of the bounding box can be transformed.
+     */
+    final double[] transformBounds(final double xmin, final double ymin,
+                                   final double xmax, final double ymax,
+                                   final int densifyPoints) throws TransformException
+    {
+        if (srcDim < 2 || dstDim < 2) {
+            throw new MismatchedDimensionException("Bounding box transformation requires at least two dimensions.");
+        }
+        if (!(xmin <= xmax && ymin <= ymax)) {
+            throw new IllegalArgumentException("Invalid bounding box: minimal values shall not be greater than maximal values.");
+        }
+        if (densifyPoints < 0 || densifyPoints >= Integer.MAX_VALUE / 8) {
+            throw new IllegalArgumentException("Illegal number of densification points: " + densifyPoints);
+        }
+        /*
+         * If the target CRS is geographic, find the longitude axis and its period
+         * for handling the poles and the anti-meridian.
+         */
+        int longitudeAxis = -1;
+        double period = 0;
+        final CoordinateReferenceSystem crs = getTargetCRS();
+        if (crs instanceof GeographicCRS) {
+            final CoordinateSystem cs = crs.getCoordinateSystem();
+            for (int i=0; i<2; i++) {
+                final CoordinateSystemAxis axis = cs.getAxis(i);
+                final AxisDirection dir = axis.getDirection();
+                if (AxisDirection.EAST.equals(dir) || AxisDirection.WEST.equals(dir)) {
+                    period = period(axis.getUnit());
+                    if (period > 0) longitudeAxis = i;
+                    break;
+                }
+            }
+        }
+        final int    lonAxis  = longitudeAxis;
+        final double lonTurn  = period;
+        final double[] bounds = {xmin, ymin, xmax, ymax};
+        execute(4 * (densifyPoints + 1), 2, (tr, c) -> tr.transformBounds(c, bounds, densifyPoints, lonAxis, lonTurn, pjInverse));
+        return bounds;
     }
 
     /**
-     * Returns the inverse transform.
+     * Returns the number of units in a full turn for the given angular unit,
+     * or 0 if the unit is not one of the predefined angular units.
+     *
+     * @param  unit  the unit of longitude values.
+     * @return number of units in a full turn, or 0 if unknown.
+     */
+    private static double period(final Unit<?> unit) {
+        if (Units.DEGREE.equals(unit)) return 360;
+        if (Units.GRAD  .equals(unit)) return 400;
+        if (Units.RADIAN.equals(unit)) return 2*Math.PI;
+        return 0;
+    }
+
+    /**
+     * Transforms in-place coordinates stored as scaled integers, as in LAS point cloud files.
+     * The coordinate value of an integer <var>i</var> in dimension <var>d</var> is
+     * <var>i</var> × {@code sourceScale[d]} + {@code sourceOffset[d]} before transformation and
+     * <var>i</var> × {@code targetScale[d]} + {@code targetOffset[d]} after transformation.
+     * The dimension of coordinate tuples is the length of the scale and offset arrays,
+     * which shall be both the source and target dimension of this operation.
+     *
+     * @param  coordinates   the coordinates to transform, as a sequence of (<var>x</var>,<var>y</var>,<var>z</var>,…) tuples.
+     * @param  offset        offset of the first coordinate in the given array.
+     * @param  numPts        number of points to transform.
+     * @param  sourceScale   scale factors of source coordinates.
+     * @param  sourceOffset  offsets of source coordinates.
+     * @param  targetScale   scale factors of target coordinates.
+     * @param  targetOffset  offsets of target coordinates.
+     * @throws MismatchedDimensionException if the length of scale and offset arrays is not equal
+     *         to the source and target dimensions of this operation.
+     * @throws IllegalArgumentException if the arrays do not have the same length, or if that length
+     *         is not between 1 and 4, or if an offset or number of points argument is invalid.
+     * @throws TransformException if at least one point can not be transformed.
+     */
+    final void transformScaled(final int[] coordinates, final int offset, final int numPts,
+                               final double[] sourceScale, final double[] sourceOffset,
+                               final double[] targetScale, final double[] targetOffset) throws TransformException
+    {
+        final int dimension = sourceScale.length;
+        if (dimension < 1 || dimension > 4) {
+            throw new IllegalArgumentException("Illegal number of dimensions: " + dimension);
+        }
+        if (sourceOffset.length != dimension || targetScale.length != dimension || targetOffset.length != dimension) {
+            throw new IllegalArgumentException("Scale and offset arrays shall have the same length.");
+        }
+        if (dimension != srcDim || dimension != dstDim) {
+            throw new MismatchedDimensionException("Scale and offset arrays have " + dimension + " dimensions but "
+                    + "the operation has " + srcDim + " source and " + dstDim + " target dimensions.");
+        }
+        for (final double scale : targetScale) {
+            if (!(scale != 0 && Double.isFinite(scale))) {
+                throw new IllegalArgumentException("Illegal target scale factor: " + scale);
+            }
+        }
+        if (numPts > 0) {
+            ensureValidRange(coordinates.length, offset, numPts, dimension);
+            final double[] quantization = new double[dimension * 4];
+            System.arraycopy(sourceScale,  0, quantization, 0,             dimension);
+            System.arraycopy(sourceOffset, 0, quantization, dimension,     dimension);
+            System.arraycopy(targetScale,  0, quantization, dimension * 2, dimension);
+            System.arraycopy(targetOffset, 0, quantization, dimension * 3, dimension);
+            execute(numPts, dimension, (tr, c) -> tr.transformScaled(dimension, coordinates, offset, numPts, quantization, pjInverse));
+        }
+    }
+
+    /**
+     * Transforms in-place all vertices of a geometry encoded in <cite>Well Known Binary</cite> (WKB) format.
+     * The geometry starts at the buffer position, and the position is set after the end of the geometry
+     * on return. Coordinates are given to the operation in the order they appear in the WKB bytes.
+     *
+     * @param  wkb  the buffer containing the WKB geometry to transform.
+     * @throws ReadOnlyBufferException if the given buffer is read-only.
+     * @throws MismatchedDimensionException if this operation changes the number of dimensions.
+     * @throws IllegalArgumentException if the WKB geometry is malformed, uses an unsupported geometry type
+     *         or has vertices of a dimension different than the operation dimension (ignoring <var>m</var>).
+     * @throws TransformException if at least one vertex can not be transformed. In such case the buffer is unchanged.
+     */
+    final void transformWKB(final ByteBuffer wkb) throws TransformException {
+        if (wkb.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        if (srcDim != dstDim) {
+            throw new MismatchedDimensionException("In-place WKB transformation requires the same number "
+                    + "of source and target dimensions, but got " + srcDim + " and " + dstDim + '.');
+        }
+        /*
+         * Not using `execute(…)` because the number of vertices is known only after the native call.
+         * That number is returned in the high 32 bits, and the number of bytes in the low 32 bits.
+         */
+        final OperationMetrics m = metrics();
+        final long start = (m != null) ? System.nanoTime() : 0;
+        final Object event = Events.beginTransform();
+        final int position = wkb.position();
+        long result = 0;
+        boolean failed = true;
+        try (Context c = Context.acquire()) {
+            final Transform tr = acquire(c);
+            try {
+                if (wkb.isDirect()) {
+                    result = tr.transformWKB(srcDim, wkb, null, position, wkb.remaining(), pjInverse);
+                } else {
+                    result = tr.transformWKB(srcDim, null, wkb.array(), wkb.arrayOffset() + position, wkb.remaining(), pjInverse);
+                }
+            } finally {
+                release(tr);
+            }
+            failed = false;
+        } finally {
+            final int numPts = (int) (result >>> Integer.SIZE);
+            Events.endTransform(event, this, numPts, srcDim, failed);
+            if (m != null) {
+                m.record(numPts, System.nanoTime() - start, failed);
+            }
+        }
+        wkb.position(position + (int) result);
+    }
+
+    /**
+     * Returns the inverse transform. If the PROJ pipeline of this operation is invertible,
+     * then the inverse operation executes the {@code PJ} objects of this operation in the
+     * inverse direction instead of creating its own {@code PJ} objects.
      *
      * @return the inverse transform.
      * @throws NoninvertibleTransformException if the inverse transform can not be computed.
@@ -930,9 +2060,51 @@ class Operation extends ParameterGroup implements CoordinateOperation, MathTrans
     @Override
     public synchronized MathTransform inverse() throws NoninvertibleTransformException {
         if (inverse == null) {
-            inverse = (Operation) impl.inverse();
-            inverse.inverse = this;
+            Operation op;
+            if (hasInverse()) {
+                final long ptr = impl.inversePointer();
+                if (this instanceof Conversion) {
+                    op = new Conversion(ptr, this);
+                } else if (this instanceof Transformation) {
+                    op = new Transformation(ptr, this);
+                } else {
+                    op = new Operation(ptr, this);
+                }
+                op = (Operation) op.releaseWhenUnreachable();     // May be an existing wrapper of PROJ object.
+            } else {
+                op = (Operation) impl.inverse();
+                op.inverse = this;
+            }
+            inverse = op;
         }
         return inverse;
     }
+
+    /**
+     * Returns whether the {@code PJ} objects of this operation can be executed in the inverse direction.
+     * This method is invoked by {@link #inverse()} only, for deciding if the inverse operation can share
+     * the pool of {@code PJ} objects of this operation.
+     *
+     * @return whether the {@code PJ} objects of this operation have an inverse.
+     */
+    private boolean hasInverse() {
+        if (pool != this) {
+            return false;           // Should not happen since `inverse` is already set in that case.
+        }
+        try (Context c = Context.acquire()) {
+            final Transform tr = acquire(c);
+            try {
+                return tr.hasInverse();
+            } finally {
+                release(tr);
+            }
+        } catch (TransformException e) {
+            /*
+             * Not a fatal error since the inverse operation can still try to create its own PJ objects.
+             * If the creation fails again, the error will be reported when the inverse operation is used.
+             */
+            NativeResource.logger().log(Level.FINE, e.getLocalizedMessage(), e);
+            return false;
+        }
+    }
 }
@@ -23,6 +23,9 @@ package org.kortforsyningen.proj;
 
 import java.util.Map;
 import java.util.List;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Objects;
 import org.opengis.metadata.citation.Citation;
 import org.opengis.metadata.extent.Extent;
 import org.opengis.metadata.extent.GeographicExtent;
@@ -140,17 +143,21 @@ final class OperationFactory implements CoordinateOperationFactory {
                 }
             }
         }
-        final Operation result;
+        Operation[] operations = null;
+        final Object event = Events.beginOperationSearch();
         try (Context c = Context.acquire()) {
-            result = c.factory(authority).createOperation(
+            operations = c.factory(authority).createOperations(
                         sourceCRS.impl,     targetCRS.impl,
                         westBoundLongitude, eastBoundLongitude,
                         southBoundLatitude, northBoundLatitude,
                         desiredAccuracy,
                         sourceAndTargetCRSExtentUse, spatialCriterion, gridAvailabilityUse, allowUseIntermediateCRS,
                         discardSuperseded);
+        } finally {
+            // The event is recorded with a count of -1 if the search failed.
+            Events.endOperationSearch(event, sourceCRS, targetCRS, (operations != null) ? operations.length : -1);
         }
-        return java.util.Collections.singletonList(result);
+        return Collections.unmodifiableList(Arrays.asList(operations));
     }
 
     /**
@@ -199,17 +206,37 @@ final class OperationFactory implements CoordinateOperationFactory {
 
     /**
      * Creates a concatenated operation from a sequence of operations.
+     * The target CRS of each operation shall be the source CRS of the next operation.
+     * The name, domain of validity and accuracy of the concatenated operation are computed
+     * from the given operations. The computed name can be replaced by the {@code "name"} property,
+     * and identifiers, remarks or scope can be given by the corresponding properties.
+     * Properties can not be given if there is only one operation, since that operation
+     * is returned unchanged.
      *
-     * @param  properties  name and other properties to give to the new object.
+     * <p>The returned operation is executed as a single PROJ pipeline. Consequently transforming
+     * coordinates with the concatenated operation is more efficient than transforming them with
+     * each operation in sequence, since it requires only one pass over the coordinate arrays.</p>
+     *
+     * @param  properties  name and other properties to give to the new object, or an empty map for the computed ones.
      * @param  operations  the sequence of operations.
      * @return the concatenated operation.
-     * @throws FactoryException if the object creation failed.
+     * @throws UnsupportedImplementationException if an operation is not a PROJ-JNI implementation.
+     * @throws FactoryException if the object creation failed, or if properties are given for a single operation.
      */
     @Override
     public CoordinateOperation createConcatenatedOperation(final Map<String,?> properties,
             final CoordinateOperation... operations) throws FactoryException
     {
-        throw new FactoryException("Not supported yet.");
+        switch (operations.length) {
+            case 0:  throw new FactoryException("At least one coordinate operation is required.");
+            case 1: {
+                if (!properties.isEmpty()) {
+                    throw new FactoryException("Can not assign properties to a single coordinate operation.");
+                }
+                return Objects.requireNonNull(operations[0]);
+            }
+            default: return ObjectFactory.INSTANCE.createConcatenatedOperation(properties, operations);
+        }
     }
 
     /**
@@ -0,0 +1,256 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.logging.Level;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.lang.management.ManagementFactory;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+
+
+/**
+ * Counters of the use of a coordinate operation for transforming points.
+ * Counters are shared by all operations having the same name, source CRS and target CRS,
+ * so the number of instances is bounded by the number of distinct pairs of CRS used by the
+ * application, even if operations are created and garbage-collected repeatedly.
+ *
+ * <p>Metrics are disabled by default. When disabled, the only cost for {@link Operation}
+ * is the check of the {@link #enabled} flag. Metrics can be enabled at startup time by setting
+ * the "{@code org.kortforsyningen.proj.metrics}" system property to {@code true}.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+final class OperationMetrics {
+    /**
+     * Whether metrics are collected for all coordinate operations.
+     */
+    private static volatile boolean enabled;
+
+    /**
+     * Whether the {@link TransformMetricsMXBean} has been registered (successfully or not).
+     */
+    private static boolean registered;
+
+    /**
+     * All counters created since metrics have been enabled.
+     * Keys are built from the operation name, source CRS and target CRS.
+     */
+    private static final ConcurrentMap<String,OperationMetrics> REGISTRY = new ConcurrentHashMap<>();
+
+    /**
+     * Reads the system property for enabling metrics at startup time.
+     */
+    static {
+        Boolean b = Boolean.FALSE;
+        try {
+            /*
+             * The AccessController is used for reading the property value in a security constrained environment.
+             * It has no effect on the common case where no security manager is enforced. We must promise to not
+             * execute any user-supplied parameter in the privileged block.
+             */
+            b = AccessController.doPrivileged((PrivilegedAction<Boolean>) () ->
+                    Boolean.getBoolean("org.kortforsyningen.proj.metrics"));
+        } catch (SecurityException e) {
+            NativeResource.logger().log(Level.FINE, e.getLocalizedMessage(), e);
+        }
+        if (b) {
+            setEnabled(true);
+        }
+    }
+
+    /**
+     * Name of the coordinate operation.
+     */
+    private final String operation;
+
+    /**
+     * Identifier or name of source and target CRS, or {@code null} if unknown.
+     */
+    private final String sourceCRS, targetCRS;
+
+    /**
+     * The counters. See {@link TransformMetrics} for a description.
+     */
+    private final LongAdder callCount, pointCount, transformTime, errorCount, poolMissCount;
+
+    /**
+     * Creates new counters initialized to zero.
+     *
+     * @param  operation  name of the coordinate operation.
+     * @param  sourceCRS  identifier or name of the source CRS, or {@code null} if unknown.
+     * @param  targetCRS  identifier or name of the target CRS, or {@code null} if unknown.
+     */
+    private OperationMetrics(final String operation, final String sourceCRS, final String targetCRS) {
+        this.operation = operation;
+        this.sourceCRS = sourceCRS;
+        this.targetCRS = targetCRS;
+        callCount      = new LongAdder();
+        pointCount     = new LongAdder();
+        transformTime  = new LongAdder();
+        errorCount     = new LongAdder();
+        poolMissCount  = new LongAdder();
+    }
+
+    /**
+     * Returns whether metrics are collected for all coordinate operations.
+     *
+     * @return whether metrics are collected.
+     */
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables the collection of metrics for all coordinate operations.
+     * The management interface is registered the first time that metrics are enabled.
+     *
+     * @param  value  whether to collect metrics.
+     */
+    static void setEnabled(final boolean value) {
+        if (value) {
+            synchronized (REGISTRY) {
+                if (!registered) {
+                    registered = true;
+                    register();
+                }
+            }
+        }
+        enabled = value;
+    }
+
+    /**
+     * Registers the management interface in the platform MBean server.
+     * A failure to register is not fatal since metrics are still available by {@link Proj#getMetrics()}.
+     */
+    private static void register() {
+        try {
+            AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
+                try {
+                    ManagementFactory.getPlatformMBeanServer().registerMBean(
+                            new Bean(), new ObjectName(TransformMetricsMXBean.OBJECT_NAME));
+                } catch (JMException e) {
+                    NativeResource.logger().log(Level.FINE, e.getLocalizedMessage(), e);
+                }
+                return null;
+            });
+        } catch (SecurityException e) {
+            NativeResource.logger().log(Level.FINE, e.getLocalizedMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the counters for the given operation, creating them if needed.
+     *
+     * @param  op  the operation for which to get the counters.
+     * @return counters for the given operation.
+     */
+    static OperationMetrics forOperation(final Operation op) {
+        final String name   = op.getNameString(false);
+        final String source = label(op.getSourceCRS());
+        final String target = label(op.getTargetCRS());
+        return REGISTRY.computeIfAbsent(name + '\u0000' + source + '\u0000' + target,
+                                        (key) -> new OperationMetrics(name, source, target));
+    }
+
+    /**
+     * Returns the identifier or name of the given CRS.
+     *
+     * @param  crs  the CRS for which to get a label, or {@code null}.
+     * @return identifier or name of the given CRS, or {@code null} if unknown.
+     */
+    private static String label(final CoordinateReferenceSystem crs) {
+        return (crs instanceof IdentifiableObject) ? ((IdentifiableObject) crs).getNameString(true) : null;
+    }
+
+    /**
+     * Records a call to a {@code transform(…)} method.
+     *
+     * @param  numPts  number of points given to the method.
+     * @param  time    time spent in the method, in nanoseconds.
+     * @param  failed  whether the method failed with an exception.
+     */
+    final void record(final long numPts, final long time, final boolean failed) {
+        callCount.increment();
+        pointCount.add(numPts);
+        transformTime.add(time);
+        if (failed) {
+            errorCount.increment();
+        }
+    }
+
+    /**
+     * Records the creation of a {@code PJ} object because the pool was empty.
+     */
+    final void poolMiss() {
+        poolMissCount.increment();
+    }
+
+    /**
+     * Returns a snapshot of the metrics of all coordinate operations.
+     *
+     * @return snapshot of the metrics of all coordinate operations.
+     */
+    static List<TransformMetrics> snapshot() {
+        final List<TransformMetrics> list = new ArrayList<>(REGISTRY.size());
+        for (final OperationMetrics m : REGISTRY.values()) {
+            list.add(new TransformMetrics(m.operation, m.sourceCRS, m.targetCRS,
+                    m.callCount.sum(), m.pointCount.sum(), m.transformTime.sum(),
+                    m.errorCount.sum(), m.poolMissCount.sum()));
+        }
+        return list;
+    }
+
+    /**
+     * Resets all counters to zero. Counters are reset in-place instead of being removed
+     * from the registry because operations still in use keep a reference to them.
+     */
+    static void reset() {
+        for (final OperationMetrics m : REGISTRY.values()) {
+            m.callCount.reset();
+            m.pointCount.reset();
+            m.transformTime.reset();
+            m.errorCount.reset();
+            m.poolMissCount.reset();
+        }
+    }
+
+    /**
+     * The management interface registered in the platform MBean server.
+     * All methods delegate to the static methods of the enclosing class.
+     */
+    private static final class Bean implements TransformMetricsMXBean {
+        @Override public boolean isEnabled() {return OperationMetrics.isEnabled();}
+        @Override public void setEnabled(boolean value) {OperationMetrics.setEnabled(value);}
+        @Override public List<TransformMetrics> getOperations() {return snapshot();}
+        @Override public void reset() {OperationMetrics.reset();}
+    }
+}
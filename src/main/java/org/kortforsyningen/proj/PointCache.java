@@ -0,0 +1,259 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+
+/**
+ * A bounded cache of transformed points, with a <cite>Least Recently Used</cite> policy.
+ * This cache is used by {@link PointTransformer} when the user specified a cache capacity.
+ * A point found in this cache is returned without invoking PROJ. Keys are source coordinates
+ * compared bit by bit, as {@link java.util.Arrays#equals(double[], double[])} does.
+ *
+ * <p>This cache does not allocate any object after construction. Source and target coordinates
+ * are stored in flat arrays indexed by slot number, the hash table uses open addressing with linear
+ * probing, and the <cite>Least Recently Used</cite> order is a doubly-linked list of slot numbers.
+ * This class is not thread-safe, like {@link PointTransformer}.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+final class PointCache {
+    /**
+     * Value of {@link #head}, {@link #tail}, {@link #previous} or {@link #next} for no slot.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Number of dimensions of source and target points.
+     */
+    private final int srcDim, dstDim;
+
+    /**
+     * Source coordinates of cached points. Coordinates of the point in slot <var>i</var>
+     * start at index <var>i</var> × {@link #srcDim}.
+     */
+    private final double[] sources;
+
+    /**
+     * Target coordinates of cached points. Coordinates of the point in slot <var>i</var>
+     * start at index <var>i</var> × {@link #dstDim}.
+     */
+    private final double[] targets;
+
+    /**
+     * Hash code of the source coordinates in each slot.
+     */
+    private final int[] hashes;
+
+    /**
+     * Slots of the previous (more recently used) and next (less recently used) points,
+     * or {@link #NONE} if none.
+     */
+    private final int[] previous, next;
+
+    /**
+     * The hash table. Each element is a slot number plus one, or 0 for an empty element.
+     * The length is a power of two at least twice the cache capacity.
+     */
+    private final int[] table;
+
+    /**
+     * Slots of the most recently used and least recently used points, or {@link #NONE} if the cache is empty.
+     */
+    private int head, tail;
+
+    /**
+     * Number of slots in use.
+     */
+    private int count;
+
+    /**
+     * Source coordinates of the last point not found by {@link #lookup(double[])},
+     * to be stored by {@link #store(double[])} after the point has been transformed.
+     */
+    private final double[] pending;
+
+    /**
+     * Hash code of the {@link #pending} coordinates.
+     */
+    private int pendingHash;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param  capacity  the maximal number of points to retain. Shall be greater than zero.
+     * @param  srcDim    number of dimensions of source points.
+     * @param  dstDim    number of dimensions of target points.
+     */
+    PointCache(final int capacity, final int srcDim, final int dstDim) {
+        this.srcDim = srcDim;
+        this.dstDim = dstDim;
+        sources  = new double[capacity * srcDim];
+        targets  = new double[capacity * dstDim];
+        hashes   = new int[capacity];
+        previous = new int[capacity];
+        next     = new int[capacity];
+        table    = new int[Integer.highestOneBit(Math.max(capacity, 1)) << 2];
+        pending  = new double[srcDim];
+        head     = NONE;
+        tail     = NONE;
+    }
+
+    /**
+     * Computes the hash code of the given source coordinates.
+     *
+     * @param  coordinates  the array of source coordinates.
+     * @param  offset       index of the first coordinate.
+     * @return hash code of the coordinates.
+     */
+    private int hash(final double[] coordinates, final int offset) {
+        int h = 1;
+        for (int i=0; i<srcDim; i++) {
+            final long bits = Double.doubleToLongBits(coordinates[offset + i]);
+            h = 31 * h + (int) (bits ^ (bits >>> 32));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns whether the source coordinates in the given slot are equal to the given coordinates.
+     *
+     * @param  slot         the slot to compare.
+     * @param  coordinates  the source coordinates to compare, starting at index 0.
+     * @return whether the coordinates are equal, compared bit by bit.
+     */
+    private boolean equals(final int slot, final double[] coordinates) {
+        final int offset = slot * srcDim;
+        for (int i=0; i<srcDim; i++) {
+            if (Double.doubleToLongBits(sources[offset + i]) != Double.doubleToLongBits(coordinates[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the source coordinates in the given buffer by the cached target coordinates, if any.
+     * If the point is not in the cache, then the buffer is unchanged and its source coordinates are
+     * remembered for a call to {@link #store(double[])} after the point has been transformed.
+     *
+     * @param  buffer  the source coordinates, to be replaced by the target coordinates if found.
+     * @return whether the point has been found in the cache.
+     */
+    final boolean lookup(final double[] buffer) {
+        final int h = hash(buffer, 0);
+        final int mask = table.length - 1;
+        for (int i = h & mask; table[i] != 0; i = (i + 1) & mask) {
+            final int slot = table[i] - 1;
+            if (hashes[slot] == h && equals(slot, buffer)) {
+                System.arraycopy(targets, slot * dstDim, buffer, 0, dstDim);
+                if (slot != head) {
+                    unlink(slot);
+                    linkFirst(slot);
+                }
+                return true;
+            }
+        }
+        System.arraycopy(buffer, 0, pending, 0, srcDim);
+        pendingHash = h;
+        return false;
+    }
+
+    /**
+     * Caches the target coordinates computed for the source coordinates of the last point
+     * not found by {@link #lookup(double[])}. If the cache is full, the least recently used
+     * point is discarded.
+     *
+     * @param  buffer  the target coordinates, starting at index 0.
+     */
+    final void store(final double[] buffer) {
+        final int slot;
+        if (count < hashes.length) {
+            slot = count++;
+        } else {
+            slot = tail;
+            remove(slot);
+            unlink(slot);
+        }
+        System.arraycopy(pending, 0, sources, slot * srcDim, srcDim);
+        System.arraycopy(buffer,  0, targets, slot * dstDim, dstDim);
+        hashes[slot] = pendingHash;
+        final int mask = table.length - 1;
+        int i = pendingHash & mask;
+        while (table[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        table[i] = slot + 1;
+        linkFirst(slot);
+    }
+
+    /**
+     * Removes the given slot from the hash table. The elements following the removed one
+     * in the same probe sequence are shifted back, so the table does not need tombstones.
+     *
+     * @param  slot  the slot to remove.
+     */
+    private void remove(final int slot) {
+        final int mask = table.length - 1;
+        int i = hashes[slot] & mask;
+        while (table[i] != slot + 1) {
+            i = (i + 1) & mask;
+        }
+        for (int j = i;;) {
+            j = (j + 1) & mask;
+            final int e = table[j];
+            if (e == 0) break;
+            final int k = hashes[e - 1] & mask;                 // Preferred location of the element at j.
+            if ((i <= j) ? (i < k && k <= j) : (i < k || k <= j)) {
+                continue;                                       // Element can stay at j.
+            }
+            table[i] = e;
+            i = j;
+        }
+        table[i] = 0;
+    }
+
+    /**
+     * Removes the given slot from the <cite>Least Recently Used</cite> list.
+     *
+     * @param  slot  the slot to unlink.
+     */
+    private void unlink(final int slot) {
+        final int p = previous[slot];
+        final int n = next[slot];
+        if (p != NONE) next[p] = n; else head = n;
+        if (n != NONE) previous[n] = p; else tail = p;
+    }
+
+    /**
+     * Inserts the given slot at the beginning of the <cite>Least Recently Used</cite> list.
+     *
+     * @param  slot  the slot to insert as the most recently used one.
+     */
+    private void linkFirst(final int slot) {
+        previous[slot] = NONE;
+        next[slot] = head;
+        if (head != NONE) previous[head] = slot; else tail = slot;
+        head = slot;
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import java.util.Set;
+import java.lang.ref.PhantomReference;
+import java.util.concurrent.ConcurrentHashMap;
+import org.opengis.geometry.DirectPosition;
+import org.opengis.geometry.MismatchedDimensionException;
+import org.opengis.referencing.operation.TransformException;
+
+
+/**
+ * Transforms points one at a time without allocating objects.
+ * A {@code PointTransformer} holds a PROJ {@code PJ} object and a coordinate buffer for its whole lifetime,
+ * so transforming a point does not need to fetch them from the pools shared by all threads.
+ * Instances are created by {@link Proj#createPointTransformer(org.opengis.referencing.operation.MathTransform, int)}
+ * and shall be closed after usage, preferably in a {@code try} … {@code finally} block:
+ *
+ * <blockquote><pre>
+ * try (PointTransformer tr = Proj.createPointTransformer(operation.getMathTransform())) {
+ *     double[] result = new double[2];
+ *     for (…) {
+ *         tr.transform(x, y, result);
+ *         // Use result here.
+ *     }
+ * }</pre>
+ * </blockquote>
+ *
+ * <h2>Point cache</h2>
+ * A {@code PointTransformer} can optionally remember the results of the most recently transformed points.
+ * When the same source coordinates are given again, the result is returned without invoking PROJ.
+ * This is useful for applications transforming repeatedly the same points one at a time, for example
+ * city centroids or station coordinates. Source coordinates are compared bit by bit.
+ * The cache belongs to this transformer, so it is not shared with other users of the same operation.
+ *
+ * <h2>Limitations</h2>
+ * {@code PointTransformer} is <em>not</em> thread-safe. Each thread shall use its own instance.
+ * If an instance is garbage collected without having been closed, its PROJ resources are released
+ * by a background thread. This is only a safety net; applications should not rely on it.
+ * For transforming many points at once, the {@code MathTransform.transform(double[], …)} methods
+ * are still more efficient than this class.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+public final class PointTransformer implements AutoCloseable {
+    /**
+     * The operation to execute.
+     */
+    private final Operation operation;
+
+    /**
+     * The {@code PJ} wrapper, or {@code null} if the operation is executed by a pure-Java affine pipeline.
+     * This object shall not be used after this transformer has been closed.
+     */
+    private final Transform transform;
+
+    /**
+     * The task releasing the {@code PJ} and its context when this transformer is closed
+     * or garbage collected.
+     */
+    private final Cleaner resources;
+
+    /**
+     * Buffer for the coordinates of the point to transform.
+     * The length is {@code max(srcDim, dstDim)}.
+     */
+    private final double[] buffer;
+
+    /**
+     * Cache of transformed points, or {@code null} if disabled.
+     */
+    private final PointCache cache;
+
+    /**
+     * Whether {@link #close()} has been invoked.
+     */
+    private boolean closed;
+
+    /**
+     * Task releasing the resources held by a {@link PointTransformer}, either when the transformer
+     * is closed or, as a safety net, when it is garbage collected without having been closed.
+     * Instances are kept reachable by a static set until they are released,
+     * otherwise they would be garbage collected together with the transformer.
+     *
+     * <b>Reminder:</b> this class shall not contain any reference to {@link PointTransformer}.
+     */
+    static final class Cleaner extends PhantomReference<PointTransformer> {
+        /**
+         * The cleaners of all transformers not yet closed or garbage collected.
+         */
+        private static final Set<Cleaner> PENDING = ConcurrentHashMap.newKeySet();
+
+        /**
+         * The operation from which the {@code PJ} has been acquired.
+         */
+        private final Operation operation;
+
+        /**
+         * The context in which the {@code PJ} is executed, or {@code null} if none or already released.
+         */
+        private Context context;
+
+        /**
+         * The {@code PJ} wrapper to release, or {@code null} if none or already released.
+         */
+        private Transform transform;
+
+        /**
+         * Acquires a {@code PJ} for the given transformer and registers a task releasing it
+         * when the transformer is garbage collected.
+         *
+         * @param  owner      the transformer for which to hold the {@code PJ}.
+         * @param  operation  the operation from which to acquire the {@code PJ}.
+         * @throws TransformException if the {@code PJ} object can not be created.
+         */
+        Cleaner(final PointTransformer owner, final Operation operation) throws TransformException {
+            super(owner, CleanerThread.QUEUE);
+            this.operation = operation;
+            context = Context.acquire();
+            try {
+                transform = operation.acquire(context);
+                PENDING.add(this);
+            } catch (Throwable e) {
+                release();
+                throw e;
+            }
+        }
+
+        /**
+         * Releases the {@code PJ} and its context. This method is invoked by {@link PointTransformer#close()},
+         * or by the cleaner thread when the transformer has been garbage collected. Only the first invocation
+         * has an effect.
+         */
+        final synchronized void release() {
+            PENDING.remove(this);
+            clear();
+            final Transform tr = transform;
+            final Context   c  = context;
+            transform = null;
+            context   = null;
+            if (c != null) try {
+                if (tr != null) {
+                    operation.release(tr);
+                }
+            } finally {
+                c.close();
+            }
+        }
+    }
+
+    /**
+     * Creates a new transformer for the given operation.
+     *
+     * @param  operation      the operation to execute.
+     * @param  cacheCapacity  maximal number of points to cache, or 0 for disabling the cache.
+     * @throws IllegalArgumentException if the given capacity is negative.
+     * @throws TransformException if the {@code PJ} object can not be created.
+     */
+    PointTransformer(final Operation operation, final int cacheCapacity) throws TransformException {
+        if (cacheCapacity < 0) {
+            throw new IllegalArgumentException("Illegal cache capacity: " + cacheCapacity);
+        }
+        this.operation = operation;
+        final int srcDim = operation.getSourceDimensions();
+        final int dstDim = operation.getTargetDimensions();
+        buffer = new double[Math.max(srcDim, dstDim)];
+        cache  = (cacheCapacity != 0) ? new PointCache(cacheCapacity, srcDim, dstDim) : null;
+        if (operation.affine() == null) {
+            resources = new Cleaner(this, operation);
+            transform = resources.transform;
+        } else {
+            resources = null;
+            transform = null;
+        }
+    }
+
+    /**
+     * Returns the number of dimensions of input points.
+     *
+     * @return the dimension of input points.
+     */
+    public int getSourceDimensions() {
+        return operation.getSourceDimensions();
+    }
+
+    /**
+     * Returns the number of dimensions of output points.
+     *
+     * @return the dimension of output points.
+     */
+    public int getTargetDimensions() {
+        return operation.getTargetDimensions();
+    }
+
+    /**
+     * Transforms the coordinates in the buffer, or fetches the result from the cache if enabled.
+     * The first coordinates of the buffer shall have been set before this method is invoked.
+     * Cache hits are recorded in metrics as successful calls, with the time spent in the lookup.
+     *
+     * @param  length  number of coordinates set in the buffer. Other coordinates are set to zero.
+     * @throws TransformException if the point can not be transformed.
+     */
+    private void transformBuffer(final int length) throws TransformException {
+        if (closed) {
+            throw new IllegalStateException("This point transformer is closed.");
+        }
+        for (int i=length; i<buffer.length; i++) {
+            buffer[i] = 0;
+        }
+        if (cache == null) {
+            operation.transform(transform, buffer);
+            return;
+        }
+        final OperationMetrics m = operation.metrics();
+        final long start = (m != null) ? System.nanoTime() : 0;
+        if (cache.lookup(buffer)) {
+            if (m != null) {
+                m.record(1, System.nanoTime() - start, false);
+            }
+        } else {
+            operation.transform(transform, buffer);
+            cache.store(buffer);
+        }
+    }
+
+    /**
+     * Copies the transformed coordinates in the given array.
+     *
+     * @param  result  where to store the result, with a length of at least {@link #getTargetDimensions()}.
+     */
+    private void copyTo(final double[] result) {
+        System.arraycopy(buffer, 0, result, 0, operation.getTargetDimensions());
+    }
+
+    /**
+     * Transforms a two-dimensional point. If the source CRS has more than two dimensions,
+     * then the additional coordinates are set to zero.
+     *
+     * @param  x       first coordinate of the point to transform.
+     * @param  y       second coordinate of the point to transform.
+     * @param  result  where to store the result, with a length of at least {@link #getTargetDimensions()}.
+     * @throws IllegalStateException if this transformer has been closed.
+     * @throws MismatchedDimensionException if the source CRS has less than two dimensions.
+     * @throws IndexOutOfBoundsException if the {@code result} array is too short.
+     * @throws TransformException if the point can not be transformed.
+     */
+    public void transform(final double x, final double y, final double[] result) throws TransformException {
+        final int srcDim = operation.getSourceDimensions();
+        if (srcDim < 2) {
+            throw new MismatchedDimensionException();
+        }
+        buffer[0] = x;
+        buffer[1] = y;
+        transformBuffer(2);
+        copyTo(result);
+    }
+
+    /**
+     * Transforms a three-dimensional point. If the source CRS has only two dimensions,
+     * then the <var>z</var> coordinate is ignored.
+     *
+     * @param  x       first coordinate of the point to transform.
+     * @param  y       second coordinate of the point to transform.
+     * @param  z       third coordinate of the point to transform.
+     * @param  result  where to store the result, with a length of at least {@link #getTargetDimensions()}.
+     * @throws IllegalStateException if this transformer has been closed.
+     * @throws MismatchedDimensionException if the source CRS has less than two dimensions.
+     * @throws IndexOutOfBoundsException if the {@code result} array is too short.
+     * @throws TransformException if the point can not be transformed.
+     */
+    public void transform(final double x, final double y, final double z, final double[] result) throws TransformException {
+        final int srcDim = operation.getSourceDimensions();
+        if (srcDim < 2) {
+            throw new MismatchedDimensionException();
+        }
+        buffer[0] = x;
+        buffer[1] = y;
+        if (srcDim >= 3) buffer[2] = z;
+        transformBuffer(Math.min(srcDim, 3));
+        copyTo(result);
+    }
+
+    /**
+     * Transforms the given position and stores the result in the given position.
+     * The two positions can be the same object. For transforming many points without
+     * allocating objects, a single mutable position can be created once by
+     * {@link Proj#createPosition Proj.createPosition(…)} and reused for all points.
+     *
+     * @param  ptSrc  the position to transform.
+     * @param  ptDst  the position where to store the result.
+     * @throws IllegalStateException if this transformer has been closed.
+     * @throws MismatchedDimensionException if a position does not have the expected number of dimensions.
+     * @throws TransformException if the point can not be transformed.
+     */
+    public void transform(final DirectPosition ptSrc, final DirectPosition ptDst) throws TransformException {
+        final int srcDim = operation.getSourceDimensions();
+        final int dstDim = operation.getTargetDimensions();
+        if (ptSrc.getDimension() != srcDim || ptDst.getDimension() != dstDim) {
+            throw new MismatchedDimensionException();
+        }
+        for (int i=0; i<srcDim; i++) {
+            buffer[i] = ptSrc.getOrdinate(i);
+        }
+        transformBuffer(srcDim);
+        for (int i=0; i<dstDim; i++) {
+            ptDst.setOrdinate(i, buffer[i]);
+        }
+    }
+
+    /**
+     * Releases the {@code PJ} object held by this transformer.
+     * This method can be invoked many times; only the first invocation has an effect.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (resources != null) {
+            resources.release();
+        }
+    }
+}
@@ -21,6 +21,7 @@
  */
 package org.kortforsyningen.proj;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -37,6 +38,7 @@ import org.opengis.referencing.operation.CoordinateOperation;
 import org.opengis.referencing.operation.CoordinateOperationFactory;
 import org.opengis.referencing.operation.OperationNotFoundException;
 import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
 
 
 /**
@@ -239,6 +241,10 @@ public final class Proj {
      *   <li>PROJJSON string.</li>
      * </ul>
      *
+     * <p>Objects created by this method are cached. Invoking this method many times with the same text
+     * (ignoring leading and trailing white spaces) returns the same instance, unless the object has
+     * been evicted from the cache.</p>
+     *
      * @param  text  one of the above mentioned text format.
      * @return a coordinate reference system or other kind of object created from the given text.
      * @throws FactoryException if the given text can not be parsed.
@@ -248,10 +254,15 @@ public final class Proj {
      * @see <a href="https://proj.org/development/reference/cpp/io.html#_CPPv4N5osgeo4proj2io19createFromUserInputERKNSt6stringEP10PJ_CONTEXT">PROJ C++ API</a>
      */
     public static IdentifiedObject createFromUserInput(final String text) throws FactoryException {
-        Objects.requireNonNull(text);
-        final Object result;
-        try (Context c = Context.acquire()) {
-            result = c.createFromUserInput(text);
+        final InternedObjects.Key key = new InternedObjects.Key(text);
+        Object result = InternedObjects.CACHE.lookup(key);
+        if (result == null) {
+            try (Context c = Context.acquire()) {
+                result = c.createFromUserInput(text);
+            }
+            if (result instanceof IdentifiedObject) {
+                result = InternedObjects.CACHE.intern(key, result);
+            }
         }
         if (result instanceof IdentifiedObject) {
             return (IdentifiedObject) result;
@@ -336,6 +347,51 @@ public final class Proj {
                 (context != null) ? context : new CoordinateOperationContext());
     }
 
+    /**
+     * Returns a transform which selects the best coordinate operation for each point.
+     * This method fetches all operations between the given pair of CRS as {@link #createCoordinateOperations
+     * createCoordinateOperations(…)} does, then returns a transform which uses, for each point, the first
+     * operation having a domain of validity that contains that point. This is similar to what
+     * {@code proj_create_crs_to_crs} does in PROJ, and is useful when operations are area-dependent
+     * (for example different datum shift grids by region). Points are grouped by selected operation,
+     * so each operation is still invoked on large batches of points.
+     *
+     * <p>Points outside the domains of validity of all operations are not transformed: their coordinates
+     * are set to {@link Double#NaN} when transforming arrays, and a {@link TransformException} is thrown
+     * when transforming a single point. For getting all candidate operations, the
+     * {@linkplain CoordinateOperationContext#setAreaOfInterest area of interest} of the given context
+     * should be unspecified.</p>
+     *
+     * <p>If there is more than one candidate, the returned transform can be given to
+     * {@link #derivatives derivatives(…)}, {@link #transformDeduplicated transformDeduplicated(…)},
+     * {@link #transformInSpatialOrder transformInSpatialOrder(…)} and {@link #transformAlongLine
+     * transformAlongLine(…)}, but not to the other methods of this class expecting a transform,
+     * which require a single PROJ operation. Those methods throw {@link UnsupportedImplementationException}.</p>
+     *
+     * @param  sourceCRS  input coordinate reference system.
+     * @param  targetCRS  output coordinate reference system.
+     * @param  context    context in which the coordinate operations are to be used, or {@code null} for the default.
+     * @return transform from {@code sourceCRS} to {@code targetCRS} selecting the best operation for each point.
+     * @throws NullPointerException if {@code sourceCRS} or {@code targetCRS} is {@code null}.
+     * @throws UnsupportedImplementationException if a CRS is not a PROJ-JNI implementation.
+     * @throws OperationNotFoundException if no coordinate operation is found.
+     * @throws FactoryException if the operation creation failed.
+     */
+    public static MathTransform createAreaDependentTransform(
+            final CoordinateReferenceSystem sourceCRS,
+            final CoordinateReferenceSystem targetCRS,
+            final CoordinateOperationContext context) throws FactoryException
+    {
+        final CRS source = CRS.cast("sourceCRS", sourceCRS);
+        final CRS target = CRS.cast("targetCRS", targetCRS);
+        final MathTransform transform = MultiOperation.create(OperationFactory.findOperations(
+                source, target, (context != null) ? context : new CoordinateOperationContext()), source);
+        if (transform == null) {
+            throw new OperationNotFoundException(OperationFactory.notFound(source, target));
+        }
+        return transform;
+    }
+
     /**
      * Creates a position with the given coordinate values and an optional CRS.
      * At least one of {@code crs} and {@code coordinates} arguments must be non-null.
@@ -397,6 +453,449 @@ public final class Proj {
         }
     }
 
+    /**
+     * Creates an object for transforming points one at a time without allocating objects.
+     * The returned object holds a PROJ {@code PJ} object until it is closed, so transforming a point
+     * does not need to fetch it from the pool shared by all threads. This is useful for applications
+     * transforming a lot of points one by one, for example in a web service receiving a point per request.
+     * The returned object is not thread-safe and shall be closed after usage.
+     *
+     * @param  transform  the transform to apply on points.
+     * @return an object for transforming points with the given transform. Shall be closed after usage.
+     * @throws NullPointerException if {@code transform} is {@code null}.
+     * @throws UnsupportedImplementationException if the transform is not a PROJ-JNI implementation.
+     * @throws TransformException if the {@code PJ} object can not be created.
+     *
+     * @see #createPointTransformer(MathTransform, int)
+     */
+    public static PointTransformer createPointTransformer(final MathTransform transform) throws TransformException {
+        return createPointTransformer(transform, 0);
+    }
+
+    /**
+     * Creates an object for transforming points one at a time, with a cache of transformed points.
+     * This method is like {@link #createPointTransformer(MathTransform)} except that the returned
+     * object remembers the results of the most recently transformed points. When the same source
+     * coordinates are given again, the result is returned without invoking PROJ. Source coordinates
+     * are compared bit by bit. The cache belongs to the returned object, so it does not change the
+     * behavior of the transform for other users.
+     *
+     * @param  transform      the transform to apply on points.
+     * @param  cacheCapacity  maximal number of points to cache, or 0 for disabling the cache.
+     * @return an object for transforming points with the given transform. Shall be closed after usage.
+     * @throws NullPointerException if {@code transform} is {@code null}.
+     * @throws UnsupportedImplementationException if the transform is not a PROJ-JNI implementation.
+     * @throws IllegalArgumentException if the given capacity is negative.
+     * @throws TransformException if the {@code PJ} object can not be created.
+     */
+    public static PointTransformer createPointTransformer(final MathTransform transform, final int cacheCapacity)
+            throws TransformException
+    {
+        Objects.requireNonNull(transform);
+        if (transform instanceof Operation) {
+            return new PointTransformer((Operation) transform, cacheCapacity);
+        } else {
+            throw new UnsupportedImplementationException("transform", transform);
+        }
+    }
+
+    /**
+     * Enables or disables the collection of metrics for all coordinate operations.
+     * When enabled, each operation counts the calls to its {@code transform(…)} methods, the number of
+     * transformed points, the time spent in transformations, the failures and the pool misses (creations
+     * of a new {@code PJ} object because all cached ones were in use by other threads). Metrics are
+     * disabled by default. They can also be enabled at startup time by setting the
+     * "{@systemProperty org.kortforsyningen.proj.metrics}" system property to {@code true}. Points transformed
+     * by a {@link PointTransformer}, including the ones fetched from its point cache, are counted like any
+     * other transformed point. The methods of this class working on many points,
+     * for example {@link #derivatives derivatives(…)} or {@link #warpMap warpMap(…)}, are counted as
+     * one call each.
+     *
+     * <p>When metrics are enabled for the first time, a {@link TransformMetricsMXBean} is registered
+     * in the platform MBean server under the {@value TransformMetricsMXBean#OBJECT_NAME} name.</p>
+     *
+     * @param  enabled  whether to collect metrics.
+     *
+     * @see #getMetrics()
+     */
+    public static void setMetricsEnabled(final boolean enabled) {
+        OperationMetrics.setEnabled(enabled);
+    }
+
+    /**
+     * Returns a snapshot of the metrics of all coordinate operations used since metrics have been enabled.
+     * Metrics are aggregated by operation name, source CRS and target CRS. The returned list is empty if
+     * metrics have never been enabled.
+     *
+     * @return snapshot of the metrics of all coordinate operations.
+     *
+     * @see #setMetricsEnabled(boolean)
+     */
+    public static List<TransformMetrics> getMetrics() {
+        return OperationMetrics.snapshot();
+    }
+
+    /**
+     * Resets to zero the metrics of all coordinate operations.
+     *
+     * @see #getMetrics()
+     */
+    public static void resetMetrics() {
+        OperationMetrics.reset();
+    }
+
+    /**
+     * Computes the derivatives of the given transform at many points in a single native call.
+     * This method is more efficient than invoking {@link MathTransform#derivative(DirectPosition)}
+     * for each point. Derivatives are estimated by centred finite differences.
+     *
+     * <p>Each Jacobian matrix has {@link MathTransform#getTargetDimensions()} rows and
+     * {@link MathTransform#getSourceDimensions()} columns. Matrices are stored in row-major order
+     * in the {@code jacobians} array, one matrix after the other. Elements of matrices computed at
+     * points that can not be transformed are set to {@link Double#NaN}.</p>
+     *
+     * @param  transform  the transform for which to compute derivatives.
+     * @param  srcPts     the points where to evaluate the derivatives.
+     * @param  srcOff     offset of the first point coordinate in the {@code srcPts} array.
+     * @param  jacobians  the array where to write the matrix elements.
+     * @param  jacOff     offset of the first matrix element to write in the {@code jacobians} array.
+     * @param  numPts     number of points where to evaluate the derivatives.
+     * @throws NullPointerException if an argument is {@code null}.
+     * @throws UnsupportedImplementationException if the transform is not a PROJ-JNI implementation.
+     * @throws IllegalArgumentException if an offset or number of points argument is invalid.
+     * @throws TransformException if the derivative can not be computed for at least one point.
+     *
+     * @see MathTransform#derivative(DirectPosition)
+     */
+    public static void derivatives(final MathTransform transform, final double[] srcPts, final int srcOff,
+            final double[] jacobians, final int jacOff, final int numPts) throws TransformException
+    {
+        Objects.requireNonNull(transform);
+        if (transform instanceof Operation) {
+            ((Operation) transform).derivatives(srcPts, srcOff, jacobians, jacOff, numPts);
+        } else if (transform instanceof MultiOperation) {
+            ((MultiOperation) transform).derivatives(srcPts, srcOff, jacobians, jacOff, numPts);
+        } else {
+            throw new UnsupportedImplementationException("transform", transform);
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate points, transforming only once each distinct point.
+     * This method gives the same results than {@link MathTransform#transform(double[], int, double[], int, int)},
+     * but first detects the points having exactly the same source coordinates. Only the distinct points are
+     * given to PROJ, and the results are copied to all occurrences. This is faster when many points are
+     * repeated, for example with polygons sharing boundaries with their neighbours, closed rings, or
+     * corners shared by adjacent tiles. Coordinates are compared bit by bit, so points that differ by
+     * only a rounding error are considered distinct.
+     *
+     * @param  transform  the transform to apply.
+     * @param  srcPts     the array containing the source point coordinates.
+     * @param  srcOff     the offset to the first point to be transformed in the source array.
+     * @param  dstPts     the array into which the transformed point coordinates are returned.
+     *                    May be the same than {@code srcPts}.
+     * @param  dstOff     the offset to the location of the first transformed point in the destination array.
+     * @param  numPts     the number of point objects to be transformed.
+     * @throws NullPointerException if an argument is {@code null}.
+     * @throws UnsupportedImplementationException if the transform is not a PROJ-JNI implementation.
+     * @throws IllegalArgumentException if an offset or number of points argument is invalid.
+     * @throws TransformException if a point can not be transformed.
+     */
+    public static void transformDeduplicated(final MathTransform transform,
+            final double[] srcPts, final int srcOff, final double[] dstPts, final int dstOff,
+            final int numPts) throws TransformException
+    {
+        Objects.requireNonNull(transform);
+        if (transform instanceof Operation) {
+            ((Operation) transform).transformDeduplicated(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else if (transform instanceof MultiOperation) {
+            ((MultiOperation) transform).transformDeduplicated(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else {
+            throw new UnsupportedImplementationException("transform", transform);
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate points after sorting them in spatial order.
+     * This method gives the same results than {@link MathTransform#transform(double[], int, double[], int, int)},
+     * but sorts the points along a Hilbert curve before to transform them, then writes the results in the
+     * original order. This is faster for operations using datum shift grids (e.g. NTv2) or geoid grids when
+     * the points are not already in spatial order, because PROJ keeps only a few grid blocks in its cache.
+     * For other operations, sorting is an overhead that brings no benefit.
+     *
+     * @param  transform  the transform to apply.
+     * @param  srcPts     the array containing the source point coordinates.
+     * @param  srcOff     the offset to the first point to be transformed in the source array.
+     * @param  dstPts     the array into which the transformed point coordinates are returned.
+     *                    May be the same than {@code srcPts}.
+     * @param  dstOff     the offset to the location of the first transformed point in the destination array.
+     * @param  numPts     the number of point objects to be transformed.
+     * @throws NullPointerException if an argument is {@code null}.
+     * @throws UnsupportedImplementationException if the transform is not a PROJ-JNI implementation.
+     * @throws IllegalArgumentException if an offset or number of points argument is invalid.
+     * @throws TransformException if a point can not be transformed.
+     */
+    public static void transformInSpatialOrder(final MathTransform transform,
+            final double[] srcPts, final int srcOff, final double[] dstPts, final int dstOff,
+            final int numPts) throws TransformException
+    {
+        Objects.requireNonNull(transform);
+        if (transform instanceof Operation) {
+            ((Operation) transform).transformInSpatialOrder(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else if (transform instanceof MultiOperation) {
+            ((MultiOperation) transform).transformInSpatialOrder(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else {
+            throw new UnsupportedImplementationException("transform", transform);
+        }
+    }
+
+    /**
+     * Transforms approximately a sequence of points regularly spaced along a straight line,
+     * for example a row of pixel centers in a raster. This method is much faster than
+     * {@link MathTransform#transform(double[], int, double[], int, int)} for long sequences,
+     * at the cost of an error that should not exceed the given tolerance.
+     *
+     * <p>The first, last and middle points are transformed exactly by PROJ. If the middle point differs
+     * from the linear interpolation of the first and last points by no more than the given tolerance
+     * in any dimension, then all other points are interpolated linearly. Otherwise the sequence is
+     * split in two halves and the process is repeated recursively on each half. This is the same
+     * strategy than GDAL's approximate transformer. Since the error is checked only at the middle
+     * points, it is not strictly guaranteed for all points.</p>
+     *
+     * <p>Interpolations are computed from the point indices, so this method is only for points given
+     * in order along a line with a constant spacing, such as a densified segment. If the source points
+     * do not meet that condition (ignoring rounding errors), then all points are transformed exactly.
+     * For two-dimensional grids, see {@link #warpMap warpMap(…)}.</p>
+     *
+     * @param  transform  the transform to apply.
+     * @param  srcPts     the array containing the source point coordinates.
+     * @param  srcOff     the offset to the first point to be transformed in the source array.
+     * @param  dstPts     the array into which the transformed point coordinates are returned.
+     *                    May be the same than {@code srcPts}.
+     * @param  dstOff     the offset to the location of the first transformed point in the destination array.
+     * @param  numPts     the number of point objects to be transformed.
+     * @param  tolerance  maximal error allowed in units of the target CRS. If zero, all points are transformed exactly.
+     * @throws NullPointerException if an argument is {@code null}.
+     * @throws UnsupportedImplementationException if the transform is not a PROJ-JNI implementation.
+     * @throws IllegalArgumentException if an offset or number of points argument is invalid.
+     * @throws TransformException if a point can not be transformed.
+     */
+    public static void transformAlongLine(final MathTransform transform,
+            final double[] srcPts, final int srcOff, final double[] dstPts, final int dstOff,
+            final int numPts, final double tolerance) throws TransformException
+    {
+        Objects.requireNonNull(transform);
+        if (transform instanceof Operation) {
+            ((Operation) transform).transformAlongLine(srcPts, srcOff, dstPts, dstOff, numPts, tolerance);
+        } else if (transform instanceof MultiOperation) {
+            ((MultiOperation) transform).transformAlongLine(srcPts, srcOff, dstPts, dstOff, numPts, tolerance);
+        } else {
+            throw new UnsupportedImplementationException("transform", transform);
+        }
+    }
+
+    /**
+     * Transforms a bounding box with densification of the edges in a single native call.
+     * Each edge of the box is densified with {@code densifyPoints} intermediate points before
+     * transformation, then the smallest box containing all transformed points is returned.
+     * A value of 21 points per edge is typically sufficient for map projections.
+     * Points that can not be transformed are ignored, unless no point at all can be transformed.
+     *
+     * <p>Coordinate values are in the axis order of the source and target CRS. For example with
+     * EPSG:4326, <var>x</var> values are latitudes and <var>y</var> values are longitudes.
+     * Only the two first dimensions are considered.</p>
+     *
+     * <p>If the target CRS is geographic, this method takes in account the poles and the anti-meridian.
+     * If the source box contains a pole, then the result extends to that pole and to all longitudes.
+     * If the box crosses the anti-meridian, then the minimal longitude of the result is greater than the
+     * maximal longitude (e.g. 170°E to 170°W is returned as 170 … -170). With PROJ 8.2 or later, this
+     * method delegates to {@code proj_trans_bounds}, in which case at least 2 densification points are used.
+     * With older PROJ versions, an equivalent check is done by PROJ-JNI.</p>
+     *
+     * @param  transform      the transform to apply on the bounding box.
+     * @param  xmin           minimal coordinate value along the first source axis.
+     * @param  ymin           minimal coordinate value along the second source axis.
+     * @param  xmax           maximal coordinate value along the first source axis.
+     * @param  ymax           maximal coordinate value along the second source axis.
+     * @param  densifyPoints  number of points to add between the corners of each edge.
+     * @return the transformed box as (<var>x</var><sub>min</sub>, <var>y</var><sub>min</sub>,
+     *         <var>x</var><sub>max</sub>, <var>y</var><sub>max</sub>) in target CRS.
+     * @throws NullPointerException if {@code transform} is {@code null}.
+     * @throws UnsupportedImplementationException if the transform is not a PROJ-JNI implementation.
+     * @throws MismatchedDimensionException if the source or target CRS is not at least two-dimensional.
+     * @throws IllegalArgumentException if the bounds are invalid or {@code densifyPoints} is negative.
+     * @throws TransformException if no point of the bounding box can be transformed.
+     */
+    public static double[] transformBounds(final MathTransform transform,
+            final double xmin, final double ymin, final double xmax, final double ymax,
+            final int densifyPoints) throws TransformException
+    {
+        Objects.requireNonNull(transform);
+        if (transform instanceof Operation) {
+            return ((Operation) transform).transformBounds(xmin, ymin, xmax, ymax, densifyPoints);
+        } else {
+            throw new UnsupportedImplementationException("transform", transform);
+        }
+    }
+
+    /**
+     * Computes a map of the transformed coordinates of all cell centers in a regular grid.
+     * This is typically used for resampling a raster: if the given transform is from the CRS
+     * of the raster to create to the CRS of the raster to resample, then the map gives the
+     * location in the source raster of each pixel of the target raster. This method is much
+     * faster than invoking {@link MathTransform#transform(double[], int, double[], int, int)}
+     * for each row, because rows are computed in parallel with a single buffer and a single
+     * {@code PJ} object per worker thread.
+     *
+     * <p>The center of the cell at column <var>i</var> and row <var>j</var> is at
+     * (<var>x</var>₀ + (<var>i</var> + ½)⋅<var>dx</var>, <var>y</var>₀ + (<var>j</var> + ½)⋅<var>dy</var>)
+     * in source CRS. The transformed coordinates of that cell are stored as a
+     * (<var>x</var>,<var>y</var>) tuple at index {@code offset + 2*(j*width + i)} in the map.
+     * Only the two first dimensions of source and target CRS are considered. Cells that can not
+     * be transformed are set to {@link Double#NaN}.</p>
+     *
+     * @param  transform  the transform to apply on the grid cell centers.
+     * @param  x0         coordinate of the grid corner along the first source axis.
+     * @param  y0         coordinate of the grid corner along the second source axis.
+     * @param  dx         cell size along the first source axis (may be negative).
+     * @param  dy         cell size along the second source axis (may be negative).
+     * @param  width      number of cells along the first source axis.
+     * @param  height     number of cells along the second source axis.
+     * @param  map        the array where to write the transformed coordinates.
+     * @param  offset     index of the first element to write in the map array.
+     * @throws NullPointerException if {@code transform} or {@code map} is {@code null}.
+     * @throws UnsupportedImplementationException if the transform is not a PROJ-JNI implementation.
+     * @throws MismatchedDimensionException if the source or target CRS is not at least two-dimensional.
+     * @throws IllegalArgumentException if the grid size or the offset is invalid.
+     * @throws TransformException if the operation can not be executed.
+     */
+    public static void warpMap(final MathTransform transform,
+            final double x0, final double y0, final double dx, final double dy,
+            final int width, final int height, final double[] map, final int offset) throws TransformException
+    {
+        Objects.requireNonNull(transform);
+        Objects.requireNonNull(map);
+        if (transform instanceof Operation) {
+            ((Operation) transform).warpMap(x0, y0, dx, dy, width, height, map, null, offset);
+        } else {
+            throw new UnsupportedImplementationException("transform", transform);
+        }
+    }
+
+    /**
+     * Computes a map of the transformed coordinates of all cell centers in a regular grid,
+     * stored in single precision. This method is identical to
+     * {@link #warpMap(MathTransform, double, double, double, double, int, int, double[], int)}
+     * except that the map uses half the memory, which is sufficient for pixel coordinates.
+     *
+     * @param  transform  the transform to apply on the grid cell centers.
+     * @param  x0         coordinate of the grid corner along the first source axis.
+     * @param  y0         coordinate of the grid corner along the second source axis.
+     * @param  dx         cell size along the first source axis (may be negative).
+     * @param  dy         cell size along the second source axis (may be negative).
+     * @param  width      number of cells along the first source axis.
+     * @param  height     number of cells along the second source axis.
+     * @param  map        the array where to write the transformed coordinates.
+     * @param  offset     index of the first element to write in the map array.
+     * @throws NullPointerException if {@code transform} or {@code map} is {@code null}.
+     * @throws UnsupportedImplementationException if the transform is not a PROJ-JNI implementation.
+     * @throws MismatchedDimensionException if the source or target CRS is not at least two-dimensional.
+     * @throws IllegalArgumentException if the grid size or the offset is invalid.
+     * @throws TransformException if the operation can not be executed.
+     */
+    public static void warpMap(final MathTransform transform,
+            final double x0, final double y0, final double dx, final double dy,
+            final int width, final int height, final float[] map, final int offset) throws TransformException
+    {
+        Objects.requireNonNull(transform);
+        Objects.requireNonNull(map);
+        if (transform instanceof Operation) {
+            ((Operation) transform).warpMap(x0, y0, dx, dy, width, height, null, map, offset);
+        } else {
+            throw new UnsupportedImplementationException("transform", transform);
+        }
+    }
+
+    /**
+     * Transforms in-place coordinates stored as scaled integers, as in LAS point cloud files.
+     * The coordinate value of an integer <var>i</var> in dimension <var>d</var> is
+     * <var>i</var> × {@code sourceScale[d]} + {@code sourceOffset[d]} before transformation and
+     * <var>i</var> × {@code targetScale[d]} + {@code targetOffset[d]} after transformation,
+     * with transformed values rounded to the nearest integer. The number of integers in each
+     * coordinate tuple is the length of the scale and offset arrays, which shall be 1 to 4 and
+     * equal to both the source and target dimensions of the transform.
+     *
+     * <p>Conversions between integers and floating point values are done in native code together with
+     * the transformation, in chunks of a few thousand points. Consequently this method does not allocate
+     * temporary {@code double[]} arrays on the Java heap, regardless of the number of points.
+     * Points that can not be transformed, or for which the transformed values can not be represented
+     * as integers, are left unchanged and an exception is thrown after all other points have been
+     * transformed.</p>
+     *
+     * @param  transform     the transform to apply.
+     * @param  coordinates   the coordinates to transform, as a sequence of (<var>x</var>,<var>y</var>,<var>z</var>,…) tuples.
+     * @param  offset        offset of the first coordinate in the given array.
+     * @param  numPts        number of points to transform.
+     * @param  sourceScale   scale factors of source coordinates.
+     * @param  sourceOffset  offsets of source coordinates.
+     * @param  targetScale   scale factors of target coordinates.
+     * @param  targetOffset  offsets of target coordinates.
+     * @throws NullPointerException if an argument is {@code null}.
+     * @throws UnsupportedImplementationException if the transform is not a PROJ-JNI implementation.
+     * @throws MismatchedDimensionException if the length of scale and offset arrays is not equal
+     *         to the source and target dimensions of the transform.
+     * @throws IllegalArgumentException if the arrays do not have the same length, or if that length
+     *         is not between 1 and 4, or if an offset or number of points argument is invalid.
+     * @throws TransformException if at least one point can not be transformed.
+     */
+    public static void transformScaled(final MathTransform transform,
+            final int[] coordinates, final int offset, final int numPts,
+            final double[] sourceScale, final double[] sourceOffset,
+            final double[] targetScale, final double[] targetOffset) throws TransformException
+    {
+        Objects.requireNonNull(transform);
+        if (transform instanceof Operation) {
+            ((Operation) transform).transformScaled(coordinates, offset, numPts,
+                    sourceScale, sourceOffset, targetScale, targetOffset);
+        } else {
+            throw new UnsupportedImplementationException("transform", transform);
+        }
+    }
+
+    /**
+     * Transforms in-place all vertices of a geometry encoded in <cite>Well Known Binary</cite> (WKB) format.
+     * The geometry is decoded and transformed in native code without creating Java objects, and the new
+     * coordinate values are written in the same bytes than the old ones. The buffer can be direct or
+     * backed by an array. Points, line strings, polygons, multi-geometries and geometry collections
+     * (including curves, surfaces and triangles) are supported, in ISO WKB or PostGIS extended WKB
+     * flavors and in any byte order. The <var>m</var> values, if any, are left unchanged.
+     *
+     * <p>The geometry starts at the buffer position, and the position is set after the end of the geometry
+     * on return. Coordinates are given to the transform in the order they appear in the WKB bytes.
+     * If that order is (<var>x</var>,<var>y</var>) but the CRS uses (<var>latitude</var>,<var>longitude</var>)
+     * axis order, then the operation should be obtained by {@link #normalizeForVisualization(CoordinateOperation)}.
+     * If any vertex can not be transformed, then the buffer content is left unchanged.</p>
+     *
+     * @param  transform  the transform to apply on the geometry vertices.
+     * @param  wkb        the buffer containing the WKB geometry to transform.
+     * @throws NullPointerException if an argument is {@code null}.
+     * @throws UnsupportedImplementationException if the transform is not a PROJ-JNI implementation.
+     * @throws java.nio.ReadOnlyBufferException if the given buffer is read-only.
+     * @throws MismatchedDimensionException if the transform changes the number of dimensions.
+     * @throws IllegalArgumentException if the WKB geometry is malformed, uses an unsupported geometry type
+     *         or has vertices of a dimension different than the transform dimension (ignoring <var>m</var>).
+     * @throws TransformException if at least one vertex can not be transformed.
+     */
+    public static void transformWKB(final MathTransform transform, final ByteBuffer wkb) throws TransformException {
+        Objects.requireNonNull(transform);
+        Objects.requireNonNull(wkb);
+        if (transform instanceof Operation) {
+            ((Operation) transform).transformWKB(wkb);
+        } else {
+            throw new UnsupportedImplementationException("transform", transform);
+        }
+    }
+
     /**
      * Returns {@code true} if the given objects are equivalent according the given criterion.
      * If the two given objects are {@code null}, this method returns {@code true}.
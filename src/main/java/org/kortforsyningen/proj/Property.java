@@ -127,4 +127,17 @@ final class Property {
                        IS_SPHERE      = 601,
                        IVF_DEFINITIVE = 602,
                        PARAMETER_BOOL = 603;
+
+    /**
+     * Indices of elements in the array returned by {@link SharedPointer#getSnapshot(boolean)} method.
+     * Contrarily to other constants in this class, those values are array indices.
+     */
+    @Native
+    static final int SNAPSHOT_NAME            = 0,
+                     SNAPSHOT_IDENTIFIERS     = 1,
+                     SNAPSHOT_DOMAIN          = 2,
+                     SNAPSHOT_AXES            = 3,
+                     SNAPSHOT_AXIS_DIRECTIONS = 4,
+                     SNAPSHOT_AXIS_UNITS      = 5,
+                     SNAPSHOT_LENGTH          = 6;
 }
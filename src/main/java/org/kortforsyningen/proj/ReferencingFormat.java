@@ -21,8 +21,18 @@
  */
 package org.kortforsyningen.proj;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Objects;
 import org.opengis.referencing.IdentifiedObject;
@@ -79,6 +89,30 @@ public class ReferencingFormat {
      */
     private final List<String> warnings;
 
+    /**
+     * Initial capacity of the {@link #bytes} buffer, in bytes.
+     * This is sufficient for the WKT of most CRS.
+     */
+    private static final int INITIAL_CAPACITY = 8192;
+
+    /**
+     * Buffer where the native code writes the formatted text as UTF-8 bytes.
+     * Created when first needed by {@link #buffer(int)} and reused by all {@code formatTo(…)} calls.
+     * The capacity is increased if a formatted text does not fit.
+     */
+    private ByteBuffer bytes;
+
+    /**
+     * Buffer where the UTF-8 bytes are decoded before to be written to the destination.
+     * Created when first needed and reused by all {@code formatTo(…)} calls.
+     */
+    private CharBuffer chars;
+
+    /**
+     * The decoder from UTF-8 bytes to characters, created when first needed.
+     */
+    private CharsetDecoder decoder;
+
     /**
      * Creates a new formatter initialized to default configuration.
      * The default configuration uses {@link Convention#WKT} and
@@ -201,24 +235,130 @@ public class ReferencingFormat {
         throw new UnformattableObjectException("Can not format the given object.");
     }
 
+    /**
+     * Formats the given object and writes the result to the given destination.
+     * This method produces the same text than {@link #format(Object)}, but without creating
+     * a temporary {@link String}: the text is written by PROJ in a buffer which is reused for
+     * all invocations of this method on the same {@code ReferencingFormat} instance.
+     *
+     * @param  object  the PROJ object to format.
+     * @param  out     where to write the object in WKT, JSON or PROJ format.
+     * @throws UnformattableObjectException if the given object can not be formatted.
+     * @throws IOException if an error occurred while writing to the given destination.
+     */
+    public void formatTo(final Object object, final Appendable out) throws UnformattableObjectException, IOException {
+        warnings.clear();
+        Objects.requireNonNull(object);
+        Objects.requireNonNull(out);
+        try (Context c = Context.acquire()) {
+            formatTo(c, object, out);
+        }
+    }
+
+    /**
+     * Formats all given objects and writes the results to the given writer, one object after the other.
+     * Each object is followed by a line separator. This method is more efficient than invoking
+     * {@link #format(Object)} in a loop because the same PROJ context and the same buffers are reused
+     * for all objects, and no temporary {@link String} is created.
+     *
+     * @param  objects  the PROJ objects to format.
+     * @param  out      where to write the objects in WKT, JSON or PROJ format.
+     * @throws UnformattableObjectException if an object can not be formatted.
+     *         In such case, the objects before the failed one have already been written.
+     * @throws IOException if an error occurred while writing to the given destination.
+     */
+    public void formatAll(final Collection<?> objects, final Writer out) throws UnformattableObjectException, IOException {
+        warnings.clear();
+        Objects.requireNonNull(out);
+        final String lineSeparator = System.lineSeparator();
+        try (Context c = Context.acquire()) {
+            for (final Object object : objects) {
+                formatTo(c, Objects.requireNonNull(object), out);
+                out.write(lineSeparator);
+            }
+        }
+    }
+
+    /**
+     * Formats the given object in the reused byte buffer, then decodes and writes the characters
+     * to the given destination. This method does not clear the warnings.
+     *
+     * @param  c       the context to use for database access.
+     * @param  object  the PROJ object to format.
+     * @param  out     where to write the formatted object.
+     * @throws UnformattableObjectException if the given object can not be formatted.
+     * @throws IOException if an error occurred while writing to the given destination.
+     */
+    private void formatTo(final Context c, final Object object, final Appendable out)
+            throws UnformattableObjectException, IOException
+    {
+        if (object instanceof IdentifiableObject) {
+            final SharedPointer impl = ((IdentifiableObject) object).impl;
+            final int ci = convention.ordinal();
+            if (decoder == null) {
+                chars   = CharBuffer.allocate(INITIAL_CAPACITY);
+                decoder = StandardCharsets.UTF_8.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            }
+            final int length = impl.formatTo(c, ci, indentation, multiline, strict, this);
+            if (length > 0) {
+                bytes.clear().limit(length);
+                decoder.reset();
+                CoderResult result;
+                do {
+                    result = decoder.decode(bytes, chars, true);
+                    if (result.isUnderflow()) {
+                        result = decoder.flush(chars);
+                    }
+                    chars.flip();
+                    if (out instanceof Writer) {
+                        ((Writer) out).write(chars.array(), chars.arrayOffset(), chars.limit());
+                    } else {
+                        out.append(chars);
+                    }
+                    chars.clear();
+                } while (result.isOverflow());
+                return;
+            }
+        }
+        throw new UnformattableObjectException("Can not format the given object.");
+    }
+
     /**
      * Parses the given characters string. The format (WKT, PROJ) must be the
      * format specified by the last call to {@link #setConvention(Convention)}.
      * If the given string contains some non-fatal errors, warnings can be obtained
      * by {@link #getWarnings()}.
      *
+     * <p>Objects parsed without warnings are cached. Invoking this method many times with the same text
+     * and the same parsing options returns the same instance, unless the object has been evicted from
+     * the cache.</p>
+     *
      * @param  text  the object definition to parse.
      * @return object parsed from the given characters string.
-     * @throws UnparsableObjectException if an error occurred during parsing.
+     * @throws UnparsableObjectException if an error occurred during parsing,
+     *         or if the current convention (e.g. JSON) is not supported for parsing.
      *
      * @see Proj#createFromUserInput(String)
      */
     public Object parse(final String text) throws UnparsableObjectException {
         warnings.clear();
-        Objects.requireNonNull(text);
-        try (Context c = Context.acquire()) {
-            return parse(text, c, convention.ordinal(), strict);
+        final InternedObjects.Key key = new InternedObjects.Key(text, convention, strict);
+        Object result = InternedObjects.CACHE.lookup(key);
+        if (result == null) {
+            try (Context c = Context.acquire()) {
+                result = parse(text, c, convention.ordinal(), strict);
+            }
+            /*
+             * Objects parsed with warnings are not cached, because the warnings
+             * would not be reported again when the same text is parsed again.
+             */
+            if (result != null && warnings.isEmpty()) {
+                result = InternedObjects.CACHE.intern(key, result);
+            }
         }
+        return result;
     }
 
     /**
@@ -233,6 +373,72 @@ public class ReferencingFormat {
      */
     final native Object parse(String text, Context context, int convention, boolean strict) throws UnparsableObjectException;
 
+    /**
+     * Parses all given characters strings using the same PROJ context. The format (WKT, PROJ) must be
+     * the format specified by the last call to {@link #setConvention(Convention)}. This method is more
+     * efficient than invoking {@link #parse(String)} in a loop because all strings are parsed in a single
+     * native call. Contrarily to {@code parse(String)}, this method does not throw an exception if a string
+     * can not be parsed. Instead, the error is reported in the {@link ParseResult} at the same index than
+     * the string that failed, together with the warnings specific to that string. If the current convention
+     * (e.g. JSON) is not supported for parsing, an error is reported that way for every string.
+     *
+     * <p>The {@link #getWarnings()} list is cleared by this method but not populated;
+     * warnings are available on a per-string basis by {@link ParseResult#getWarnings()}.</p>
+     *
+     * @param  texts  the object definitions to parse. Elements shall not be null.
+     * @return results of parsing each string, in the same order than the given strings.
+     */
+    public List<ParseResult> parseAll(final Collection<String> texts) {
+        warnings.clear();
+        final String[] array = texts.toArray(new String[texts.size()]);
+        for (final String text : array) {
+            Objects.requireNonNull(text);
+        }
+        final Object[]   results  = new Object  [array.length];
+        final String[]   errors   = new String  [array.length];
+        final String[][] messages = new String[array.length][];
+        try (Context c = Context.acquire()) {
+            parseAll(array, c, convention.ordinal(), strict, results, errors, messages);
+        }
+        final ParseResult[] list = new ParseResult[array.length];
+        for (int i=0; i<list.length; i++) {
+            list[i] = new ParseResult(array[i], results[i], errors[i], messages[i]);
+        }
+        return Arrays.asList(list);
+    }
+
+    /**
+     * Parses the given characters strings. Results are stored in the given arrays,
+     * which shall have the same length than {@code texts}.
+     *
+     * @param  texts       the object definitions to parse.
+     * @param  context     the thread context, or {@code null} if none.
+     * @param  convention  ordinal value of the {@link ReferencingFormat.Convention} to use.
+     * @param  strict      whether to enforce strictly standard format.
+     * @param  results     where to store the objects parsed from each string.
+     * @param  errors      where to store the error messages of strings that can not be parsed.
+     * @param  warnings    where to store the warnings emitted for each string.
+     */
+    private native void parseAll(String[] texts, Context context, int convention, boolean strict,
+                                 Object[] results, String[] errors, String[][] warnings);
+
+    /**
+     * Returns a direct buffer having at least the given capacity. This method is invoked from native code
+     * after an object has been formatted, for getting the buffer where to write the text. The buffer is
+     * created when first needed and replaced by a larger one if the formatted text does not fit.
+     * Method signature shall not be modified unless the native code is updated accordingly.
+     *
+     * @param  capacity  minimal capacity, in bytes, of the buffer to return.
+     * @return the buffer where the native code can write the formatted text.
+     */
+    private ByteBuffer buffer(final int capacity) {
+        if (bytes == null || bytes.capacity() < capacity) {
+            final int current = (bytes != null) ? bytes.capacity() : INITIAL_CAPACITY / 2;
+            bytes = ByteBuffer.allocateDirect(Math.max(capacity, current * 2));
+        }
+        return bytes;
+    }
+
     /**
      * Adds the given message to the warnings. This method is invoked from native code;
      * method signature shall not be modified unless the native code is updated accordingly.
@@ -255,6 +461,103 @@ public class ReferencingFormat {
 
 
 
+    /**
+     * The result of parsing a character string with {@link #parseAll(Collection)}.
+     * Each instance contains either the parsed object or the error that occurred,
+     * together with the warnings emitted while parsing the string.
+     *
+     * @author  Martin Desruisseaux (Geomatys)
+     * @version 1.0
+     * @since   1.0
+     */
+    public static final class ParseResult {
+        /**
+         * The text which has been parsed.
+         */
+        private final String text;
+
+        /**
+         * The parsed object, or {@code null} if the parsing failed.
+         */
+        private final Object object;
+
+        /**
+         * The error message, or {@code null} if the parsing succeeded.
+         */
+        private final String error;
+
+        /**
+         * The warnings emitted during parsing, or {@code null} if none.
+         */
+        private final String[] warnings;
+
+        /**
+         * Creates a new result.
+         *
+         * @param  text      the text which has been parsed.
+         * @param  object    the parsed object, or {@code null} if the parsing failed.
+         * @param  error     the error message, or {@code null} if the parsing succeeded.
+         * @param  warnings  the warnings emitted during parsing, or {@code null} if none.
+         */
+        ParseResult(final String text, final Object object, final String error, final String[] warnings) {
+            this.text     = text;
+            this.object   = object;
+            this.error    = error;
+            this.warnings = warnings;
+        }
+
+        /**
+         * Returns the object definition which has been parsed.
+         *
+         * @return the parsed text.
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * Returns the object parsed from the text, or {@code null} if the parsing failed.
+         *
+         * @return the parsed object, or {@code null} if none.
+         *
+         * @see #getError()
+         */
+        public Object getObject() {
+            return object;
+        }
+
+        /**
+         * Returns the error that occurred while parsing the text, or {@code null} if none.
+         *
+         * @return the parsing error, or {@code null} if the parsing succeeded.
+         */
+        public UnparsableObjectException getError() {
+            return (error != null) ? new UnparsableObjectException(error) : null;
+        }
+
+        /**
+         * Returns the warnings emitted while parsing the text.
+         * If no warning occurred, then this method returns an empty list.
+         *
+         * @return the warnings that occurred while parsing the text.
+         */
+        public List<String> getWarnings() {
+            return (warnings != null) ? Collections.unmodifiableList(Arrays.asList(warnings)) : Collections.emptyList();
+        }
+
+        /**
+         * Returns a string representation of this result for debugging purpose.
+         *
+         * @return a string representation of this result.
+         */
+        @Override
+        public String toString() {
+            return (error != null) ? "Error: " + error : String.valueOf(object);
+        }
+    }
+
+
+
     /**
      * Controls some aspects in formatting referencing objects as <cite>Well Known Text</cite> (WKT),
      * JSON or PROJ strings.
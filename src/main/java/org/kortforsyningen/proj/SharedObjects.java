@@ -383,6 +383,22 @@ final class SharedObjects extends StampedLock implements Runnable {
         return null;
     }
 
+    /**
+     * Returns the number of entries in this map. This count includes the entries for objects
+     * that have been garbage collected but not yet processed by {@link CleanerThread}.
+     * This is used for monitoring and benchmarking purposes.
+     *
+     * @return number of entries in this map.
+     */
+    final int size() {
+        final long stamp = readLock();
+        try {
+            return count;
+        } finally {
+            unlockRead(stamp);
+        }
+    }
+
     /**
      * Invoked at JVM shutdown time for releasing all shared pointers,
      * then destroying all {@code PJ_CONTEXT} instances.
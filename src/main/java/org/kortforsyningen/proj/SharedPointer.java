@@ -124,6 +124,27 @@ class SharedPointer extends NativeResource {
      */
     final native Object getVectorElement(short property, int index);
 
+    /**
+     * Returns in a single call the properties most frequently requested on an identified object.
+     * This is more efficient than invoking the {@code getFooProperty(…)} methods one-by-one,
+     * especially for objects having many axes. Elements in the returned array are:
+     *
+     * <ol start="0">
+     *   <li>{@link Property#SNAPSHOT_NAME}: {@link ObjectIdentifier} wrapping the name, or {@code null} if none.</li>
+     *   <li>{@link Property#SNAPSHOT_IDENTIFIERS}: array of {@link ObjectIdentifier}, never null.</li>
+     *   <li>{@link Property#SNAPSHOT_DOMAIN}: bounding box as an array of length 4, or {@code null} if none.</li>
+     *   <li>{@link Property#SNAPSHOT_AXES}: array of {@link Axis}, or {@code null} if the object is not a CRS or CS
+     *       or if {@code withAxes} is {@code false}.</li>
+     *   <li>{@link Property#SNAPSHOT_AXIS_DIRECTIONS}: array of axis direction names, or {@code null}.</li>
+     *   <li>{@link Property#SNAPSHOT_AXIS_UNITS}: array of {@link javax.measure.Unit}, or {@code null}.</li>
+     * </ol>
+     *
+     * @param  withAxes  whether to fetch also the axes with their directions and units.
+     * @return name, identifiers, domain of validity and axes of the wrapped object.
+     * @throws RuntimeException if the wrapped object is not an identified object.
+     */
+    final native Object[] getSnapshot(boolean withAxes);
+
     /**
      * Returns a property value as an object for the given name.
      *
@@ -147,6 +168,22 @@ class SharedPointer extends NativeResource {
      */
     final native IdentifiableObject inverse() throws NoninvertibleTransformException;
 
+    /**
+     * Creates the inverse of the wrapped operation and returns the address of its shared pointer
+     * without creating a Java wrapper. This is used when the caller needs to create the wrapper
+     * itself, for example for sharing resources with the forward operation.
+     * It is caller's responsibility to wrap the returned address in an object which will release it.
+     * This method can be used with the following types:
+     *
+     * <ul>
+     *   <li>{@code osgeo::proj::operation::CoordinateOperation}</li>
+     * </ul>
+     *
+     * @return address of the inverse operation, or 0 if out of memory.
+     * @throws NoninvertibleTransformException if the inverse transform can not be computed.
+     */
+    final native long inversePointer() throws NoninvertibleTransformException;
+
     /**
      * Returns an object with axis order such as the east direction is first and north direction is second,
      * if possible. This method can be applied on coordinate operations.
@@ -177,6 +214,27 @@ class SharedPointer extends NativeResource {
     final native String format(Context context, int convention, int indentation, boolean multiline, boolean strict)
             throws UnformattableObjectException;
 
+    /**
+     * Writes a <cite>Well-Known Text</cite> (WKT) or other format for this object in a direct buffer.
+     * The object is formatted once, then the native code asks a buffer of sufficient capacity to the
+     * given {@code ReferencingFormat} and writes the text as UTF-8 bytes starting at buffer position 0,
+     * without modification of buffer position or limit.
+     *
+     * @param  context     the thread context, or {@code null} if none.
+     * @param  convention  ordinal value of the {@link ReferencingFormat.Convention} to use.
+     * @param  indentation number of spaces for each indentation level, or -1 for the default value.
+     * @param  multiline   whether the WKT will use multi-line layout.
+     * @param  strict      whether to enforce strictly standard format.
+     * @param  format      the format which provides the <em>direct</em> buffer where to write the UTF-8 bytes.
+     * @return number of bytes in the formatted text,
+     *         or -1 if the PROJ object does not implement the requested export interface.
+     * @throws UnformattableObjectException if an error occurred during formatting.
+     *
+     * @see #format(Context, int, int, boolean, boolean)
+     */
+    final native int formatTo(Context context, int convention, int indentation, boolean multiline, boolean strict,
+            ReferencingFormat format) throws UnformattableObjectException;
+
     /**
      * Compares this object with the given object for equality.
      * Note: we do not use this method for {@link #equals(Object)} implementation
@@ -0,0 +1,201 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import java.util.Arrays;
+import java.io.Serializable;
+import org.opengis.referencing.operation.Matrix;
+
+
+/**
+ * A trivial implementation of {@link Matrix} backed by a flat array in row-major order.
+ * Used for returning the derivatives of coordinate operations.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+final class SimpleMatrix implements Matrix, Serializable, Cloneable {
+    /**
+     * For cross-version compatibility of serialized objects.
+     */
+    private static final long serialVersionUID = -3104524717384618395L;
+
+    /**
+     * Number of rows and columns.
+     */
+    private final int numRow, numCol;
+
+    /**
+     * The matrix elements in row-major order.
+     * This array is modified in-place by {@link Operation#derivatives Operation.derivatives(…)}.
+     */
+    double[] elements;
+
+    /**
+     * Creates a new matrix of the given size with all elements initialized to zero.
+     *
+     * @param numRow  number of rows.
+     * @param numCol  number of columns.
+     */
+    SimpleMatrix(final int numRow, final int numCol) {
+        this.numRow = numRow;
+        this.numCol = numCol;
+        elements = new double[numRow * numCol];
+    }
+
+    /**
+     * Returns the number of rows in this matrix.
+     *
+     * @return the number of rows in this matrix.
+     */
+    @Override
+    public int getNumRow() {
+        return numRow;
+    }
+
+    /**
+     * Returns the number of columns in this matrix.
+     *
+     * @return the number of columns in this matrix.
+     */
+    @Override
+    public int getNumCol() {
+        return numCol;
+    }
+
+    /**
+     * Returns the index in the {@link #elements} array of the given matrix element.
+     *
+     * @param  row     the row index, from 0 inclusive to {@link #getNumRow()} exclusive.
+     * @param  column  the column index, from 0 inclusive to {@link #getNumCol()} exclusive.
+     * @return index of the element in the {@link #elements} array.
+     * @throws IndexOutOfBoundsException if the given indices are out of bounds.
+     */
+    private int index(final int row, final int column) {
+        if (row < 0 || row >= numRow || column < 0 || column >= numCol) {
+            throw new IndexOutOfBoundsException("Element (" + row + ", " + column + ") is out of bounds.");
+        }
+        return row * numCol + column;
+    }
+
+    /**
+     * Retrieves the value at the specified row and column of this matrix.
+     *
+     * @param  row     the row index, from 0 inclusive to {@link #getNumRow()} exclusive.
+     * @param  column  the column index, from 0 inclusive to {@link #getNumCol()} exclusive.
+     * @return the current value at the given row and column.
+     * @throws IndexOutOfBoundsException if the given indices are out of bounds.
+     */
+    @Override
+    public double getElement(final int row, final int column) {
+        return elements[index(row, column)];
+    }
+
+    /**
+     * Modifies the value at the specified row and column of this matrix.
+     *
+     * @param  row     the row index, from 0 inclusive to {@link #getNumRow()} exclusive.
+     * @param  column  the column index, from 0 inclusive to {@link #getNumCol()} exclusive.
+     * @param  value   the new value to set at the given row and column.
+     * @throws IndexOutOfBoundsException if the given indices are out of bounds.
+     */
+    @Override
+    public void setElement(final int row, final int column, final double value) {
+        elements[index(row, column)] = value;
+    }
+
+    /**
+     * Returns {@code true} if this matrix is an identity matrix.
+     *
+     * @return {@code true} if this matrix is an identity matrix.
+     */
+    @Override
+    public boolean isIdentity() {
+        if (numRow != numCol) {
+            return false;
+        }
+        for (int i=0; i<elements.length; i++) {
+            if (elements[i] != ((i % (numCol + 1)) == 0 ? 1 : 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a clone of this matrix.
+     *
+     * @return a new matrix of the same class and with the same values than this matrix.
+     */
+    @Override
+    public SimpleMatrix clone() {
+        final SimpleMatrix m;
+        try {
+            m = (SimpleMatrix) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);                // Should never happen since we are cloneable.
+        }
+        m.elements = elements.clone();
+        return m;
+    }
+
+    /**
+     * Returns {@code true} if the given object is a matrix of the same size with equal elements.
+     *
+     * @param  object  the object to compare with this matrix for equality.
+     * @return {@code true} if the given object is equal to this matrix.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (object instanceof SimpleMatrix) {
+            final SimpleMatrix other = (SimpleMatrix) object;
+            return numRow == other.numRow && numCol == other.numCol && Arrays.equals(elements, other.elements);
+        }
+        return false;
+    }
+
+    /**
+     * Returns a hash code value for this matrix.
+     *
+     * @return a hash code value for this matrix.
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(elements) + 31 * numCol;
+    }
+
+    /**
+     * Returns a string representation of this matrix, with one row per line.
+     *
+     * @return a string representation of this matrix.
+     */
+    @Override
+    public String toString() {
+        final String lineSeparator = System.lineSeparator();
+        final StringBuilder buffer = new StringBuilder();
+        for (int i=0; i<elements.length; i++) {
+            buffer.append((i % numCol) == 0 ? (i == 0 ? "" : lineSeparator) : " ").append(elements[i]);
+        }
+        return buffer.append(lineSeparator).toString();
+    }
+}
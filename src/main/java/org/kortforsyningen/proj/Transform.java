@@ -21,6 +21,7 @@
  */
 package org.kortforsyningen.proj;
 
+import java.nio.ByteBuffer;
 import org.opengis.referencing.operation.TransformException;
 
 
@@ -71,9 +72,126 @@ final class Transform extends NativeResource {
      * @param  coordinates  the coordinates to transform, as a sequence of (<var>x</var>,<var>y</var>,<var>z</var>,…) tuples.
      * @param  offset       offset of the first coordinate in the given array.
      * @param  numPts       number of points to transform.
+     * @param  inverse      whether to execute the operation in the inverse direction.
      * @throws TransformException if the operation failed.
      */
-    native void transform(int dimension, double[] coordinates, int offset, int numPts) throws TransformException;
+    native void transform(int dimension, double[] coordinates, int offset, int numPts, boolean inverse)
+            throws TransformException;
+
+    /**
+     * Computes the Jacobian matrices of the operation at the given points.
+     * Derivatives are estimated by centred finite differences on the {@code PJ}.
+     * Each matrix has {@code dstDim} rows and {@code srcDim} columns and is written
+     * in row-major order in the {@code jacobians} array, one matrix after the other.
+     * Matrix elements are {@link Double#NaN} for points that can not be transformed.
+     *
+     * <p>It is caller's responsibility to ensure that the following conditions:</p>
+     * <ul>
+     *   <li>{@code points} and {@code jacobians} are non-null.</li>
+     *   <li>{@code ptOff + numPts*srcDim <= points.length}.</li>
+     *   <li>{@code jacOff + numPts*srcDim*dstDim <= jacobians.length}.</li>
+     *   <li>{@code srcDim}, {@code dstDim}, {@code ptOff}, {@code jacOff} and {@code numPts} are positive.</li>
+     * </ul>
+     *
+     * @param  srcDim     number of dimensions of source points.
+     * @param  dstDim     number of dimensions of target points.
+     * @param  points     the points where to evaluate the derivatives, as (<var>x</var>,<var>y</var>,…) tuples.
+     * @param  ptOff      offset of the first coordinate in the {@code points} array.
+     * @param  numPts     number of points where to evaluate the derivatives.
+     * @param  jacobians  the array where to write the matrix elements.
+     * @param  jacOff     offset of the first matrix element to write in the {@code jacobians} array.
+     * @param  inverse    whether to execute the operation in the inverse direction.
+     * @throws TransformException if the operation failed for at least one point.
+     */
+    native void derivatives(int srcDim, int dstDim, double[] points, int ptOff, int numPts,
+                            double[] jacobians, int jacOff, boolean inverse) throws TransformException;
+
+    /**
+     * Transforms in-place a bounding box, densifying each edge with intermediate points.
+     * The box is given by the (<var>x</var><sub>min</sub>, <var>y</var><sub>min</sub>,
+     * <var>x</var><sub>max</sub>, <var>y</var><sub>max</sub>) values in the first 4 elements of
+     * the {@code bounds} array, and is replaced by the smallest box containing all transformed points.
+     * Points that can not be transformed are ignored, unless no point at all can be transformed.
+     * If the target CRS is geographic, poles inside the source box and crossings of the anti-meridian
+     * are taken in account; in the latter case the minimal longitude is greater than the maximal one.
+     *
+     * @param  context        the context assigned to this {@code PJ}.
+     * @param  bounds         the bounding box to transform in-place. Shall have a length of at least 4.
+     * @param  densifyPoints  number of points to add between the corners of each edge. Shall be positive.
+     * @param  longitudeAxis  index (0 or 1) of the longitude axis in target CRS, or -1 if the target CRS is not geographic.
+     * @param  period         number of longitude units in a full turn (e.g. 360 for degrees). Ignored if not geographic.
+     * @param  inverse        whether to execute the operation in the inverse direction.
+     * @throws TransformException if no point of the bounding box can be transformed.
+     */
+    native void transformBounds(Context context, double[] bounds, int densifyPoints, int longitudeAxis, double period,
+                                boolean inverse) throws TransformException;
+
+    /**
+     * Transforms in-place coordinates stored as scaled integers, as in LAS point cloud files.
+     * Each integer is converted to a coordinate value by multiplying by a scale factor and adding an offset,
+     * then the coordinates are transformed and converted back to integers with the target scale factors and offsets.
+     * Points are processed in chunks in native code, without temporary array on the Java heap.
+     * Points that can not be transformed are left unchanged.
+     *
+     * <p>It is caller's responsibility to ensure that the following conditions:</p>
+     * <ul>
+     *   <li>{@code coordinates} and {@code quantization} are non-null.</li>
+     *   <li>{@code dimension} is between 1 and 4 inclusive.</li>
+     *   <li>{@code dimension} is both the source and target dimension of the operation.</li>
+     *   <li>{@code offset + numPts*dimension <= coordinates.length}.</li>
+     *   <li>{@code quantization.length >= dimension*4}.</li>
+     *   <li>{@code offset} and {@code numPts} are positive.</li>
+     * </ul>
+     *
+     * @param  dimension     the dimension of each coordinate tuple.
+     * @param  coordinates   the coordinates to transform, as a sequence of (<var>x</var>,<var>y</var>,<var>z</var>,…) tuples.
+     * @param  offset        offset of the first coordinate in the given array.
+     * @param  numPts        number of points to transform.
+     * @param  quantization  source scales, source offsets, target scales and target offsets,
+     *                       in that order with {@code dimension} values for each group.
+     * @param  inverse       whether to execute the operation in the inverse direction.
+     * @throws TransformException if at least one point can not be transformed.
+     */
+    native void transformScaled(int dimension, int[] coordinates, int offset, int numPts,
+                                double[] quantization, boolean inverse) throws TransformException;
+
+    /**
+     * Transforms in-place all vertices of a geometry encoded in <cite>Well Known Binary</cite> (WKB) format.
+     * The geometry is read from either a direct buffer or a Java array. Points, line strings, polygons,
+     * multi-geometries and geometry collections are supported in ISO WKB and PostGIS extended WKB flavors,
+     * in any byte order. The <var>m</var> values, if any, are left unchanged.
+     * If any vertex can not be transformed, then the WKB bytes are left unchanged.
+     *
+     * <p>It is caller's responsibility to ensure that the following conditions:</p>
+     * <ul>
+     *   <li>{@code dimension} is both the source and target dimension of the operation.</li>
+     *   <li>Exactly one of {@code buffer} and {@code array} is non-null.</li>
+     *   <li>{@code buffer} is a direct buffer.</li>
+     *   <li>{@code offset + length} is not greater than the buffer capacity or array length.</li>
+     *   <li>{@code offset} and {@code length} are positive.</li>
+     * </ul>
+     *
+     * @param  dimension  number of dimensions of source and target points, which shall also be
+     *                    the dimension of vertices (ignoring <var>m</var> values).
+     * @param  buffer     the direct buffer containing the WKB geometry, or {@code null} if using the array.
+     * @param  array      the array containing the WKB geometry, or {@code null} if using the buffer.
+     * @param  offset     index of the first byte of the WKB geometry.
+     * @param  length     maximal number of bytes that can be read from the offset.
+     * @param  inverse    whether to execute the operation in the inverse direction.
+     * @return number of vertices in the high 32 bits and number of bytes of the WKB geometry in the low 32 bits.
+     * @throws IllegalArgumentException if the WKB geometry is malformed, uses an unsupported geometry type
+     *         or has vertices of a dimension different than {@code dimension}.
+     * @throws TransformException if at least one vertex can not be transformed.
+     */
+    native long transformWKB(int dimension, ByteBuffer buffer, byte[] array, int offset, int length, boolean inverse)
+            throws TransformException;
+
+    /**
+     * Returns whether the {@code PJ} can be executed in the inverse direction.
+     *
+     * @return whether the {@code inverse} argument of above methods can be {@code true}.
+     */
+    native boolean hasInverse();
 
     /**
      * Destroys the {@code PJ} object.
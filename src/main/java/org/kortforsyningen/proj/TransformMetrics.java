@@ -0,0 +1,192 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+
+/**
+ * Statistics about the use of a coordinate operation for transforming points.
+ * Instances of this class are snapshots of counters, which continue to be incremented after this
+ * object has been created. Counters are collected only when metrics are enabled, either by the
+ * "{@systemProperty org.kortforsyningen.proj.metrics}" system property at startup time,
+ * by {@link Proj#setMetricsEnabled(boolean)} or by {@link TransformMetricsMXBean#setEnabled(boolean)}.
+ *
+ * <p>Counters are aggregated by operation name, source CRS and target CRS.
+ * Consequently two operation instances created for the same pair of CRS
+ * (for example in two separated tasks) share the same counters.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+public final class TransformMetrics {
+    /**
+     * Name of the coordinate operation.
+     */
+    private final String operation;
+
+    /**
+     * Identifier or name of source and target CRS, or {@code null} if unknown.
+     */
+    private final String sourceCRS, targetCRS;
+
+    /**
+     * Number of calls to {@code transform(…)} methods.
+     */
+    private final long callCount;
+
+    /**
+     * Number of points given to {@code transform(…)} methods.
+     */
+    private final long pointCount;
+
+    /**
+     * Cumulative time spent in transformations, in nanoseconds.
+     */
+    private final long transformTime;
+
+    /**
+     * Number of calls which failed with an exception.
+     */
+    private final long errorCount;
+
+    /**
+     * Number of {@code PJ} objects created because the pool of the operation was empty.
+     */
+    private final long poolMissCount;
+
+    /**
+     * Creates a new snapshot of operation metrics.
+     *
+     * @param  operation      name of the coordinate operation.
+     * @param  sourceCRS      identifier or name of the source CRS, or {@code null} if unknown.
+     * @param  targetCRS      identifier or name of the target CRS, or {@code null} if unknown.
+     * @param  callCount      number of calls to {@code transform(…)} methods.
+     * @param  pointCount     number of points given to {@code transform(…)} methods.
+     * @param  transformTime  cumulative time spent in transformations, in nanoseconds.
+     * @param  errorCount     number of calls which failed with an exception.
+     * @param  poolMissCount  number of {@code PJ} objects created because the pool was empty.
+     */
+    TransformMetrics(final String operation, final String sourceCRS, final String targetCRS,
+                     final long callCount, final long pointCount, final long transformTime,
+                     final long errorCount, final long poolMissCount)
+    {
+        this.operation     = operation;
+        this.sourceCRS     = sourceCRS;
+        this.targetCRS     = targetCRS;
+        this.callCount     = callCount;
+        this.pointCount    = pointCount;
+        this.transformTime = transformTime;
+        this.errorCount    = errorCount;
+        this.poolMissCount = poolMissCount;
+    }
+
+    /**
+     * Returns the name of the coordinate operation.
+     *
+     * @return name of the coordinate operation.
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Returns the identifier (for example "EPSG:4326") or the name of the source CRS.
+     *
+     * @return identifier or name of the source CRS, or {@code null} if unknown.
+     */
+    public String getSourceCRS() {
+        return sourceCRS;
+    }
+
+    /**
+     * Returns the identifier (for example "EPSG:3395") or the name of the target CRS.
+     *
+     * @return identifier or name of the target CRS, or {@code null} if unknown.
+     */
+    public String getTargetCRS() {
+        return targetCRS;
+    }
+
+    /**
+     * Returns the number of calls to {@code transform(…)} methods.
+     * A call transforming an array of many points is counted once.
+     *
+     * @return number of calls to {@code transform(…)} methods.
+     */
+    public long getCallCount() {
+        return callCount;
+    }
+
+    /**
+     * Returns the number of points given to {@code transform(…)} methods,
+     * including the points which could not be transformed.
+     *
+     * @return number of points given to {@code transform(…)} methods.
+     */
+    public long getPointCount() {
+        return pointCount;
+    }
+
+    /**
+     * Returns the cumulative time spent in transformations, in nanoseconds.
+     * This is the time spent in PROJ (or in the Java implementation of trivial pipelines)
+     * together with the time for acquiring the PROJ context and {@code PJ} object.
+     *
+     * @return cumulative time spent in transformations, in nanoseconds.
+     */
+    public long getTransformTime() {
+        return transformTime;
+    }
+
+    /**
+     * Returns the number of calls to {@code transform(…)} methods which failed with an exception.
+     *
+     * @return number of calls which failed.
+     */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Returns the number of {@code PJ} objects created because the pool of the operation was empty.
+     * A high value compared to the number of calls suggests that the pool is too small for the number
+     * of threads using the operation concurrently. The pool capacity can be increased with the
+     * "{@systemProperty org.kortforsyningen.proj.maxThreadsPerInstance}" system property.
+     *
+     * @return number of {@code PJ} creations caused by an empty pool.
+     */
+    public long getPoolMissCount() {
+        return poolMissCount;
+    }
+
+    /**
+     * Returns a string representation of this snapshot for debugging purpose.
+     *
+     * @return a string representation of this snapshot.
+     */
+    @Override
+    public String toString() {
+        return operation + " (" + sourceCRS + " to " + targetCRS + "): "
+                + callCount + " calls, " + pointCount + " points, " + (transformTime / 1000000) + " ms, "
+                + errorCount + " errors, " + poolMissCount + " pool misses";
+    }
+}
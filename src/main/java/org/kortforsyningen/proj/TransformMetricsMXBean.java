@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import java.util.List;
+
+
+/**
+ * Management interface for the metrics of coordinate operations.
+ * An instance is registered in the platform MBean server under the
+ * {@value #OBJECT_NAME} name when metrics are enabled for the first time.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+public interface TransformMetricsMXBean {
+    /**
+     * The name under which the metrics are registered in the platform MBean server.
+     */
+    String OBJECT_NAME = "org.kortforsyningen.proj:type=TransformMetrics";
+
+    /**
+     * Returns whether metrics are collected for all coordinate operations.
+     *
+     * @return whether metrics are collected.
+     */
+    boolean isEnabled();
+
+    /**
+     * Enables or disables the collection of metrics for all coordinate operations.
+     * Counters are not reset when metrics are disabled.
+     *
+     * @param  enabled  whether to collect metrics.
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Returns a snapshot of the metrics of all coordinate operations used since metrics have been enabled.
+     *
+     * @return snapshot of the metrics of all coordinate operations.
+     */
+    List<TransformMetrics> getOperations();
+
+    /**
+     * Resets all counters to zero.
+     */
+    void reset();
+}
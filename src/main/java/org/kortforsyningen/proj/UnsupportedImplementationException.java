@@ -87,6 +87,9 @@ public class UnsupportedImplementationException extends IllegalArgumentException
             message.append("a null value.");
         } else {
             message.append("an instance of ").append(value.getClass().getSimpleName()).append(" class.");
+            if (value instanceof MultiOperation) {
+                message.append(" Area-dependent transforms are not supported by this method.");
+            }
         }
         return message.toString();
     }
@@ -80,7 +80,29 @@
  * Developers should avoid invoking those methods repeatedly for each point to transform.
  * For example it is much more efficient to invoke {@code transform(double[], …)} only once
  * for an array of 4 points than to invoke that method 4 times (once for each point).
- * Above example shows the recommended way to use a transform.</p>
+ * Above example shows the recommended way to use a transform.
+ * Operations which are only axis swaps, unit conversions or other affine operations
+ * (for example from EPSG:4326 to OGC:CRS84) are executed in Java without calls to PROJ.
+ * Applications transforming many points one at a time can use a {@link PointTransformer}
+ * for avoiding object allocations and accesses to shared pools. If the same points are transformed
+ * repeatedly, that object can also cache the transformed points.</p>
+ *
+ * <p>Objects created by {@link Proj#createFromUserInput(String)} and {@link ReferencingFormat#parse(String)}
+ * are cached, so parsing the same string many times returns the same instance without running the PROJ
+ * parser again. The maximal number of cached strings can be controlled by assigning an integer to the
+ * "{@systemProperty org.kortforsyningen.proj.maxCachedTexts}" system property at startup time.
+ * A value of 0 disables the cache. The current default value is 64.</p>
+ *
+ * <p>When running on Java 11 or later, PROJ-JNI emits Java Flight Recorder events in the "PROJ" category
+ * for operation searches, creation and destruction of PROJ contexts, opening of the PROJ database,
+ * creation of {@code PJ} objects, batch transformations and disposal of garbage-collected objects.
+ * Those events can be enabled or disabled individually in JFR settings.</p>
+ *
+ * <p>Applications can also collect counters of calls, transformed points, transformation time, errors
+ * and pool misses for each coordinate operation by setting the
+ * "{@systemProperty org.kortforsyningen.proj.metrics}" system property to {@code true} at startup time,
+ * or by invoking {@link Proj#setMetricsEnabled(boolean)}. Those counters are available by
+ * {@link Proj#getMetrics()} and by JMX.</p>
  *
  * <h2>Multi-threading</h2>
  * <p>Unless otherwise noted in Javadoc, all classes are safe for use in multi-thread environment.
@@ -92,7 +114,8 @@
  * {@link org.opengis.referencing.operation.MathTransform} concurrently,
  * but the extra threads may observe a performance degradation.
  * Conversely a too high value may retain more resources than necessary.
- * The current default value is 4.</p>
+ * The current default value is 4. This value is also the maximal number of threads used by
+ * {@code Proj.warpMap(…)} methods for computing the rows of a grid in parallel.</p>
  *
  * <p>Note that there is no limit on Java side in the amount of threads that can use <em>different</em>
  * {@link org.opengis.referencing.operation.MathTransform} instances concurrently.</p>
@@ -122,10 +145,10 @@
  *   <li>{@link org.opengis.referencing.operation.CoordinateOperationFactory#createDefiningConversion
  *       CoordinateOperationFactory.createDefiningConversion(…)} — not yet implemented in this binding.</li>
  *   <li>{@link org.opengis.referencing.crs.DerivedCRS} — not yet implemented in this binding.</li>
- *   <li>{@link org.opengis.referencing.operation.MathTransform#derivative MathTransform.derivative(DirectPosition)} —
- *       Jacobian matrix calculation is not yet supported by PROJ.</li>
  *   <li>{@link org.opengis.referencing.operation.ConcatenatedOperation} — not yet implemented explicitly in this binding
- *       (but concatenated operations created by PROJ still work).</li>
+ *       (but concatenated operations created by PROJ or by
+ *       {@link org.opengis.referencing.operation.CoordinateOperationFactory#createConcatenatedOperation
+ *       CoordinateOperationFactory.createConcatenatedOperation(…)} still work).</li>
  * </ul>
  *
  * <h2>References</h2>
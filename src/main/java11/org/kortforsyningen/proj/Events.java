@@ -0,0 +1,305 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+/**
+ * Hooks for recording Java Flight Recorder (JFR) events about native operations.
+ * This is the Java 11 implementation of this class, stored in the {@code META-INF/versions/11}
+ * directory of the JAR file. All events are in the "PROJ" category and can be enabled or
+ * disabled individually in JFR settings. When an event is disabled or when no recording is running,
+ * the cost of the corresponding hook is only a check of the cached {@link EventType#isEnabled()} flag;
+ * no event object is allocated.
+ *
+ * <p>All {@code begin…()} methods return an object to give to the corresponding
+ * {@code end…(…)} method, or {@code null} if the event is not recorded.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+final class Events {
+    /**
+     * Search for coordinate operations between two CRS.
+     */
+    @Name("org.kortforsyningen.proj.OperationSearch")
+    @Label("Coordinate Operation Search")
+    @Category("PROJ")
+    @Description("Search in the PROJ database for coordinate operations between two CRS.")
+    static final class OperationSearch extends Event {
+        @Label("Source CRS")
+        String sourceCRS;
+
+        @Label("Target CRS")
+        String targetCRS;
+
+        @Label("Operations Found")
+        int count;
+    }
+
+    /**
+     * Creation of a {@code PJ_CONTEXT}.
+     */
+    @Name("org.kortforsyningen.proj.ContextCreation")
+    @Label("Context Creation")
+    @Category("PROJ")
+    @Description("Creation of a PROJ context (PJ_CONTEXT) because the pool of contexts was empty.")
+    static final class ContextCreation extends Event {
+    }
+
+    /**
+     * Destruction of a {@code PJ_CONTEXT}.
+     */
+    @Name("org.kortforsyningen.proj.ContextDestruction")
+    @Label("Context Destruction")
+    @Category("PROJ")
+    @Description("Destruction of a PROJ context (PJ_CONTEXT) which has not been used for some time.")
+    static final class ContextDestruction extends Event {
+    }
+
+    /**
+     * Opening of the PROJ database.
+     */
+    @Name("org.kortforsyningen.proj.DatabaseOpening")
+    @Label("Database Opening")
+    @Category("PROJ")
+    @Description("Opening of the PROJ database for a PROJ context.")
+    static final class DatabaseOpening extends Event {
+    }
+
+    /**
+     * Creation of a {@code PJ} object.
+     */
+    @Name("org.kortforsyningen.proj.TransformCreation")
+    @Label("Transform Creation")
+    @Category("PROJ")
+    @Description("Creation of a PJ object because the pool of the coordinate operation was empty.")
+    static final class TransformCreation extends Event {
+        @Label("Operation")
+        String operation;
+    }
+
+    /**
+     * Transformation of a batch of points.
+     */
+    @Name("org.kortforsyningen.proj.Transform")
+    @Label("Coordinate Transformation")
+    @Category("PROJ")
+    @Description("Transformation of a batch of points.")
+    static final class TransformBatch extends Event {
+        @Label("Operation")
+        String operation;
+
+        @Label("Points")
+        long numPts;
+
+        @Label("Dimension")
+        int dimension;
+
+        @Label("Failed")
+        boolean failed;
+    }
+
+    /**
+     * Disposal of the native resources of a garbage-collected object.
+     */
+    @Name("org.kortforsyningen.proj.Disposal")
+    @Label("Disposal")
+    @Category("PROJ")
+    @Description("Release of the native resources of a garbage-collected object by the cleaner thread.")
+    @StackTrace(false)
+    static final class Disposal extends Event {
+    }
+
+    /**
+     * Types of the events for which a {@code begin…()} method is provided, used for checking
+     * whether an event is enabled before to allocate it.
+     */
+    private static final EventType OPERATION_SEARCH    = EventType.getEventType(OperationSearch.class),
+                                   CONTEXT_CREATION    = EventType.getEventType(ContextCreation.class),
+                                   CONTEXT_DESTRUCTION = EventType.getEventType(ContextDestruction.class),
+                                   DATABASE_OPENING    = EventType.getEventType(DatabaseOpening.class),
+                                   TRANSFORM_CREATION  = EventType.getEventType(TransformCreation.class),
+                                   TRANSFORM_BATCH     = EventType.getEventType(TransformBatch.class),
+                                   DISPOSAL            = EventType.getEventType(Disposal.class);
+
+    /**
+     * Do not allow instantiation of this class.
+     */
+    private Events() {
+    }
+
+    /**
+     * Starts the timing of the given event.
+     * Shall be invoked only if the event type is enabled.
+     *
+     * @param  event  the event to start.
+     * @return the given event.
+     */
+    private static Object begin(final Event event) {
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Invoked before searching the coordinate operations between two CRS.
+     *
+     * @return the event to give to {@link #endOperationSearch endOperationSearch(…)}, or {@code null}.
+     */
+    static Object beginOperationSearch() {
+        return OPERATION_SEARCH.isEnabled() ? begin(new OperationSearch()) : null;
+    }
+
+    /**
+     * Invoked after the search for coordinate operations between two CRS.
+     *
+     * @param  event      the value returned by {@link #beginOperationSearch()}.
+     * @param  sourceCRS  the source CRS of the search.
+     * @param  targetCRS  the target CRS of the search.
+     * @param  count      number of operations found, or -1 if the search failed.
+     */
+    static void endOperationSearch(Object event, IdentifiableObject sourceCRS, IdentifiableObject targetCRS, int count) {
+        if (event != null) {
+            final OperationSearch e = (OperationSearch) event;
+            e.end();
+            if (e.shouldCommit()) {
+                e.sourceCRS = sourceCRS.getNameString(true);
+                e.targetCRS = targetCRS.getNameString(true);
+                e.count     = count;
+                e.commit();
+            }
+        }
+    }
+
+    /**
+     * Invoked before the creation of a {@code PJ_CONTEXT}.
+     *
+     * @return the event to give to {@link #end(Object)}, or {@code null}.
+     */
+    static Object beginContextCreation() {
+        return CONTEXT_CREATION.isEnabled() ? begin(new ContextCreation()) : null;
+    }
+
+    /**
+     * Invoked before the destruction of a {@code PJ_CONTEXT}.
+     *
+     * @return the event to give to {@link #end(Object)}, or {@code null}.
+     */
+    static Object beginContextDestruction() {
+        return CONTEXT_DESTRUCTION.isEnabled() ? begin(new ContextDestruction()) : null;
+    }
+
+    /**
+     * Invoked by native code before opening the PROJ database for a {@code PJ_CONTEXT}.
+     *
+     * @return the event to give to {@link #end(Object)}, or {@code null}.
+     */
+    static Object beginDatabaseOpening() {
+        return DATABASE_OPENING.isEnabled() ? begin(new DatabaseOpening()) : null;
+    }
+
+    /**
+     * Invoked before the creation of a {@code PJ} object for a coordinate operation.
+     *
+     * @return the event to give to {@link #endTransformCreation endTransformCreation(…)}, or {@code null}.
+     */
+    static Object beginTransformCreation() {
+        return TRANSFORM_CREATION.isEnabled() ? begin(new TransformCreation()) : null;
+    }
+
+    /**
+     * Invoked after the creation of a {@code PJ} object for a coordinate operation.
+     *
+     * @param  event      the value returned by {@link #beginTransformCreation()}.
+     * @param  operation  the operation for which a {@code PJ} object has been created.
+     */
+    static void endTransformCreation(Object event, IdentifiableObject operation) {
+        if (event != null) {
+            final TransformCreation e = (TransformCreation) event;
+            e.end();
+            if (e.shouldCommit()) {
+                e.operation = operation.getNameString(false);
+                e.commit();
+            }
+        }
+    }
+
+    /**
+     * Invoked before transforming a batch of points.
+     *
+     * @return the event to give to {@link #endTransform endTransform(…)}, or {@code null}.
+     */
+    static Object beginTransform() {
+        return TRANSFORM_BATCH.isEnabled() ? begin(new TransformBatch()) : null;
+    }
+
+    /**
+     * Invoked after transforming a batch of points, successfully or not.
+     *
+     * @param  event      the value returned by {@link #beginTransform()}.
+     * @param  operation  the operation used for transforming the points.
+     * @param  numPts     number of points to transform.
+     * @param  dimension  number of dimensions of the points.
+     * @param  failed     whether the transformation failed.
+     */
+    static void endTransform(Object event, IdentifiableObject operation, long numPts, int dimension, boolean failed) {
+        if (event != null) {
+            final TransformBatch e = (TransformBatch) event;
+            e.end();
+            if (e.shouldCommit()) {
+                e.operation = operation.getNameString(false);
+                e.numPts    = numPts;
+                e.dimension = dimension;
+                e.failed    = failed;
+                e.commit();
+            }
+        }
+    }
+
+    /**
+     * Invoked by {@link CleanerThread} before disposing the native resources of a garbage-collected object.
+     *
+     * @return the event to give to {@link #end(Object)}, or {@code null}.
+     */
+    static Object beginDisposal() {
+        return DISPOSAL.isEnabled() ? begin(new Disposal()) : null;
+    }
+
+    /**
+     * Invoked after an event which has no property other than its duration.
+     *
+     * @param  event  the value returned by a {@code begin…()} method.
+     */
+    static void end(Object event) {
+        if (event != null) {
+            ((Event) event).commit();
+        }
+    }
+}
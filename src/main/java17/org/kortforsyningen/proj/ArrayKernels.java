@@ -0,0 +1,185 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import java.util.Arrays;
+import java.util.logging.Level;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+import jdk.incubator.vector.VectorOperators;
+
+
+/**
+ * Loops converting contiguous sequences of coordinate values between {@code float} and {@code double}.
+ * This implementation uses the {@code jdk.incubator.vector} module if that module is present in the boot
+ * layer (for example because the application has been launched with {@code --add-modules jdk.incubator.vector}).
+ * Otherwise, or if the Vector API of the running JDK is not compatible with the one this class has been compiled
+ * against, this class fallbacks on the plain loops of the Java 8 implementation.
+ *
+ * <p>Only the case where source and target points have the same number of dimensions is handled here.
+ * Copies between arrays of different dimensions are strided and stay in {@link Operation}.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+class ArrayKernels {
+    /**
+     * Name of the module providing the Vector API.
+     */
+    private static final String MODULE = "jdk.incubator.vector";
+
+    /**
+     * The implementation to use, selected when this class is initialized.
+     */
+    static final ArrayKernels INSTANCE = select();
+
+    /**
+     * Creates a new instance using plain loops.
+     * Should be invoked only for {@link #INSTANCE} or for benchmarking.
+     */
+    ArrayKernels() {
+    }
+
+    /**
+     * Returns the vectorized implementation if the Vector API is available and gives the same results
+     * than the plain loops on a small test array, or the plain loops implementation otherwise.
+     * The {@link Vectorized} class is not loaded at all if the module is absent.
+     */
+    private static ArrayKernels select() {
+        if (ModuleLayer.boot().findModule(MODULE).isPresent()) try {
+            final ArrayKernels vectorized = new Vectorized();
+            final float[]  floats  = {1, -2, 3.5f, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17.25f};
+            final double[] doubles = new double[floats.length];
+            final float[]  back    = new float [floats.length];
+            vectorized.floatsToDoubles(floats,  0, doubles, 0, floats.length);
+            vectorized.doublesToFloats(doubles, 0, back,    0, doubles.length);
+            if (Arrays.equals(floats, back) && doubles[floats.length - 1] == 17.25) {
+                return vectorized;
+            }
+        } catch (LinkageError | RuntimeException e) {
+            NativeResource.logger().log(Level.FINE, e.getLocalizedMessage(), e);
+        }
+        return new ArrayKernels();
+    }
+
+    /**
+     * Returns whether this implementation uses the Vector API.
+     *
+     * @return whether the Vector API is used.
+     */
+    boolean isVectorized() {
+        return false;
+    }
+
+    /**
+     * Copies a sequence of float values into an array of double values.
+     *
+     * @param srcPts  the array of source coordinates.
+     * @param srcOff  index of the first coordinate to read in the source array.
+     * @param dstPts  the array where to write the coordinates.
+     * @param dstOff  index of the first coordinate to write in the destination array.
+     * @param length  number of coordinate values to copy.
+     */
+    void floatsToDoubles(final float[] srcPts, final int srcOff, final double[] dstPts, final int dstOff, final int length) {
+        for (int i=0; i<length; i++) {
+            dstPts[dstOff + i] = srcPts[srcOff + i];
+        }
+    }
+
+    /**
+     * Copies a sequence of double values into an array of float values.
+     *
+     * @param srcPts  the array of source coordinates.
+     * @param srcOff  index of the first coordinate to read in the source array.
+     * @param dstPts  the array where to write the coordinates.
+     * @param dstOff  index of the first coordinate to write in the destination array.
+     * @param length  number of coordinate values to copy.
+     */
+    void doublesToFloats(final double[] srcPts, final int srcOff, final float[] dstPts, final int dstOff, final int length) {
+        for (int i=0; i<length; i++) {
+            dstPts[dstOff + i] = (float) srcPts[srcOff + i];
+        }
+    }
+
+    /**
+     * Implementation using the Vector API. The vectors of {@code double} values use the preferred shape
+     * of the platform, and the vectors of {@code float} values use the shape having the same number of lanes.
+     * The remaining values that do not fill a whole vector are copied by the plain loops of the parent class.
+     */
+    private static final class Vectorized extends ArrayKernels {
+        /**
+         * Species of vectors of {@code double} values.
+         */
+        private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+        /**
+         * Species of vectors of {@code float} values, with the same number of lanes than {@link #DOUBLES}.
+         */
+        private static final VectorSpecies<Float> FLOATS =
+                VectorSpecies.of(float.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+        /**
+         * Creates the vectorized implementation.
+         */
+        Vectorized() {
+        }
+
+        /**
+         * Returns {@code true} since this implementation uses the Vector API.
+         */
+        @Override
+        boolean isVectorized() {
+            return true;
+        }
+
+        /**
+         * Copies a sequence of float values into an array of double values, using vectors where possible.
+         */
+        @Override
+        void floatsToDoubles(final float[] srcPts, final int srcOff, final double[] dstPts, final int dstOff, final int length) {
+            final int upper = DOUBLES.loopBound(length);
+            int i = 0;
+            for (; i < upper; i += DOUBLES.length()) {
+                ((DoubleVector) FloatVector.fromArray(FLOATS, srcPts, srcOff + i)
+                        .convertShape(VectorOperators.F2D, DOUBLES, 0)).intoArray(dstPts, dstOff + i);
+            }
+            super.floatsToDoubles(srcPts, srcOff + i, dstPts, dstOff + i, length - i);
+        }
+
+        /**
+         * Copies a sequence of double values into an array of float values, using vectors where possible.
+         */
+        @Override
+        void doublesToFloats(final double[] srcPts, final int srcOff, final float[] dstPts, final int dstOff, final int length) {
+            final int upper = DOUBLES.loopBound(length);
+            int i = 0;
+            for (; i < upper; i += DOUBLES.length()) {
+                ((FloatVector) DoubleVector.fromArray(DOUBLES, srcPts, srcOff + i)
+                        .convertShape(VectorOperators.D2F, FLOATS, 0)).intoArray(dstPts, dstOff + i);
+            }
+            super.doublesToFloats(srcPts, srcOff + i, dstPts, dstOff + i, length - i);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests the {@link AffinePipeline} class.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+public final strictfp class AffinePipelineTest {
+    /**
+     * Parses the given PROJ string and transforms the given coordinates.
+     *
+     * @param  definition   the PROJ string to parse.
+     * @param  coordinates  the coordinates to transform.
+     * @return the transformed coordinates.
+     */
+    private static double[] transform(final String definition, final double... coordinates) {
+        final AffinePipeline pipeline = AffinePipeline.parse(definition, 2);
+        assertNotNull(definition, pipeline);
+        final double[] result = coordinates.clone();
+        pipeline.transform(result, 0, result.length / 2);
+        return result;
+    }
+
+    /**
+     * Tests a no-op operation.
+     */
+    @Test
+    public void testNoop() {
+        assertArrayEquals(new double[] {40, 60}, transform("+proj=noop", 40, 60), 0);
+    }
+
+    /**
+     * Tests an axis swap, as used between EPSG:4326 and OGC:CRS84.
+     */
+    @Test
+    public void testAxisSwap() {
+        assertArrayEquals(new double[] {60, 40, -10, 30},
+                transform("+proj=axisswap +order=2,1", 40, 60, 30, -10), 0);
+        assertArrayEquals(new double[] {-60, 40},
+                transform("+proj=axisswap +order=-2,1", 40, 60), 0);
+        assertArrayEquals(new double[] {60, -40},
+                transform("+proj=axisswap +order=-2,1 +inv", 40, 60), 0);
+    }
+
+    /**
+     * Tests a pipeline made of an axis swap followed by a unit conversion.
+     */
+    @Test
+    public void testPipeline() {
+        final double[] result = transform("+proj=pipeline +step +proj=axisswap +order=2,1 "
+                + "+step +proj=unitconvert +xy_in=deg +xy_out=rad", 40, 60);
+        assertArrayEquals(new double[] {Math.toRadians(60), Math.toRadians(40)}, result, 1E-15);
+        assertArrayEquals(new double[] {40, 60}, transform("+proj=pipeline "
+                + "+step +proj=unitconvert +xy_in=deg +xy_out=rad "
+                + "+step +inv +proj=unitconvert +xy_in=deg +xy_out=rad", 40, 60), 1E-12);
+        assertArrayEquals(new double[] {3048100, 600000},
+                transform("+proj=pipeline +step +proj=unitconvert +xy_in=km +xy_out=m "
+                        + "+step +proj=affine +xoff=100 +s11=0.3048 +s22=0.1 +s12=0", 10000, 6000), 1E-9);
+    }
+
+    /**
+     * Verifies that operations that are not affine are rejected.
+     */
+    @Test
+    public void testUnsupported() {
+        assertNull(AffinePipeline.parse("+proj=merc +ellps=WGS84", 2));
+        assertNull(AffinePipeline.parse("+proj=pipeline +step +proj=axisswap +order=2,1 +step +proj=merc", 2));
+        assertNull(AffinePipeline.parse("+proj=unitconvert +xy_in=deg +xy_out=m", 2));
+        assertNull(AffinePipeline.parse("+proj=unitconvert +xy_in=deg +xy_out=rad +t_in=decimalyear +t_out=mjd", 2));
+        assertNull(AffinePipeline.parse("+proj=axisswap +order=1,1", 2));
+    }
+}
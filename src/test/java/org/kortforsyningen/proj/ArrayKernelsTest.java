@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests the {@link ArrayKernels} class. The implementation selected at runtime
+ * shall give the same results than the plain loops, including for the values
+ * that do not fill a whole vector.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+public final strictfp class ArrayKernelsTest {
+    /**
+     * Compares the selected implementation with the plain loops for all lengths
+     * from 0 to 100 values, with non-zero offsets in source and target arrays.
+     */
+    @Test
+    public void testConversions() {
+        final ArrayKernels scalar   = new ArrayKernels();
+        final ArrayKernels selected = ArrayKernels.INSTANCE;
+        final Random random = new Random(7823516043981L);
+        for (int length=0; length<=100; length++) {
+            final float[] source = new float[length + 3];
+            for (int i=0; i<source.length; i++) {
+                source[i] = random.nextFloat() * 360 - 180;
+            }
+            final double[] expected = new double[length + 5];
+            final double[] actual   = new double[length + 5];
+            scalar  .floatsToDoubles(source, 3, expected, 2, length);
+            selected.floatsToDoubles(source, 3, actual,   2, length);
+            assertArrayEquals(expected, actual, 0);
+
+            final float[] back = new float[length + 1];
+            selected.doublesToFloats(actual, 2, back, 1, length);
+            for (int i=0; i<length; i++) {
+                assertEquals(source[i + 3], back[i + 1], 0f);
+            }
+            assertEquals(0f, back[0], 0f);
+        }
+    }
+}
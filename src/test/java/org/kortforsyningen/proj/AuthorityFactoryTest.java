@@ -24,6 +24,7 @@ package org.kortforsyningen.proj;
 import java.util.List;
 import org.opengis.util.FactoryException;
 import org.opengis.util.InternationalString;
+import org.opengis.metadata.extent.GeographicBoundingBox;
 import org.opengis.referencing.ReferenceIdentifier;
 import org.opengis.referencing.NoSuchAuthorityCodeException;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
@@ -214,6 +215,63 @@ public final strictfp class AuthorityFactoryTest {
         }
     }
 
+    /**
+     * Tests the name, identifiers and domain of validity fetched in a single native call by
+     * {@link IdentifiableObject#loadSnapshot(boolean)}. Requesting only those properties shall
+     * not fetch the axes, and fetching the axes later shall not replace the cached values.
+     * This test uses <cite>"WGS 84 / UTM zone 31N"</cite>.
+     *
+     * @throws FactoryException if the factory can not be created or if the CRS creation failed.
+     */
+    @Test
+    public void testSnapshot() throws FactoryException {
+        final AuthorityFactory.API factory = new AuthorityFactory.API(EPSG);
+        final ProjectedCRS crs = factory.createProjectedCRS("32631");
+        final CRS wrapper = (CRS) crs;
+        final ReferenceIdentifier name = crs.getName();
+        assertEquals("WGS 84 / UTM zone 31N", name.getCode());
+        assertEquals(wrapper.impl.getStringProperty(Property.NAME_STRING), name.getCode());
+        assertIdentifierEquals(EPSG, "32631", crs.getIdentifiers());
+        final GeographicBoundingBox bbox = (GeographicBoundingBox)
+                crs.getDomainOfValidity().getGeographicElements().iterator().next();
+        assertEquals("west",   0, bbox.getWestBoundLongitude(), 0);
+        assertEquals("east",   6, bbox.getEastBoundLongitude(), 0);
+        assertEquals("south",  0, bbox.getSouthBoundLatitude(), 0);
+        assertEquals("north", 84, bbox.getNorthBoundLatitude(), 0);
+        assertFalse("Axes shall not be fetched for a name-only lookup.", wrapper.isAxesLoaded());
+
+        assertSame(AxisDirection.EAST,  wrapper.getAxis(0).getDirection());
+        assertSame(AxisDirection.NORTH, wrapper.getAxis(1).getDirection());
+        assertTrue(wrapper.isAxesLoaded());
+        assertSame(name, crs.getName());
+        assertIdentifierEquals(EPSG, "32631", crs.getIdentifiers());
+    }
+
+    /**
+     * Tests the axes fetched in a single native call by {@link IdentifiableObject#loadSnapshot(boolean)}
+     * on a compound CRS. The axes shall be the same than the ones fetched one by one, in the same order
+     * and with the same directions and units.
+     * This test uses <cite>"RGF93 / Lambert-93 + NGF-IGN69 height"</cite>.
+     *
+     * @throws FactoryException if the factory can not be created or if the CRS creation failed.
+     */
+    @Test
+    public void testSnapshotAxes() throws FactoryException {
+        final AuthorityFactory.API factory = new AuthorityFactory.API(EPSG);
+        final CRS crs = (CRS) factory.createCompoundCRS("5698");
+        final AxisDirection[] directions = {AxisDirection.EAST, AxisDirection.NORTH, AxisDirection.UP};
+        for (int i=0; i<directions.length; i++) {
+            final Axis expected = (Axis) CompoundCS.getAxis(crs.impl, i);
+            final Axis actual   = crs.getAxis(i);
+            assertEquals(expected.getName().getCode(), actual.getName().getCode());
+            assertSame(expected.getDirection(), actual.getDirection());
+            assertSame(expected.getUnit(),      actual.getUnit());
+            assertSame(directions[i],           actual.getDirection());
+            assertSame(Units.METRE,             actual.getUnit());
+        }
+        assertEquals("dimension", 3, crs.getDimension());
+    }
+
     /**
      * Tests indirectly {@link AuthorityFactory#getDescriptionText(String)}.
      *
@@ -0,0 +1,164 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import org.opengis.util.FactoryException;
+import org.opengis.metadata.extent.GeographicBoundingBox;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests {@link MultiOperation}.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+public final strictfp class MultiOperationTest {
+    /**
+     * The factory for creating CRS using EPSG codes.
+     */
+    private final AuthorityFactory.API crsFactory;
+
+    /**
+     * Creates a new test case.
+     */
+    public MultiOperationTest() {
+        crsFactory = TestFactorySource.EPSG;
+    }
+
+    /**
+     * Creates the transform between the given pair of CRS.
+     *
+     * @param  source  EPSG code of the source CRS.
+     * @param  target  EPSG code of the target CRS.
+     * @return the area-dependent transform.
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     */
+    private MultiOperation create(final String source, final String target) throws FactoryException {
+        final CoordinateReferenceSystem sourceCRS = crsFactory.createCoordinateReferenceSystem(source);
+        final CoordinateReferenceSystem targetCRS = crsFactory.createCoordinateReferenceSystem(target);
+        final MathTransform transform = Proj.createAreaDependentTransform(sourceCRS, targetCRS, null);
+        assertTrue(transform instanceof MultiOperation);
+        return (MultiOperation) transform;
+    }
+
+    /**
+     * Tests the selection of operations for points over USA and Canada.
+     * The selected operations shall be different and have a domain of validity containing the points.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     */
+    @Test
+    public void testSelect() throws FactoryException {
+        final MultiOperation transform = create("4267", "4326");
+        final int usa    = transform.select(40, -100);                 // (latitude, longitude) order.
+        final int canada = transform.select(60, -100);
+        assertTrue(usa != canada);
+        assertDomainContains(transform.getOperations().get(usa),    40, -100);
+        assertDomainContains(transform.getOperations().get(canada), 60, -100);
+    }
+
+    /**
+     * Verifies that the domain of validity of the given operation contains the given point.
+     *
+     * @param  op         the operation to verify.
+     * @param  latitude   latitude of the point which shall be inside the domain of validity.
+     * @param  longitude  longitude of the point which shall be inside the domain of validity.
+     */
+    private static void assertDomainContains(final Operation op, final double latitude, final double longitude) {
+        final GeographicBoundingBox bbox = OperationFactoryTest.bbox(op.getDomainOfValidity());
+        assertTrue(bbox.getWestBoundLongitude() <= longitude && bbox.getEastBoundLongitude() >= longitude);
+        assertTrue(bbox.getSouthBoundLatitude() <= latitude  && bbox.getNorthBoundLatitude() >= latitude);
+    }
+
+    /**
+     * Tests the transformation of points in different countries in a single batch.
+     * The result shall be the same than transforming each point with its selected operation.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while transforming a coordinate.
+     */
+    @Test
+    public void testTransform() throws FactoryException, TransformException {
+        final MultiOperation transform = create("4230", "4326");
+        final double[] coordinates = {
+            61.0,  8.0,             // Norway
+            39.5, -8.0,             // Portugal
+            60.5,  9.0              // Norway
+        };
+        final double[] expected = new double[coordinates.length];
+        for (int i=0; i<coordinates.length; i += 2) {
+            final Operation op = transform.getOperations().get(transform.select(coordinates[i], coordinates[i+1]));
+            op.transform(coordinates, i, expected, i, 1);
+        }
+        transform.transform(coordinates, 0, coordinates, 0, 3);
+        assertArrayEquals(expected, coordinates, 1E-9);
+    }
+
+    /**
+     * Tests the transformation of points outside the domains of validity of all operations.
+     * Those points shall be set to NaN instead of being transformed by an arbitrary operation.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while transforming a coordinate.
+     */
+    @Test
+    public void testOutsideDomains() throws FactoryException, TransformException {
+        final MultiOperation transform = create("4267", "4326");
+        assertEquals(-1, transform.select(100, -100));
+        final double[] coordinates = {
+            40, -100,               // USA
+           100, -100                // Invalid latitude.
+        };
+        final double[] expected = new double[2];
+        transform.getOperations().get(transform.select(40, -100)).transform(coordinates, 0, expected, 0, 1);
+        final double[] result = new double[4];
+        Proj.transformDeduplicated(transform, coordinates, 0, result, 0, 2);
+        assertEquals(expected[0], result[0], 1E-9);
+        assertEquals(expected[1], result[1], 1E-9);
+        assertTrue(Double.isNaN(result[2]));
+        assertTrue(Double.isNaN(result[3]));
+        try {
+            transform.transform(new SimpleDirectPosition(null, new double[] {100, -100}), null);
+            fail("Expected TransformException.");
+        } catch (TransformException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
+    /**
+     * Tests {@link MultiOperation#toWKT()}, which is expected to format the preferred operation.
+     *
+     * @throws FactoryException if an error occurred while creating the transform.
+     */
+    @Test
+    public void testToWKT() throws FactoryException {
+        final MultiOperation transform = create("4267", "4326");
+        assertEquals(transform.getOperations().get(0).toWKT(), transform.toWKT());
+    }
+}
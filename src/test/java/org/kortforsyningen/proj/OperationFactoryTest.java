@@ -21,17 +21,23 @@
  */
 package org.kortforsyningen.proj;
 
+import java.util.Map;
+import java.util.HashMap;
 import java.util.Collection;
+import java.util.Collections;
 import org.opengis.util.FactoryException;
+import org.opengis.metadata.citation.Citation;
 import org.opengis.metadata.extent.Extent;
 import org.opengis.metadata.extent.GeographicExtent;
 import org.opengis.metadata.extent.GeographicBoundingBox;
 import org.opengis.metadata.quality.PositionalAccuracy;
 import org.opengis.metadata.quality.ConformanceResult;
 import org.opengis.metadata.quality.Result;
+import org.opengis.referencing.ReferenceIdentifier;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.opengis.referencing.operation.CoordinateOperation;
 import org.opengis.referencing.operation.Conversion;
+import org.opengis.referencing.operation.TransformException;
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -115,13 +121,83 @@ public final strictfp class OperationFactoryTest {
         assertNotNull(accuracy(operation.getCoordinateOperationAccuracy()));
     }
 
+    /**
+     * Tests {@link OperationFactory#createConcatenatedOperation(Map, CoordinateOperation...)}
+     * with a datum shift followed by a map projection. The concatenated operation shall give
+     * the same result than the two operations applied in sequence.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while transforming a coordinate.
+     */
+    @Test
+    public void testConcatenatedOperation() throws FactoryException, TransformException {
+        final OperationFactory          factory = new OperationFactory(null);
+        final CoordinateReferenceSystem source  = crsFactory.createCoordinateReferenceSystem("4267");
+        final CoordinateReferenceSystem interm  = crsFactory.createCoordinateReferenceSystem("4326");
+        final CoordinateReferenceSystem target  = crsFactory.createCoordinateReferenceSystem("3395");
+        final CoordinateOperation       step1   = factory.createOperation(source, interm);
+        final CoordinateOperation       step2   = factory.createOperation(interm, target);
+        final CoordinateOperation  operation = factory.createConcatenatedOperation(Collections.emptyMap(), step1, step2);
+        assertEquals("sourceCRS", source.getName().getCode(), operation.getSourceCRS().getName().getCode());
+        assertEquals("targetCRS", target.getName().getCode(), operation.getTargetCRS().getName().getCode());
+
+        final double[] expected = {40, -100};
+        step1.getMathTransform().transform(expected, 0, expected, 0, 1);
+        step2.getMathTransform().transform(expected, 0, expected, 0, 1);
+        final double[] actual = {40, -100};
+        operation.getMathTransform().transform(actual, 0, actual, 0, 1);
+        assertArrayEquals(expected, actual, 0.01);
+        /*
+         * Single operation is returned unchanged.
+         */
+        assertSame(step1, factory.createConcatenatedOperation(Collections.emptyMap(), step1));
+    }
+
+    /**
+     * Tests {@link OperationFactory#createConcatenatedOperation(Map, CoordinateOperation...)}
+     * with a name and an identifier given in the properties map. Those properties shall replace
+     * the computed name, while the domain of validity computed by PROJ shall be kept.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     */
+    @Test
+    public void testConcatenatedOperationProperties() throws FactoryException {
+        final OperationFactory          factory = new OperationFactory(null);
+        final CoordinateReferenceSystem source  = crsFactory.createCoordinateReferenceSystem("4267");
+        final CoordinateReferenceSystem interm  = crsFactory.createCoordinateReferenceSystem("4326");
+        final CoordinateReferenceSystem target  = crsFactory.createCoordinateReferenceSystem("3395");
+        final CoordinateOperation       step1   = factory.createOperation(source, interm);
+        final CoordinateOperation       step2   = factory.createOperation(interm, target);
+        final ReferenceIdentifier id = new ReferenceIdentifier() {
+            @Override public String   getCode()      {return "My code";}
+            @Override public String   getCodeSpace() {return "My codespace";}
+            @Override public Citation getAuthority() {return null;}
+            @Override public String   getVersion()   {return null;}
+        };
+        final HashMap<String,Object> properties = new HashMap<>(4);
+        properties.put(CoordinateOperation.NAME_KEY, "NAD27 to World Mercator");
+        properties.put(CoordinateOperation.IDENTIFIERS_KEY, id);
+        final CoordinateOperation operation = factory.createConcatenatedOperation(properties, step1, step2);
+        assertEquals("NAD27 to World Mercator", operation.getName().getCode());
+        final ReferenceIdentifier firstID = operation.getIdentifiers().iterator().next();
+        assertEquals("My code",      firstID.getCode());
+        assertEquals("My codespace", firstID.getCodeSpace());
+        assertNotNull(bbox(operation.getDomainOfValidity()));
+        try {
+            factory.createConcatenatedOperation(properties, step1);
+            fail("Properties can not be assigned to a single operation.");
+        } catch (FactoryException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
     /**
      * Returns the first geographic bounding box found in the given extent.
      *
      * @param  extent  the extent for which to get the geographic bounding box.
      * @return the first geographic bounding box.
      */
-    private static GeographicBoundingBox bbox(final Extent extent) {
+    static GeographicBoundingBox bbox(final Extent extent) {
         if (extent != null) {
             for (final GeographicExtent ge : extent.getGeographicElements()) {
                 if (ge instanceof GeographicBoundingBox) {
@@ -21,13 +21,26 @@
  */
 package org.kortforsyningen.proj;
 
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+import javax.management.JMException;
+import javax.management.ObjectName;
 import org.junit.Test;
 import org.opengis.util.FactoryException;
+import org.opengis.geometry.DirectPosition;
+import org.opengis.geometry.MismatchedDimensionException;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.opengis.referencing.operation.CoordinateOperation;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.Matrix;
 import org.opengis.referencing.operation.TransformException;
 import org.opengis.test.referencing.TransformTestCase;
 
+import static org.junit.Assert.*;
+
 
 /**
  * Tests coordinate operations executed with {@link Operation}.
@@ -103,6 +116,573 @@ public final strictfp class OperationTest extends TransformTestCase {
         verifyConsistency(testData());
     }
 
+    /**
+     * Tests {@link Operation#derivative(DirectPosition)} and the batch variant
+     * {@link Proj#derivatives Proj.derivatives(…)} on the Mercator projection.
+     * Expected values are computed from the analytic formulas of the ellipsoidal Mercator projection.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while computing the derivative.
+     */
+    @Test
+    public void testDerivative() throws FactoryException, TransformException {
+        initialize("4326", "3395");
+        final Matrix derivative = transform.derivative(Proj.createPosition(null, 40, 60));
+        assertEquals(2, derivative.getNumRow());
+        assertEquals(2, derivative.getNumCol());
+        assertEquals("∂E/∂φ",      0,           derivative.getElement(0, 0), 0.001);
+        assertEquals("∂E/∂λ", 111319.4908,      derivative.getElement(0, 1), 0.001);
+        assertEquals("∂N/∂φ", 144744.8236,      derivative.getElement(1, 0), 0.001);
+        assertEquals("∂N/∂λ",      0,           derivative.getElement(1, 1), 0.001);
+        /*
+         * Batch variant shall give the same results.
+         */
+        final double[] jacobians = new double[8];
+        Proj.derivatives(transform, new double[] {45, 10, 40, 60}, 0, jacobians, 0, 2);
+        for (int i=0; i<4; i++) {
+            assertEquals(derivative.getElement(i >>> 1, i & 1), jacobians[4 + i], 0);
+        }
+        assertEquals(111319.4908, jacobians[1], 0.001);
+    }
+
+    /**
+     * Tests {@link Proj#transformBounds Proj.transformBounds(…)} on the Mercator projection.
+     * Since Mercator maps meridians and parallels to straight lines,
+     * the expected box is the projection of the corners.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while transforming the box.
+     */
+    @Test
+    public void testTransformBounds() throws FactoryException, TransformException {
+        initialize("4326", "3395");
+        final double[] box = Proj.transformBounds(transform, 30, -10, 50, 10, 21);
+        assertArrayEquals(new double[] {-1113194.91, 3482189.09, 1113194.91, 6413524.59}, box, 0.01);
+    }
+
+    /**
+     * Tests {@link Proj#transformBounds Proj.transformBounds(…)} with a box containing the north pole.
+     * The source CRS is the NSIDC polar stereographic projection and the target CRS is EPSG:4326,
+     * which has (latitude, longitude) axis order. The result shall extend to the pole and all longitudes.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while transforming the box.
+     */
+    @Test
+    public void testTransformBoundsOverPole() throws FactoryException, TransformException {
+        initialize("4326", "3413");
+        final double[] box = Proj.transformBounds(transform.inverse(), -1E+6, -1E+6, 1E+6, 1E+6, 21);
+        assertEquals(  90, box[2], 1E-9);
+        assertEquals(-180, box[1], 1E-9);
+        assertEquals( 180, box[3], 1E-9);
+        assertTrue(box[0] > 70 && box[0] < 90);
+    }
+
+    /**
+     * Tests {@link Proj#transformBounds Proj.transformBounds(…)} with a box crossing the anti-meridian
+     * in the target CRS. The source CRS is a Mercator projection centred on 150°E and the box spans
+     * from 170°E to 170°W. The minimal longitude of the result shall be greater than the maximal one.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while transforming the box.
+     */
+    @Test
+    public void testTransformBoundsOverAntiMeridian() throws FactoryException, TransformException {
+        initialize("4326", "3832");
+        final double[] box = Proj.transformBounds(transform.inverse(), 2226389.82, 0, 4452779.63, 1E+6, 21);
+        assertEquals( 170, box[1], 1E-6);
+        assertEquals(-170, box[3], 1E-6);
+        assertEquals(   0, box[0], 1E-6);
+        assertTrue(box[2] > 8 && box[2] < 10);
+    }
+
+    /**
+     * Tests {@link Proj#transformDeduplicated Proj.transformDeduplicated(…)} on two squares
+     * sharing an edge, given as closed rings. Four of the ten points are duplicates.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while transforming a coordinate.
+     */
+    @Test
+    public void testTransformDeduplicated() throws FactoryException, TransformException {
+        initialize("4326", "3395");
+        final double[] source = {
+            40, 10,  41, 10,  41, 11,  40, 11,  40, 10,         // First square.
+            40, 11,  41, 11,  41, 12,  40, 12,  40, 11          // Second square.
+        };
+        final double[] expected = new double[source.length];
+        transform.transform(source, 0, expected, 0, 10);
+        Proj.transformDeduplicated(transform, source, 0, source, 0, 10);
+        assertArrayEquals(expected, source, 1E-9);
+    }
+
+    /**
+     * Tests {@link Proj#transformInSpatialOrder Proj.transformInSpatialOrder(…)} on shuffled points.
+     * The results shall be the same than the ones of the normal transform method, in the same order.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while transforming a coordinate.
+     */
+    @Test
+    public void testTransformInSpatialOrder() throws FactoryException, TransformException {
+        initialize("4326", "3395");
+        final Random random = new Random(7623465236L);
+        final double[] source = new double[200];
+        for (int i=0; i<source.length; i += 2) {
+            source[i  ] = random.nextDouble() * 160 - 80;      // Latitude
+            source[i+1] = random.nextDouble() * 360 - 180;     // Longitude
+        }
+        final double[] expected = new double[source.length];
+        transform.transform(source, 0, expected, 0, source.length / 2);
+        Proj.transformInSpatialOrder(transform, source, 0, source, 0, source.length / 2);
+        assertArrayEquals(expected, source, 1E-9);
+    }
+
+    /**
+     * Tests {@link Operation#hilbert(int, int)} on the first cells and on the last cell of the curve.
+     */
+    @Test
+    public void testHilbert() {
+        assertEquals(0, Operation.hilbert(0, 0));
+        assertEquals(1, Operation.hilbert(0, 1));
+        assertEquals(2, Operation.hilbert(1, 1));
+        assertEquals(3, Operation.hilbert(1, 0));
+        assertEquals((1L << 30) - 1, Operation.hilbert((1 << 15) - 1, 0));
+    }
+
+    /**
+     * Tests {@link Proj#transformAlongLine Proj.transformAlongLine(…)} on a meridian
+     * of the Mercator projection, where northing is a non-linear function of latitude.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while transforming a coordinate.
+     */
+    @Test
+    public void testTransformAlongLine() throws FactoryException, TransformException {
+        initialize("4326", "3395");
+        final int numPts = 1001;
+        final double[] source = new double[numPts * 2];
+        for (int i=0; i<numPts; i++) {
+            source[i*2  ] = 40 + i * 0.001;             // Latitude from 40 to 41°.
+            source[i*2+1] = 10;                         // Longitude.
+        }
+        final double[] expected = new double[source.length];
+        final double[] actual   = new double[source.length];
+        transform.transform(source, 0, expected, 0, numPts);
+        Proj.transformAlongLine(transform, source, 0, actual, 0, numPts, 0.1);
+        assertArrayEquals(expected, actual, 0.2);
+        /*
+         * Same test with source and target in the same array.
+         */
+        Proj.transformAlongLine(transform, source, 0, source, 0, numPts, 0.1);
+        assertArrayEquals(expected, source, 0.2);
+    }
+
+    /**
+     * Tests {@link Proj#transformAlongLine Proj.transformAlongLine(…)} with points which are not
+     * regularly spaced along a line. All points shall be transformed exactly instead of being
+     * interpolated between unrelated neighbours.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while transforming a coordinate.
+     */
+    @Test
+    public void testTransformAlongUnorderedPoints() throws FactoryException, TransformException {
+        initialize("4326", "3395");
+        final double[] source = {
+            40, 10,
+            80, 10,             // Far from the linear interpolation of its neighbours.
+            42, 10,
+            43, 10,
+            44, 10
+        };
+        final double[] expected = new double[source.length];
+        final double[] actual   = new double[source.length];
+        transform.transform(source, 0, expected, 0, 5);
+        Proj.transformAlongLine(transform, source, 0, actual, 0, 5, 1000);
+        assertArrayEquals(expected, actual, 1E-9);
+    }
+
+    /**
+     * Tests {@link Proj#warpMap(MathTransform, double, double, double, double, int, int, double[], int)}
+     * and its single-precision variant by comparing with a row-by-row transformation.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while transforming a coordinate.
+     */
+    @Test
+    public void testWarpMap() throws FactoryException, TransformException {
+        initialize("4326", "3395");
+        final int width = 7, height = 5;
+        final double[] expected = new double[width * height * 2];
+        for (int j=0, t=0; j<height; j++) {
+            for (int i=0; i<width; i++) {
+                expected[t++] = 40 + (i + 0.5) * 0.25;
+                expected[t++] = 10 - (j + 0.5) * 0.5;
+            }
+        }
+        transform.transform(expected, 0, expected, 0, width * height);
+        final double[] actual = new double[expected.length + 1];
+        Proj.warpMap(transform, 40, 10, 0.25, -0.5, width, height, actual, 1);
+        assertArrayEquals(expected, Arrays.copyOfRange(actual, 1, actual.length), 1E-9);
+
+        final float[] floats = new float[expected.length];
+        Proj.warpMap(transform, 40, 10, 0.25, -0.5, width, height, floats, 0);
+        for (int i=0; i<floats.length; i++) {
+            assertEquals(expected[i], floats[i], 1);
+        }
+        /*
+         * A grid having more cells than an `int` can count shall be
+         * rejected as an illegal argument, not as an arithmetic overflow.
+         */
+        try {
+            Proj.warpMap(transform, 40, 10, 0.25, -0.5, 100000, 100000, actual, 0);
+            fail("Expected IllegalArgumentException.");
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
+    /**
+     * Tests {@link Proj#transformScaled Proj.transformScaled(…)} with coordinates
+     * stored as integers in micro-degrees and transformed to centimetres.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while transforming a coordinate.
+     */
+    @Test
+    public void testTransformScaled() throws FactoryException, TransformException {
+        initialize("4326", "3395");
+        final int[] coordinates = {40000000, 60000000, 45500000, -73567000};
+        final double[] expected = {40, 60, 45.5, -73.567};
+        transform.transform(expected, 0, expected, 0, 2);
+        Proj.transformScaled(transform, coordinates, 0, 2,
+                new double[] {1E-6, 1E-6}, new double[] {0, 0},
+                new double[] {0.01, 0.01}, new double[] {1000, 0});
+        for (int i=0; i<coordinates.length; i++) {
+            final double offset = (i & 1) == 0 ? 1000 : 0;
+            assertEquals(Math.round((expected[i] - offset) / 0.01), coordinates[i]);
+        }
+    }
+
+    /**
+     * Tests {@link Proj#transformScaled Proj.transformScaled(…)} with scale and offset arrays
+     * of a dimension different than the operation dimension.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while transforming a coordinate.
+     */
+    @Test
+    public void testTransformScaledMismatchedDimension() throws FactoryException, TransformException {
+        initialize("4326", "3395");
+        final int[] coordinates = {40000000, 60000000, 1000};
+        try {
+            Proj.transformScaled(transform, coordinates, 0, 1,
+                    new double[] {1E-6, 1E-6, 1}, new double[3],
+                    new double[] {0.01, 0.01, 1}, new double[3]);
+            fail("Arrays of mismatched dimension shall be rejected.");
+        } catch (MismatchedDimensionException e) {
+            assertNotNull(e.getMessage());
+        }
+        assertArrayEquals(new int[] {40000000, 60000000, 1000}, coordinates);
+    }
+
+    /**
+     * Tests {@link Proj#transformWKB(MathTransform, ByteBuffer)} on a multi-line string
+     * with components in different byte orders, in a heap buffer and in a direct buffer.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while transforming a coordinate.
+     */
+    @Test
+    public void testTransformWKB() throws FactoryException, TransformException {
+        initialize("4326", "3395");
+        final double[] expected = {40, 60, 45.5, -73.567, 49.25, -123.1};
+        for (final ByteBuffer wkb : new ByteBuffer[] {ByteBuffer.allocate(200), ByteBuffer.allocateDirect(200)}) {
+            wkb.put((byte) 0).putInt(5).putInt(2);                              // Big-endian MultiLineString.
+            wkb.put((byte) 0).putInt(2).putInt(2);                              // Big-endian LineString.
+            wkb.putDouble(expected[0]).putDouble(expected[1]);
+            wkb.putDouble(expected[2]).putDouble(expected[3]);
+            wkb.order(ByteOrder.LITTLE_ENDIAN);
+            wkb.put((byte) 1).putInt(2).putInt(1);                              // Little-endian LineString.
+            wkb.putDouble(expected[4]).putDouble(expected[5]);
+            final int length = wkb.position();
+            wkb.flip();
+            wkb.order(ByteOrder.BIG_ENDIAN);
+            Proj.transformWKB(transform, wkb);
+            assertEquals(length, wkb.position());
+            final double[] actual = {
+                wkb.getDouble(18), wkb.getDouble(26), wkb.getDouble(34), wkb.getDouble(42),
+                wkb.order(ByteOrder.LITTLE_ENDIAN).getDouble(59), wkb.getDouble(67)
+            };
+            final double[] points = expected.clone();
+            transform.transform(points, 0, points, 0, 3);
+            assertArrayEquals(points, actual, 1E-6);
+        }
+    }
+
+    /**
+     * Tests {@link Proj#transformWKB(MathTransform, ByteBuffer)} with a geometry having a <var>z</var> coordinate
+     * given to a two-dimensional operation. The geometry shall be rejected before any vertex is transformed.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while transforming a coordinate.
+     */
+    @Test
+    public void testTransformWKBMismatchedDimension() throws FactoryException, TransformException {
+        initialize("4326", "3395");
+        final ByteBuffer wkb = ByteBuffer.allocate(29);
+        wkb.put((byte) 0).putInt(1001).putDouble(40).putDouble(60).putDouble(10);      // Big-endian Point Z.
+        wkb.flip();
+        try {
+            Proj.transformWKB(transform, wkb);
+            fail("Geometry of mismatched dimension shall be rejected.");
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+        assertEquals(0,  wkb.position());
+        assertEquals(40, wkb.getDouble(5),  0);
+        assertEquals(60, wkb.getDouble(13), 0);
+    }
+
+    /**
+     * Tests {@link PointTransformer} with coordinates given as {@code double} values and as positions.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while transforming a coordinate.
+     */
+    @Test
+    public void testPointTransformer() throws FactoryException, TransformException {
+        initialize("4326", "3395");
+        final double[] expected = {6679169.45, 4838471.40};
+        try (PointTransformer tr = Proj.createPointTransformer(transform)) {
+            final double[] result = new double[2];
+            tr.transform(40, 60, result);
+            assertArrayEquals(expected, result, 0.01);
+            tr.transform(40, 60, 1000, result);                     // The z value shall be ignored.
+            assertArrayEquals(expected, result, 0.01);
+            final DirectPosition position = Proj.createPosition(null, 40, 60);
+            tr.transform(position, position);
+            assertArrayEquals(expected, position.getCoordinate(), 0.01);
+            tr.close();
+            try {
+                tr.transform(40, 60, result);
+                fail("Transformer should be closed.");
+            } catch (IllegalStateException e) {
+                assertNotNull(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Tests {@link PointTransformer} with a one-dimensional operation. The methods expecting at least
+     * two coordinates shall throw {@link MismatchedDimensionException} instead of ignoring <var>y</var>.
+     * The tested operation converts "MSL height" to "MSL depth".
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while transforming a coordinate.
+     */
+    @Test
+    public void testPointTransformerOn1D() throws FactoryException, TransformException {
+        initialize("5714", "5715");
+        try (PointTransformer tr = Proj.createPointTransformer(transform)) {
+            assertEquals(1, tr.getSourceDimensions());
+            final DirectPosition position = Proj.createPosition(null, 20);
+            tr.transform(position, position);
+            assertEquals(-20, position.getOrdinate(0), 0);
+            try {
+                tr.transform(20, 30, new double[1]);
+                fail("Expected MismatchedDimensionException.");
+            } catch (MismatchedDimensionException e) {
+                // Expected.
+            }
+        }
+    }
+
+    /**
+     * Tests {@link Proj#createPointTransformer(MathTransform, int)}. Points fetched from the cache
+     * shall be equal to the computed ones, and modifying a result shall not modify the cache.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while transforming a coordinate.
+     */
+    @Test
+    public void testPointCache() throws FactoryException, TransformException {
+        initialize("4326", "3395");
+        final double[] expected = {6679169.45, 4838471.40};
+        final double[] result = new double[2];
+        try (PointTransformer tr = Proj.createPointTransformer(transform, 2)) {
+            tr.transform(40, 60, result);
+            assertArrayEquals(expected, result, 0.01);
+            result[0] = 0;
+            tr.transform(40, 60, result);                       // Fetched from the cache.
+            assertArrayEquals(expected, result, 0.01);
+            final double[] first = result.clone();
+            tr.transform(45, 10, result);
+            tr.transform(40, 60, result);                       // Fetched from the cache, (45, 10) is eldest.
+            assertArrayEquals(first, result, 0);
+            tr.transform(50, 20, result);                       // Evict (45, 10).
+            tr.transform(30, 15, result);                       // Evict (40, 60).
+            tr.transform(40, 60, result);
+            assertArrayEquals(first, result, 0);
+            tr.transform(45, 10, result);
+            final double[] other = result.clone();
+            transform.transform(new double[] {45, 10}, 0, result, 0, 1);
+            assertArrayEquals(result, other, 0);
+        }
+    }
+
+    /**
+     * Tests the metrics enabled by {@link Proj#setMetricsEnabled(boolean)}.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while transforming a coordinate.
+     * @throws JMException if an error occurred while querying the platform MBean server.
+     */
+    @Test
+    public void testMetrics() throws FactoryException, TransformException, JMException {
+        initialize("4326", "3395");
+        final String name = ((Operation) transform).getName().getCode();
+        Proj.setMetricsEnabled(true);
+        try {
+            Proj.resetMetrics();
+            transform.transform(new double[] {40, 60, 45.5, -73.567}, 0, new double[4], 0, 2);
+            transform.transform(new double[] {10, 20}, 0, new double[2], 0, 1);
+            TransformMetrics metrics = null;
+            for (final TransformMetrics m : Proj.getMetrics()) {
+                if (name.equals(m.getOperation())) {
+                    metrics = m;
+                }
+            }
+            assertNotNull(metrics);
+            assertEquals("EPSG:4326", metrics.getSourceCRS());
+            assertEquals("EPSG:3395", metrics.getTargetCRS());
+            assertEquals(2, metrics.getCallCount());
+            assertEquals(3, metrics.getPointCount());
+            assertEquals(0, metrics.getErrorCount());
+            assertTrue(metrics.getTransformTime() > 0);
+            final ObjectName bean = new ObjectName(TransformMetricsMXBean.OBJECT_NAME);
+            assertEquals(Boolean.TRUE, ManagementFactory.getPlatformMBeanServer().getAttribute(bean, "Enabled"));
+        } finally {
+            Proj.setMetricsEnabled(false);
+        }
+    }
+
+    /**
+     * Tests that points transformed by {@link PointTransformer}, including the ones fetched
+     * from its point cache, are counted in the metrics.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while transforming a coordinate.
+     */
+    @Test
+    public void testMetricsOfCachedPoints() throws FactoryException, TransformException {
+        initialize("4326", "3395");
+        final String name = ((Operation) transform).getName().getCode();
+        Proj.setMetricsEnabled(true);
+        try {
+            Proj.resetMetrics();
+            try (PointTransformer tr = Proj.createPointTransformer(transform, 2)) {
+                tr.transform(40, 60, new double[2]);
+                tr.transform(40, 60, new double[2]);                // Fetched from the cache.
+            }
+            try (PointTransformer tr = Proj.createPointTransformer(transform)) {
+                tr.transform(40, 60, new double[2]);
+            }
+            TransformMetrics metrics = null;
+            for (final TransformMetrics m : Proj.getMetrics()) {
+                if (name.equals(m.getOperation())) {
+                    metrics = m;
+                }
+            }
+            assertNotNull(metrics);
+            assertEquals(3, metrics.getCallCount());
+            assertEquals(3, metrics.getPointCount());
+            assertEquals(0, metrics.getErrorCount());
+        } finally {
+            Proj.setMetricsEnabled(false);
+        }
+    }
+
+    /**
+     * Tests that the methods transforming many points by other ways than {@code transform(double[], …)}
+     * are also counted in the metrics.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while transforming a coordinate.
+     */
+    @Test
+    public void testMetricsOfBatchMethods() throws FactoryException, TransformException {
+        initialize("4326", "3395");
+        final String name = ((Operation) transform).getName().getCode();
+        Proj.setMetricsEnabled(true);
+        try {
+            Proj.resetMetrics();
+            Proj.derivatives(transform, new double[] {45, 10, 40, 60}, 0, new double[8], 0, 2);
+            Proj.transformScaled(transform, new int[] {40000000, 60000000}, 0, 1,
+                    new double[] {1E-6, 1E-6}, new double[2], new double[] {0.01, 0.01}, new double[2]);
+            Proj.warpMap(transform, 0, 0, 1, 1, 3, 2, new double[12], 0);
+            TransformMetrics metrics = null;
+            for (final TransformMetrics m : Proj.getMetrics()) {
+                if (name.equals(m.getOperation())) {
+                    metrics = m;
+                }
+            }
+            assertNotNull(metrics);
+            assertEquals(3, metrics.getCallCount());
+            assertEquals(2 + 1 + 6, metrics.getPointCount());
+            assertEquals(0, metrics.getErrorCount());
+        } finally {
+            Proj.setMetricsEnabled(false);
+        }
+    }
+
+    /**
+     * Tests {@link Operation#inverse()} with a round trip. The inverse operation
+     * shares the {@code PJ} objects of the forward operation.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while transforming a coordinate.
+     */
+    @Test
+    public void testInverse() throws FactoryException, TransformException {
+        initialize("4326", "3395");
+        final MathTransform inverse = transform.inverse();
+        assertSame(transform, inverse.inverse());
+        final double[] coordinates = {40, 60, 45.5, -73.567};
+        transform.transform(coordinates, 0, coordinates, 0, 2);
+        assertArrayEquals(new double[] {6679169.45, 4838471.40}, Arrays.copyOf(coordinates, 2), 0.01);
+        inverse.transform(coordinates, 0, coordinates, 0, 2);
+        assertArrayEquals(new double[] {40, 60, 45.5, -73.567}, coordinates, 1E-9);
+    }
+
+    /**
+     * Verifies that the inverse operation uses the {@code PJ} objects of the forward operation
+     * instead of creating its own pool. A {@link Transform} released by the forward operation
+     * shall be the instance acquired next by the inverse operation.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while creating the transform.
+     */
+    @Test
+    public void testInverseSharesTransforms() throws FactoryException, TransformException {
+        initialize("4326", "3395");
+        final Operation forward = (Operation) transform;
+        final Operation inverse = (Operation) forward.inverse();
+        assertSame(forward.getSourceCRS(), inverse.getTargetCRS());
+        assertSame(forward.getTargetCRS(), inverse.getSourceCRS());
+        try (Context c = Context.acquire()) {
+            final Transform tr = forward.acquire(c);
+            forward.release(tr);
+            final Transform shared = inverse.acquire(c);
+            try {
+                assertSame(tr, shared);
+            } finally {
+                inverse.release(shared);
+            }
+        }
+    }
+
     /**
      * Tests an operation that reduce the number of dimensions. The tested operation does (λ,φ,h) → (φ,λ).
      * The coordinate swapping performed by that operation is a simple way to verify that the transform is
@@ -125,6 +705,28 @@ public final strictfp class OperationTest extends TransformTestCase {
                 48.865f,    2.349f, 10f});
     }
 
+    /**
+     * Tests {@link Operation#derivative(DirectPosition)} on an operation that reduce the number of dimensions.
+     * The tested operation does (λ,φ,h) → (φ,λ), so the Jacobian matrix shall have 2 rows and 3 columns,
+     * with the axis swapping in the first two columns and zero for the dropped <var>h</var> column.
+     *
+     * @throws FactoryException if an error occurred while creating a CRS or the operation.
+     * @throws TransformException if an error occurred while computing the derivative.
+     */
+    @Test
+    public void testDerivativeOfDimensionReduce() throws FactoryException, TransformException {
+        initialize("7042", "4171");
+        final Matrix derivative = transform.derivative(Proj.createPosition(null, 61, 41, 0));
+        assertEquals(2, derivative.getNumRow());
+        assertEquals(3, derivative.getNumCol());
+        assertEquals("∂φ/∂λ", 0, derivative.getElement(0, 0), 1E-6);
+        assertEquals("∂φ/∂φ", 1, derivative.getElement(0, 1), 1E-6);
+        assertEquals("∂φ/∂h", 0, derivative.getElement(0, 2), 1E-6);
+        assertEquals("∂λ/∂λ", 1, derivative.getElement(1, 0), 1E-6);
+        assertEquals("∂λ/∂φ", 0, derivative.getElement(1, 1), 1E-6);
+        assertEquals("∂λ/∂h", 0, derivative.getElement(1, 2), 1E-6);
+    }
+
     /**
      * Tests an operation that increase the number of dimensions. The tested operation does (φ,λ) → (λ,φ,h).
      * The coordinate swapping performed by that operation is a simple way to verify that the transform is
@@ -62,4 +62,18 @@ public final strictfp class ProjTest {
         // Verify that the hash code value is stable.
         assertEquals(obj.hashCode(), obj.hashCode());
     }
+
+    /**
+     * Verifies that {@link Proj#createFromUserInput(String)} returns cached instances
+     * when invoked many times with the same text.
+     *
+     * @throws FactoryException if the object creation failed.
+     */
+    @Test
+    public void testCreateFromUserInputCache() throws FactoryException {
+        final IdentifiedObject obj = Proj.createFromUserInput("EPSG:3395");
+        assertSame(obj, Proj.createFromUserInput("EPSG:3395"));
+        assertSame(obj, Proj.createFromUserInput("  EPSG:3395 "));
+        assertNotSame(obj, Proj.createFromUserInput("EPSG:4326"));
+    }
 }
@@ -22,9 +22,12 @@
 package org.kortforsyningen.proj;
 
 import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.EnumSet;
+import java.util.List;
 import org.junit.Test;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.opengis.referencing.crs.GeographicCRS;
@@ -145,6 +148,33 @@ public final strictfp class ReferencingFormatTest {
         assertEquals("+proj=merc +lon_0=0 +k=1 +x_0=0 +y_0=0 +datum=WGS84 +units=m +no_defs +type=crs", wkt);
     }
 
+    /**
+     * Tests {@link ReferencingFormat#formatTo(Object, Appendable)} and
+     * {@link ReferencingFormat#formatAll(java.util.Collection, java.io.Writer)}.
+     * The results shall be identical to {@link ReferencingFormat#format(Object)}.
+     *
+     * @throws FactoryException if an error occurred while creating the test CRS.
+     * @throws IOException should never happen since we write in memory.
+     */
+    @Test
+    public void testFormatTo() throws FactoryException, IOException {
+        final AuthorityFactory.API factory = TestFactorySource.EPSG;
+        final CoordinateReferenceSystem crs1 = factory.createCoordinateReferenceSystem("4326");
+        final CoordinateReferenceSystem crs2 = factory.createCoordinateReferenceSystem("3395");
+        final ReferencingFormat formatter = new ReferencingFormat();
+        final String wkt1 = formatter.format(crs1);
+        final String wkt2 = formatter.format(crs2);
+
+        final StringBuilder buffer = new StringBuilder();
+        formatter.formatTo(crs1, buffer);
+        assertEquals(wkt1, buffer.toString());
+
+        final StringWriter out = new StringWriter();
+        formatter.formatAll(Arrays.asList(crs1, crs2), out);
+        final String ls = System.lineSeparator();
+        assertEquals(wkt1 + ls + wkt2 + ls, out.toString());
+    }
+
     /**
      * Tests {@link ReferencingFormat#parse(String)}.
      */
@@ -179,4 +209,45 @@ public final strictfp class ReferencingFormatTest {
         }
         assertTrue(foundWarning);
     }
+
+    /**
+     * Tests {@link ReferencingFormat#parseAll(java.util.Collection)} with a valid string and an invalid string.
+     */
+    @Test
+    public void testParseAll() {
+        final ReferencingFormat parser = new ReferencingFormat();
+        final List<ReferencingFormat.ParseResult> results = parser.parseAll(Arrays.asList(
+                "GEOGCRS[\"WGS 84\",\n" +
+                "    DATUM[\"World Geodetic System 1984\",\n" +
+                "        ELLIPSOID[\"WGS 84\",6378137,298.257223563]],\n" +
+                "    CS[ellipsoidal,2],\n" +
+                "        AXIS[\"latitude\",north],\n" +
+                "        AXIS[\"longitude\",east],\n" +
+                "        ANGLEUNIT[\"degree\",0.0174532925199433]]",
+                "GEOGCRS[\"Invalid\"]"));
+
+        assertEquals(2, results.size());
+        ReferencingFormat.ParseResult r = results.get(0);
+        assertNull(r.getError());
+        assertEquals("WGS 84", ((GeographicCRS) r.getObject()).getName().getCode());
+
+        r = results.get(1);
+        assertNull(r.getObject());
+        assertNotNull(r.getError());
+    }
+
+    /**
+     * Tests {@link ReferencingFormat#parseAll(java.util.Collection)} with a convention which is not
+     * supported for parsing. An error shall be reported instead of an empty result.
+     */
+    @Test
+    public void testParseAllUnsupported() {
+        final ReferencingFormat parser = new ReferencingFormat();
+        parser.setConvention(ReferencingFormat.Convention.JSON);
+        final List<ReferencingFormat.ParseResult> results = parser.parseAll(Arrays.asList("{}"));
+        assertEquals(1, results.size());
+        final ReferencingFormat.ParseResult r = results.get(0);
+        assertNull(r.getObject());
+        assertNotNull(r.getError());
+    }
 }
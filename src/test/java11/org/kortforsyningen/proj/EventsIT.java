@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2019 Agency for Data Supply and Efficiency
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.kortforsyningen.proj;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+import org.opengis.util.FactoryException;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests the Java Flight Recorder events emitted by the Java 11 implementation of {@link Events}.
+ * This test needs the Multi-Release JAR file, so it is executed after packaging.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.0
+ * @since   1.0
+ */
+public final strictfp class EventsIT {
+    /**
+     * Verifies that the transformation of a batch of points emits a {@code TransformBatch} event
+     * with the number of points, including for batch methods other than {@code transform(…)}.
+     *
+     * @throws FactoryException if an error occurred while creating the operation.
+     * @throws TransformException if an error occurred while transforming the points.
+     * @throws IOException if an error occurred while writing or reading the recording.
+     */
+    @Test
+    public void testTransformBatch() throws FactoryException, TransformException, IOException {
+        final CoordinateReferenceSystem source = TestFactorySource.EPSG.createCoordinateReferenceSystem("4326");
+        final CoordinateReferenceSystem target = TestFactorySource.EPSG.createCoordinateReferenceSystem("3395");
+        final MathTransform transform = TestFactorySource.OPERATIONS.createOperation(source, target).getMathTransform();
+        final double[] coordinates = {
+            45.500,  -73.567,               // Montreal
+            49.250, -123.100,               // Vancouver
+            35.653,  139.839                // Tokyo
+        };
+        final Path file = Files.createTempFile("proj", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable("org.kortforsyningen.proj.Transform");
+                recording.start();
+                transform.transform(coordinates, 0, coordinates, 0, 3);
+                Proj.derivatives(transform, new double[] {45, 10, 40, 60}, 0, new double[8], 0, 2);
+                recording.stop();
+                recording.dump(file);
+            }
+            final Set<Long> numPts = new HashSet<>();
+            for (final RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (event.getEventType().getName().equals("org.kortforsyningen.proj.Transform")) {
+                    assertFalse(event.getBoolean("failed"));
+                    numPts.add(event.getLong("numPts"));
+                }
+            }
+            assertEquals("TransformBatch events.", new HashSet<>(Arrays.asList(3L, 2L)), numPts);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}